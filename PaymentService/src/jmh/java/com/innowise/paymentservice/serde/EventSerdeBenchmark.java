@@ -0,0 +1,92 @@
+package com.innowise.paymentservice.serde;
+
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName EventSerdeBenchmark
+ * @Description Compares the wire formats of the Kafka events through the same
+ * {@link NegotiatingSerializer}/{@link NegotiatingDeserializer} pair the producers and consumers use:
+ * {@code json-databind} is Spring's reflective {@code JsonSerializer}/{@code JsonDeserializer},
+ * {@code json} the streaming {@link JsonEventCodec}s and {@code binary} the {@link BinaryEventCodec}s.
+ * The encoded sizes of the same two events are asserted in {@code NegotiatingSerdeTest}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventSerdeBenchmark {
+
+    private static final String TOPIC = "benchmark";
+
+    @Param({"json-databind", "json", "binary"})
+    private String codec;
+
+    private final OrderEvent orderEvent = new OrderEvent(123_456_789L, 987_654L, new BigDecimal("1249.99"));
+    private final PaymentEvent paymentEvent = new PaymentEvent("PAYMENT-123456789", 123_456_789L, PaymentStatus.SUCCESS);
+
+    private Serializer<OrderEvent> orderSerializer;
+    private Deserializer<OrderEvent> orderDeserializer;
+    private Serializer<PaymentEvent> paymentSerializer;
+    private Headers orderHeaders;
+    private byte[] orderBytes;
+
+    @Setup
+    public void setUp() {
+        EventWireFormat format = "binary".equals(codec) ? EventWireFormat.BINARY : EventWireFormat.JSON;
+        boolean databind = "json-databind".equals(codec);
+
+        orderSerializer = new NegotiatingSerializer<>(format, new OrderEventBinaryCodec(),
+                databind ? new JsonSerializer<>() : new JsonEventSerializer<>(new OrderEventJsonCodec()));
+        orderDeserializer = new NegotiatingDeserializer<>(new OrderEventBinaryCodec(),
+                databind ? databindDeserializer() : new JsonEventDeserializer<>(new OrderEventJsonCodec()));
+        paymentSerializer = new NegotiatingSerializer<>(format, new PaymentEventBinaryCodec(),
+                databind ? new JsonSerializer<>() : new JsonEventSerializer<>(new PaymentEventJsonCodec()));
+
+        orderHeaders = new RecordHeaders();
+        orderBytes = orderSerializer.serialize(TOPIC, orderHeaders, orderEvent);
+    }
+
+    @Benchmark
+    public byte[] serializeOrderEvent() {
+        return orderSerializer.serialize(TOPIC, new RecordHeaders(), orderEvent);
+    }
+
+    @Benchmark
+    public OrderEvent deserializeOrderEvent() {
+        return orderDeserializer.deserialize(TOPIC, orderHeaders, orderBytes);
+    }
+
+    @Benchmark
+    public byte[] serializePaymentEvent() {
+        return paymentSerializer.serialize(TOPIC, new RecordHeaders(), paymentEvent);
+    }
+
+    private static Deserializer<OrderEvent> databindDeserializer() {
+        JsonDeserializer<OrderEvent> json = new JsonDeserializer<>(OrderEvent.class);
+        json.addTrustedPackages("*");
+        json.setUseTypeHeaders(false);
+        json.setUseTypeMapperForKey(false);
+        return json;
+    }
+}
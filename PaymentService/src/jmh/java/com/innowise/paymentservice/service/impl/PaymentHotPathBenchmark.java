@@ -0,0 +1,161 @@
+package com.innowise.paymentservice.service.impl;
+
+import com.innowise.paymentservice.cache.PaymentCache;
+import com.innowise.paymentservice.dedup.ProcessedOrderFilter;
+import com.innowise.paymentservice.mapper.PaymentMapper;
+import com.innowise.paymentservice.mapper.PaymentMapperImpl;
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import com.innowise.paymentservice.model.dto.PaymentTotalDto;
+import com.innowise.paymentservice.model.entity.Payment;
+import com.innowise.paymentservice.outbox.PaymentOutbox;
+import com.innowise.paymentservice.repository.PaymentRepository;
+import com.innowise.paymentservice.rollup.PaymentRollupStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * @ClassName PaymentHotPathBenchmark
+ * @Description Microbenchmarks of the per-event work in {@link PaymentServiceImpl} with the storage stubbed out:
+ * the repository returns the inserted document, rollups are not written and the caches are local Caffeine caches.
+ * OrderEvent deserialization and PaymentEvent serialization are measured by {@code EventSerdeBenchmark}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaymentHotPathBenchmark {
+
+    private final PaymentMapper paymentMapper = new PaymentMapperImpl();
+    private final PaymentDto dto = PaymentDto.builder()
+            .paymentId("PAYMENT-123456789")
+            .orderId(123_456_789L)
+            .userId(987_654L)
+            .paymentAmount(new BigDecimal("1249.99"))
+            .status(PaymentStatus.SUCCESS)
+            .timestamp(Instant.parse("2026-10-18T10:15:30Z"))
+            .build();
+    private final Payment payment = paymentMapper.toEntity(dto);
+
+    private PaymentServiceImpl paymentService;
+    private long nextOrderId;
+
+    @Setup
+    public void setUp() {
+        paymentService = paymentService(List.of());
+    }
+
+    @Benchmark
+    public PaymentDto processOrderEvent() {
+        return paymentService.processOrderEvent(new OrderEvent(++nextOrderId, 987_654L, dto.getPaymentAmount()), true);
+    }
+
+    @Benchmark
+    public Payment mapperToEntity() {
+        return paymentMapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public PaymentDto mapperToDto() {
+        return paymentMapper.toDto(payment);
+    }
+
+    @Benchmark
+    public PaymentDto mapperRoundTrip() {
+        return paymentMapper.toDto(paymentMapper.toEntity(dto));
+    }
+
+    @Benchmark
+    public PaymentEvent toPaymentEvent() {
+        return paymentService.toPaymentEvent(dto);
+    }
+
+    @Benchmark
+    public BigDecimal getTotalBetween(Totals totals) {
+        return totals.paymentService.getTotalBetween(Instant.EPOCH, Instant.EPOCH);
+    }
+
+    @State(Scope.Thread)
+    public static class Totals {
+
+        @Param({"1000", "100000"})
+        private int size;
+
+        private PaymentServiceImpl paymentService;
+
+        @Setup
+        public void setUp() {
+            List<PaymentTotalDto> totals = IntStream.range(0, size)
+                    .mapToObj(i -> PaymentTotalDto.builder()
+                            .key(String.valueOf(i))
+                            .total(BigDecimal.valueOf(i * 1_000L + 99, 2))
+                            .count(i)
+                            .build())
+                    .toList();
+            paymentService = paymentService(totals);
+        }
+    }
+
+    private static PaymentServiceImpl paymentService(List<PaymentTotalDto> totals) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PaymentCache.BY_ORDER, PaymentCache.BY_USER);
+        cacheManager.setCacheSpecification("maximumSize=100000");
+
+        return new PaymentServiceImpl(
+                stubRepository(),
+                new PaymentMapperImpl(),
+                new ProcessedOrderFilter(null, true, 10_000_000, 0.01),
+                new StubRollupStore(totals),
+                new PaymentCache(cacheManager),
+                new PaymentOutbox("direct"));
+    }
+
+    private static PaymentRepository stubRepository() {
+        return (PaymentRepository) Proxy.newProxyInstance(PaymentRepository.class.getClassLoader(),
+                new Class<?>[]{PaymentRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "insert" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubPaymentRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static class StubRollupStore extends PaymentRollupStore {
+
+        private final List<PaymentTotalDto> totals;
+
+        StubRollupStore(List<PaymentTotalDto> totals) {
+            super(null, null, false);
+            this.totals = totals;
+        }
+
+        @Override
+        public void record(Collection<Payment> payments) {
+        }
+
+        @Override
+        public List<PaymentTotalDto> totalsByStatusBetween(Instant from, Instant to) {
+            return totals;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.innowise.paymentservice.cache;
+
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * @ClassName PaymentCache
+ * @Description Names of the payment lookup caches and their maintenance on writes.
+ * Order lookups are cached declaratively with {@code @Cacheable}, while every write path
+ * (single, bulk and reactive insert) writes the new payment through to the order cache
+ * and evicts the affected user entries here. Payments never change, so the order entry stays valid.
+ * Per user only the newest {@value #RECENT_BY_USER} payments are cached, loaded atomically with
+ * {@link Cache#get(Object, Callable)}: an eviction waits for a load in progress and then removes its result,
+ * so a list read before a concurrent insert cannot stay cached. The user cache is therefore always local.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentCache {
+
+    public static final String BY_ORDER = "payments-by-order";
+    public static final String BY_USER = "payments-by-user";
+    public static final int RECENT_BY_USER = 100;
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Returns the cached newest payments of a user, loading them on a miss.
+     *
+     * @param userId the user
+     * @param loader loads the newest {@link #RECENT_BY_USER} payments of the user plus one, newest first
+     * @return up to {@link #RECENT_BY_USER} + 1 newest payments of the user
+     */
+    public List<PaymentDto> recentByUser(Long userId, Callable<List<PaymentDto>> loader) {
+        Cache byUser = cacheManager.getCache(BY_USER);
+        if (byUser == null) {
+            try {
+                return loader.call();
+            } catch (Exception ex) {
+                throw new IllegalStateException("Failed to load payments of user " + userId, ex);
+            }
+        }
+        return byUser.get(userId, loader);
+    }
+
+    /**
+     * Caches the given newly persisted payments by order and evicts the cached lists of their users.
+     * Only local caches are touched on the caller's thread, see {@link TwoLevelCache}.
+     *
+     * @param payments the payments that were just inserted
+     */
+    public void writeThrough(Collection<PaymentDto> payments) {
+        Cache byOrder = cacheManager.getCache(BY_ORDER);
+        Cache byUser = cacheManager.getCache(BY_USER);
+        for (PaymentDto payment : payments) {
+            if (byOrder != null && payment.getOrderId() != null) {
+                byOrder.put(payment.getOrderId(), List.of(payment));
+            }
+            if (byUser != null && payment.getUserId() != null) {
+                byUser.evict(payment.getUserId());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.innowise.paymentservice.cache;
+
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @ClassName PaymentDtoListSerializer
+ * @Description Compact binary Redis serializer for the cached payment lookups ({@code List<PaymentDto>}).
+ * A payment takes around 50 bytes instead of the 200+ of JSON and the 1 KB+ of JDK serialization:
+ * a presence bitmask, then only the non-null fields in a fixed order. The first byte is a format version,
+ * so entries written by an incompatible release are treated as cache misses rather than failures.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class PaymentDtoListSerializer implements RedisSerializer<List<PaymentDto>> {
+
+    private static final byte VERSION = 2;
+
+    private static final int PAYMENT_ID = 1;
+    private static final int ORDER_ID = 1 << 1;
+    private static final int USER_ID = 1 << 2;
+    private static final int TIMESTAMP = 1 << 3;
+    private static final int AMOUNT = 1 << 4;
+    private static final int STATUS = 1 << 5;
+
+    @Override
+    public byte[] serialize(List<PaymentDto> payments) {
+        if (payments == null) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + payments.size() * 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(payments.size());
+            for (PaymentDto payment : payments) {
+                write(out, payment);
+            }
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot serialize payments", ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public List<PaymentDto> deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0 || bytes[0] != VERSION) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            int size = in.readInt();
+            List<PaymentDto> payments = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                payments.add(read(in));
+            }
+            return List.copyOf(payments);
+        } catch (IOException | RuntimeException ex) {
+            throw new SerializationException("Cannot deserialize payments", ex);
+        }
+    }
+
+    private static void write(DataOutputStream out, PaymentDto payment) throws IOException {
+        int present = (payment.getPaymentId() != null ? PAYMENT_ID : 0)
+                | (payment.getOrderId() != null ? ORDER_ID : 0)
+                | (payment.getUserId() != null ? USER_ID : 0)
+                | (payment.getTimestamp() != null ? TIMESTAMP : 0)
+                | (payment.getPaymentAmount() != null ? AMOUNT : 0)
+                | (payment.getStatus() != null ? STATUS : 0);
+        out.writeByte(present);
+
+        if (payment.getPaymentId() != null) {
+            out.writeUTF(payment.getPaymentId());
+        }
+        if (payment.getOrderId() != null) {
+            out.writeLong(payment.getOrderId());
+        }
+        if (payment.getUserId() != null) {
+            out.writeLong(payment.getUserId());
+        }
+        if (payment.getTimestamp() != null) {
+            out.writeLong(payment.getTimestamp().getEpochSecond());
+            out.writeInt(payment.getTimestamp().getNano());
+        }
+        if (payment.getPaymentAmount() != null) {
+            byte[] unscaled = payment.getPaymentAmount().unscaledValue().toByteArray();
+            out.writeInt(payment.getPaymentAmount().scale());
+            out.writeInt(unscaled.length);
+            out.write(unscaled);
+        }
+        if (payment.getStatus() != null) {
+            out.writeUTF(payment.getStatus().name());
+        }
+    }
+
+    private static PaymentDto read(DataInputStream in) throws IOException {
+        int present = in.readUnsignedByte();
+        PaymentDto.PaymentDtoBuilder payment = PaymentDto.builder();
+
+        if ((present & PAYMENT_ID) != 0) {
+            payment.paymentId(in.readUTF());
+        }
+        if ((present & ORDER_ID) != 0) {
+            payment.orderId(in.readLong());
+        }
+        if ((present & USER_ID) != 0) {
+            payment.userId(in.readLong());
+        }
+        if ((present & TIMESTAMP) != 0) {
+            payment.timestamp(Instant.ofEpochSecond(in.readLong(), in.readInt()));
+        }
+        if ((present & AMOUNT) != 0) {
+            int scale = in.readInt();
+            byte[] unscaled = new byte[in.readInt()];
+            in.readFully(unscaled);
+            payment.paymentAmount(new BigDecimal(new BigInteger(unscaled), scale));
+        }
+        if ((present & STATUS) != 0) {
+            payment.status(PaymentStatus.valueOf(in.readUTF()));
+        }
+        return payment.build();
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.innowise.paymentservice.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * @ClassName TwoLevelCache
+ * @Description Cache with an in-process L1 in front of a shared L2 (Redis in production).
+ * Reads try L1, then L2, and promote L2 hits into L1; writes and evictions go to both levels.
+ * Writes reach L1 at once and L2 through the given executor, so a caller such as a listener thread never
+ * waits for Redis; the executor may drop a write when saturated, which only costs a later L2 miss.
+ * Evictions stay synchronous but can be overtaken by an earlier write still queued, so only values that
+ * never change, like persisted payments, may be cached with an asynchronous executor.
+ * The L2 is optional at runtime: when it fails the cache keeps working on L1 alone,
+ * logging once per outage instead of failing the lookup.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class TwoLevelCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCache.class);
+
+    private final Cache local;
+    private final Cache shared;
+    private final Executor sharedWrites;
+    private final AtomicBoolean sharedAvailable = new AtomicBoolean(true);
+
+    public TwoLevelCache(Cache local, Cache shared) {
+        this(local, shared, Runnable::run);
+    }
+
+    public TwoLevelCache(Cache local, Cache shared, Executor sharedWrites) {
+        this.local = local;
+        this.shared = shared;
+        this.sharedWrites = sharedWrites;
+    }
+
+    /**
+     * @return the in-process L1 cache
+     */
+    public Cache getLocal() {
+        return local;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value != null) {
+            return value;
+        }
+
+        value = onShared(() -> shared.get(key), null);
+        if (value != null) {
+            local.put(key, value.get());
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+        Object stored = value.get();
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return local.get(key, () -> {
+            ValueWrapper value = onShared(() -> shared.get(key), null);
+            if (value != null) {
+                return (T) value.get();
+            }
+            T loaded = valueLoader.call();
+            sharedWrites.execute(() -> onShared(() -> {
+                shared.put(key, loaded);
+                return null;
+            }, null));
+            return loaded;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, value);
+        sharedWrites.execute(() -> onShared(() -> {
+            shared.put(key, value);
+            return null;
+        }, null));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = onShared(() -> shared.putIfAbsent(key, value), null);
+        Object effective = existing == null ? value : existing.get();
+        local.put(key, effective);
+        return existing == null ? null : new SimpleValueWrapper(effective);
+    }
+
+    @Override
+    public void evict(Object key) {
+        onShared(() -> {
+            shared.evict(key);
+            return null;
+        }, null);
+        local.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        onShared(() -> {
+            shared.clear();
+            return null;
+        }, null);
+        local.clear();
+    }
+
+    private <T> T onShared(Supplier<T> operation, T fallback) {
+        try {
+            T result = operation.get();
+            if (sharedAvailable.compareAndSet(false, true)) {
+                logger.info("Shared cache '{}' is available again", getName());
+            }
+            return result;
+        } catch (RuntimeException ex) {
+            if (sharedAvailable.compareAndSet(true, false)) {
+                logger.warn("Shared cache '{}' is unavailable, serving from the local cache only: {}", getName(), ex.getMessage());
+            }
+            return fallback;
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.innowise.paymentservice.config;
+
+import com.innowise.paymentservice.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * @ClassName AdaptiveConcurrencyLimiter
+ * @Description AIMD concurrency limit plus bulkhead for calls to an upstream.
+ * At most {@code limit} calls are in flight, up to {@code max-queue} more wait in FIFO order and anything beyond
+ * that is rejected with {@link ConcurrencyLimitExceededException}. Calls run on a dedicated scheduler.
+ * The limit follows the observed latency: every call that completes within {@code latency-tolerance} times the
+ * baseline latency grows it by {@code 1/limit} (about one per round trip of the whole window), an error or a slower
+ * call multiplies it by {@code backoff-ratio}. The baseline is the lowest latency seen, drifting slowly towards
+ * recent samples so it follows a permanently slower upstream.
+ * Exports {@code <name>.limit}, {@code <name>.in-flight}, {@code <name>.queue} and {@code <name>.rejections}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final int maxQueue;
+    private final Scheduler scheduler;
+    private final Counter rejections;
+    private final Deque<MonoSink<Void>> waiters = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private double baselineNanos = Double.NaN;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double latencyTolerance, double backoffRatio, int maxQueue,
+                                      Scheduler scheduler, MeterRegistry meterRegistry) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max: "
+                    + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        if (latencyTolerance < 1 || backoffRatio <= 0 || backoffRatio >= 1 || maxQueue < 0) {
+            throw new IllegalArgumentException("Invalid limiter settings: latency-tolerance " + latencyTolerance
+                    + ", backoff-ratio " + backoffRatio + ", max-queue " + maxQueue);
+        }
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.maxQueue = maxQueue;
+        this.scheduler = scheduler;
+
+        Gauge.builder(name + ".limit", this, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder(name + ".in-flight", this, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Calls currently in flight")
+                .register(meterRegistry);
+        Gauge.builder(name + ".queue", this, AdaptiveConcurrencyLimiter::queued)
+                .description("Calls waiting for a free slot")
+                .register(meterRegistry);
+        this.rejections = Counter.builder(name + ".rejections")
+                .description("Calls rejected because the limit and the queue were full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the call once a slot is free.
+     *
+     * @param call supplies the call, subscribed to on the limiter's scheduler
+     * @return the result of the call, or an error if it was rejected
+     */
+    public <T> Mono<T> run(Supplier<Mono<T>> call) {
+        return Mono.<Void>create(this::acquire)
+                .then(Mono.defer(() -> {
+                    long started = System.nanoTime();
+                    return call.get()
+                            .subscribeOn(scheduler)
+                            .doFinally(signal -> release(started, signal));
+                }));
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queued() {
+        return waiters.size();
+    }
+
+    public void dispose() {
+        scheduler.dispose();
+    }
+
+    private void acquire(MonoSink<Void> sink) {
+        ConcurrencyLimitExceededException rejection = null;
+        synchronized (this) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+            } else if (waiters.size() < maxQueue) {
+                waiters.addLast(sink);
+                sink.onCancel(() -> cancelWaiter(sink));
+                return;
+            } else {
+                rejection = new ConcurrencyLimitExceededException(name, inFlight, waiters.size());
+            }
+        }
+        if (rejection == null) {
+            sink.success();
+        } else {
+            rejections.increment();
+            sink.error(rejection);
+        }
+    }
+
+    private void cancelWaiter(MonoSink<Void> sink) {
+        boolean queued;
+        synchronized (this) {
+            queued = waiters.remove(sink);
+        }
+        if (!queued) {
+            // the slot was granted concurrently with the cancellation and will never be used
+            release(System.nanoTime(), SignalType.CANCEL);
+        }
+    }
+
+    private void release(long startedNanos, SignalType signal) {
+        long latencyNanos = System.nanoTime() - startedNanos;
+        List<MonoSink<Void>> granted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            if (signal != SignalType.CANCEL) {
+                adjust(latencyNanos, signal == SignalType.ON_ERROR);
+            }
+            while (inFlight < (int) limit && !waiters.isEmpty()) {
+                inFlight++;
+                granted.add(waiters.pollFirst());
+            }
+        }
+        granted.forEach(MonoSink::success);
+    }
+
+    private void adjust(long latencyNanos, boolean failed) {
+        if (Double.isNaN(baselineNanos) || latencyNanos < baselineNanos) {
+            baselineNanos = latencyNanos;
+        } else {
+            baselineNanos += (latencyNanos - baselineNanos) * BASELINE_DRIFT;
+        }
+
+        if (failed || latencyNanos > baselineNanos * latencyTolerance) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight + 1 >= (int) limit) {
+            // grow only while the limit is actually in use, an idle limiter has learned nothing about capacity
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+}
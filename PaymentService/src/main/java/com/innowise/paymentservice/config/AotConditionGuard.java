@@ -0,0 +1,126 @@
+package com.innowise.paymentservice.config;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * @ClassName AotConditionGuard
+ * @Description Refuses to start an AOT-processed build whose bean conditions no longer match the configuration.
+ * AOT processing evaluates every {@code @ConditionalOnProperty} once, at build time, and the generated context
+ * contains only the beans that matched then; changing one of those properties at runtime is silently ignored.
+ * During {@code process-aot} the build-time values of {@link #CONDITION_PROPERTIES} are written to
+ * {@link #RECORDED_CONDITIONS}; when the application later runs with {@code spring.aot.enabled=true} they are
+ * compared with the runtime environment and any difference fails the startup, naming the properties to rebuild with.
+ * Without AOT nothing is checked.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class AotConditionGuard implements EnvironmentPostProcessor, BeanFactoryInitializationAotProcessor, Ordered {
+
+    static final String RECORDED_CONDITIONS = "META-INF/payment-aot-conditions.properties";
+
+    /**
+     * Every property read by a {@code @ConditionalOnProperty} in this application, except
+     * {@code spring.liquibase.enabled}, which {@link MongoLiquibaseConfig} checks again at runtime.
+     */
+    static final List<String> CONDITION_PROPERTIES = List.of(
+            "payment.consumer.mode",
+            "payment.consumer.batch.transaction.enabled",
+            "payment.consumer.flow-control.enabled",
+            "payment.decision.engine",
+            "payment.events.delivery",
+            "payment.cache.redis.enabled",
+            "payment.rollup.enabled");
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        Environment environment = beanFactory.getBean(ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME,
+                Environment.class);
+        String recorded = record(environment);
+        return (generationContext, code) -> generationContext.getGeneratedFiles()
+                .addResourceFile(RECORDED_CONDITIONS, recorded);
+    }
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+        List<String> mismatches = mismatches(load(), environment);
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("The AOT-processed beans were built for other settings: "
+                    + String.join(", ", mismatches) + ". Rebuild with -Dcds.aot.arguments matching the runtime "
+                    + "configuration, or start without -Dspring.aot.enabled=true");
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // after the config data (application.yaml, profiles) has been loaded
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    /**
+     * @return the condition properties as a properties file, unset properties are left out
+     */
+    static String record(PropertyResolver environment) {
+        StringBuilder recorded = new StringBuilder("# condition properties the AOT-processed beans were built with\n");
+        for (String name : CONDITION_PROPERTIES) {
+            String value = environment.getProperty(name);
+            if (value != null) {
+                recorded.append(name).append('=').append(value.trim()).append('\n');
+            }
+        }
+        return recorded.toString();
+    }
+
+    /**
+     * @return a description of every condition property whose runtime value differs from the recorded one
+     */
+    static List<String> mismatches(Properties recorded, PropertyResolver environment) {
+        List<String> mismatches = new ArrayList<>();
+        for (String name : CONDITION_PROPERTIES) {
+            String built = recorded.getProperty(name);
+            String current = environment.getProperty(name);
+            boolean same = built == null ? current == null : current != null && built.equalsIgnoreCase(current.trim());
+            if (!same) {
+                mismatches.add(name + " built as " + built + ", configured as " + current);
+            }
+        }
+        return mismatches;
+    }
+
+    private static Properties load() {
+        ClassPathResource resource = new ClassPathResource(RECORDED_CONDITIONS);
+        if (!resource.exists()) {
+            throw new IllegalStateException("spring.aot.enabled=true but " + RECORDED_CONDITIONS
+                    + " is missing, the jar was not built with the cds profile");
+        }
+        Properties recorded = new Properties();
+        try (InputStream content = resource.getInputStream()) {
+            recorded.load(content);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read " + RECORDED_CONDITIONS, ex);
+        }
+        return recorded;
+    }
+
+}
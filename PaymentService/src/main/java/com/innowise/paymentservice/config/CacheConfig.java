@@ -0,0 +1,130 @@
+package com.innowise.paymentservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.innowise.paymentservice.cache.PaymentCache;
+import com.innowise.paymentservice.cache.PaymentDtoListSerializer;
+import com.innowise.paymentservice.cache.TwoLevelCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ClassName CacheConfig
+ * @Description Enables the Spring cache abstraction. By default the Caffeine caches
+ * (names, size and time bounds, statistics) are configured under {@code spring.cache}.
+ * With {@code payment.cache.redis.enabled=true} the order cache becomes a {@link TwoLevelCache}:
+ * a short-lived Caffeine L1 per replica in front of a Redis L2 shared by all replicas.
+ * L2 writes run on a small bounded executor, so a write-through on the consumer hot path only touches L1.
+ * The user cache is always a local Caffeine cache with its own spec, see {@link PaymentCache}: its entries are lists
+ * of up to {@value PaymentCache#RECENT_BY_USER} + 1 payments, so it is bounded by {@code maximumWeight} counted in
+ * payments rather than by a number of users. With Redis its TTL bounds how long another replica may serve a user's
+ * payments that miss a new one.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    private static final List<String> SHARED_CACHE_NAMES = List.of(PaymentCache.BY_ORDER);
+
+    /**
+     * Writes entries to the shared L2 off the caller's thread. When the queue is full the write is dropped:
+     * the entry is still in L1 and a later miss simply reloads it.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "payment.cache.redis.enabled", havingValue = "true")
+    public ExecutorService sharedCacheWriteExecutor(@Value("${payment.cache.redis.write-threads:4}") int threads,
+                                                    @Value("${payment.cache.redis.write-queue:10000}") int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("payment-cache-l2-writer-", 0).factory(),
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Replaces the user cache created from {@code spring.cache.caffeine.spec} with one weighed by list size.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> userCacheCustomizer(
+            @Value("${payment.cache.by-user.spec:maximumWeight=100000,expireAfterWrite=10m,recordStats}") String spec) {
+        return cacheManager -> cacheManager.registerCustomCache(PaymentCache.BY_USER, userCache(spec));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "payment.cache.redis.enabled", havingValue = "true")
+    public CacheManager twoLevelCacheManager(RedisConnectionFactory connectionFactory,
+                                             ExecutorService sharedCacheWriteExecutor,
+                                             @Value("${payment.cache.redis.ttl:1h}") Duration ttl,
+                                             @Value("${payment.cache.redis.key-prefix:payment-service:}") String keyPrefix,
+                                             @Value("${payment.cache.redis.l1-spec:maximumSize=100000,expireAfterWrite=30s,recordStats}") String l1Spec,
+                                             @Value("${payment.cache.redis.by-user-spec:maximumWeight=100000,expireAfterWrite=30s,recordStats}") String byUserSpec) {
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(ttl)
+                        .prefixCacheNameWith(keyPrefix)
+                        .disableCachingNullValues()
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair
+                                .fromSerializer(new PaymentDtoListSerializer())))
+                .initialCacheNames(new LinkedHashSet<>(SHARED_CACHE_NAMES))
+                .build();
+        redisCacheManager.initializeCaches();
+
+        List<Cache> caches = new ArrayList<>();
+        SHARED_CACHE_NAMES.forEach(name -> caches.add(new TwoLevelCache(
+                new CaffeineCache(name, Caffeine.from(l1Spec).build()),
+                redisCacheManager.getCache(name),
+                sharedCacheWriteExecutor)));
+        caches.add(new CaffeineCache(PaymentCache.BY_USER, userCache(byUserSpec)));
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+
+    /**
+     * Publishes the hit/miss/eviction meters of the L1 of each {@link TwoLevelCache}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "payment.cache.redis.enabled", havingValue = "true")
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        CaffeineCacheMeterBinderProvider caffeine = new CaffeineCacheMeterBinderProvider();
+        return (cache, tags) -> caffeine.getMeterBinder((CaffeineCache) cache.getLocal(), tags);
+    }
+
+    /**
+     * @param spec a Caffeine spec bounded by {@code maximumWeight}, the total number of cached payments
+     */
+    static com.github.benmanes.caffeine.cache.Cache<Object, Object> userCache(String spec) {
+        return Caffeine.from(spec)
+                .weigher((Object userId, Object payments) ->
+                        payments instanceof Collection<?> list ? Math.max(1, list.size()) : 1)
+                .build();
+    }
+
+}
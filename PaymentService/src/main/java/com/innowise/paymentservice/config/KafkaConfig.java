@@ -2,37 +2,76 @@ package com.innowise.paymentservice.config;
 
 import com.innowise.paymentservice.model.dto.OrderEvent;
 import com.innowise.paymentservice.model.dto.PaymentEvent;
+import com.innowise.paymentservice.serde.EventWireFormat;
+import com.innowise.paymentservice.serde.JsonEventDeserializer;
+import com.innowise.paymentservice.serde.JsonEventSerializer;
+import com.innowise.paymentservice.serde.NegotiatingDeserializer;
+import com.innowise.paymentservice.serde.NegotiatingSerializer;
+import com.innowise.paymentservice.serde.OrderEventBinaryCodec;
+import com.innowise.paymentservice.serde.OrderEventJsonCodec;
+import com.innowise.paymentservice.serde.PaymentEventBinaryCodec;
+import com.innowise.paymentservice.serde.PaymentEventJsonCodec;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
 import org.springframework.kafka.listener.DefaultErrorHandler;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
 import org.springframework.util.backoff.FixedBackOff;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
 public class KafkaConfig {
 
     private static final String AUTO_OFFSET_RESET = "earliest";
+    private static final String TRANSACTION_ENABLED = "payment.consumer.batch.transaction.enabled";
+
+    private final EventWireFormat wireFormat;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param wireFormat    value format written by the producers ({@code json} or {@code binary});
+     *                      consumers accept both, see {@link EventWireFormat}
+     * @param meterRegistry registry the Kafka client metrics (fetch/produce rates, lag, request latency) are bound to
+     */
+    public KafkaConfig(@Value("${payment.kafka.wire-format:json}") String wireFormat, MeterRegistry meterRegistry) {
+        this.wireFormat = EventWireFormat.of(wireFormat);
+        this.meterRegistry = meterRegistry;
+    }
 
     @Bean
     public ProducerFactory<String, OrderEvent> orderEventProducerFactory(
             @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
-        return new DefaultKafkaProducerFactory<>(commonProducerConfigs(bootstrapServers));
+        DefaultKafkaProducerFactory<String, OrderEvent> factory = new DefaultKafkaProducerFactory<>(
+                commonProducerConfigs(bootstrapServers), new StringSerializer(), orderEventSerializer());
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
@@ -41,24 +80,53 @@ public class KafkaConfig {
         return new KafkaTemplate<>(producerFactory);
     }
 
+    /**
+     * Producer factory for CREATE_PAYMENT events. With {@code payment.consumer.batch.transaction.enabled=true}
+     * the producers are transactional, so that the batch container can send the events of a poll and the consumed
+     * offsets in one Kafka transaction. The prefix must be unique per instance, hence the host name in the default.
+     */
     @Bean
     public ProducerFactory<String, PaymentEvent> paymentEventProducerFactory(
-            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
-        return new DefaultKafkaProducerFactory<>(commonProducerConfigs(bootstrapServers));
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${" + TRANSACTION_ENABLED + ":false}") boolean transactional,
+            @Value("${payment.consumer.batch.transaction.id-prefix:payment-tx-${HOSTNAME:local}-}") String transactionIdPrefix) {
+        DefaultKafkaProducerFactory<String, PaymentEvent> factory =
+                new DefaultKafkaProducerFactory<>(commonProducerConfigs(bootstrapServers),
+                        new StringSerializer(), paymentEventSerializer());
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        if (transactional) {
+            factory.setTransactionIdPrefix(transactionIdPrefix);
+        }
+        return factory;
     }
 
+    /**
+     * Sends made from a listener of a transactional container join the container transaction;
+     * sends made anywhere else (record, parallel consumers, outbox relay) stay non-transactional.
+     */
     @Bean
     public KafkaTemplate<String, PaymentEvent> paymentEventKafkaTemplate(
             ProducerFactory<String, PaymentEvent> producerFactory) {
-        return new KafkaTemplate<>(producerFactory);
+        KafkaTemplate<String, PaymentEvent> template = new KafkaTemplate<>(producerFactory);
+        template.setAllowNonTransactional(true);
+        return template;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = TRANSACTION_ENABLED, havingValue = "true")
+    public KafkaTransactionManager<String, PaymentEvent> paymentEventKafkaTransactionManager(
+            ProducerFactory<String, PaymentEvent> producerFactory,
+            @Value("${payment.events.delivery:direct}") String delivery) {
+        if (!"direct".equals(delivery)) {
+            throw new IllegalStateException(TRANSACTION_ENABLED + " requires payment.events.delivery=direct, was "
+                    + delivery);
+        }
+        return new KafkaTransactionManager<>(producerFactory);
     }
 
     private Map<String, Object> commonProducerConfigs(String bootstrapServers) {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-
         props.put(ProducerConfig.ACKS_CONFIG, "all");
         props.put(ProducerConfig.RETRIES_CONFIG, 3);
         props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
@@ -73,29 +141,163 @@ public class KafkaConfig {
             @Value("${spring.kafka.consumer.group-id}") String groupId,
             KafkaTemplate<String, OrderEvent> kafkaTemplate) {
 
-        JsonDeserializer<OrderEvent> deserializer = new JsonDeserializer<>(OrderEvent.class);
-        deserializer.addTrustedPackages("*");
-        deserializer.setRemoveTypeHeaders(true);
-        deserializer.setUseTypeMapperForKey(false);
-
         DefaultKafkaConsumerFactory<String, OrderEvent> consumerFactory =
                 new DefaultKafkaConsumerFactory<>(commonConsumerConfigs(bootstrapServers, groupId),
-                        new StringDeserializer(), deserializer);
+                        new StringDeserializer(), orderEventDeserializer());
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
 
         ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+        factory.setCommonErrorHandler(orderEventErrorHandler(kafkaTemplate));
 
+        return factory;
+    }
+
+    /**
+     * Batch variant of {@link #orderEventKafkaListenerContainerFactory}: the listener receives
+     * the whole poll (up to {@code max.poll.records}) and offsets are committed once per batch.
+     * Deserialization failures are turned into {@code null} payloads instead of blocking the partition.
+     * <p>
+     * When a {@link KafkaTransactionManager} is present, every poll runs in one Kafka transaction: the
+     * CREATE_PAYMENT events sent by the listener and the consumed offsets ({@code sendOffsetsToTransaction})
+     * are committed atomically. A transaction then covers up to {@code max-records} records, or whatever the
+     * broker collected within {@code max-wait} once fewer than {@code min-bytes} are available. A failed batch
+     * is aborted and redelivered, and published to the DLT after the retries are exhausted.
+     * <p>
+     * The DLT records are written with the non-transactional {@code OrderEvent} template, since the transactional
+     * producer only serializes {@code PaymentEvent}s; only the offsets of the recovered records are committed
+     * in a transaction. Dead-lettering is therefore at-least-once: if that offset commit fails, the batch is
+     * redelivered and its failing records may reach the DLT twice.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEvent> orderEventBatchKafkaListenerContainerFactory(
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${spring.kafka.consumer.group-id}") String groupId,
+            @Value("${payment.consumer.batch.transaction.max-records:500}") int maxRecords,
+            @Value("${payment.consumer.batch.transaction.max-wait:100ms}") Duration maxWait,
+            @Value("${payment.consumer.batch.transaction.min-bytes:65536}") int minBytes,
+            KafkaTemplate<String, OrderEvent> kafkaTemplate,
+            KafkaTemplate<String, PaymentEvent> paymentEventKafkaTemplate,
+            ObjectProvider<KafkaTransactionManager<String, PaymentEvent>> transactionManager) {
+        KafkaTransactionManager<String, PaymentEvent> manager = transactionManager.getIfAvailable();
+        if (manager == null) {
+            return batchListenerContainerFactory(bootstrapServers, groupId, kafkaTemplate);
+        }
+
+        Map<String, Object> props = commonConsumerConfigs(bootstrapServers, groupId);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxRecords);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) maxWait.toMillis());
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, minBytes);
+
+        ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory = batchListenerContainerFactory(props);
+        factory.getContainerProperties().setKafkaAwareTransactionManager(manager);
+
+        DefaultAfterRollbackProcessor<String, OrderEvent> afterRollbackProcessor = new DefaultAfterRollbackProcessor<>(
+                new DeadLetterPublishingRecoverer(kafkaTemplate), new FixedBackOff(1000L, 3),
+                paymentEventKafkaTemplate, true);
+        afterRollbackProcessor.addNotRetryableExceptions(IllegalArgumentException.class);
+        factory.setAfterRollbackProcessor(afterRollbackProcessor);
+
+        return factory;
+    }
+
+    /**
+     * Container factory for the parallel listener ({@code payment.consumer.mode=parallel}).
+     * Same consumer and error handling as {@link #orderEventKafkaListenerContainerFactory}, but the whole poll
+     * is handed over so that it can be fanned out; a {@code BatchListenerFailedException} thrown by the listener
+     * commits the offsets before the failed record and redelivers the rest.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEvent> orderEventParallelKafkaListenerContainerFactory(
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${spring.kafka.consumer.group-id}") String groupId,
+            KafkaTemplate<String, OrderEvent> kafkaTemplate) {
+        return batchListenerContainerFactory(bootstrapServers, groupId, kafkaTemplate);
+    }
+
+    /**
+     * Receiver options for the reactive pipeline ({@code payment.consumer.mode=reactive}).
+     * Acknowledged offsets are committed in the background every commit interval or commit batch.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "payment.consumer.mode", havingValue = "reactive")
+    public ReceiverOptions<String, OrderEvent> orderEventReceiverOptions(
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${spring.kafka.consumer.group-id}") String groupId,
+            @Value("${spring.kafka.topics.create-order}") String createOrderTopic,
+            @Value("${payment.consumer.reactive.commit-interval:1s}") Duration commitInterval,
+            @Value("${payment.consumer.reactive.commit-batch-size:500}") int commitBatchSize) {
+        return ReceiverOptions.<String, OrderEvent>create(commonConsumerConfigs(bootstrapServers, groupId))
+                .withKeyDeserializer(new StringDeserializer())
+                .withValueDeserializer(new ErrorHandlingDeserializer<>(orderEventDeserializer()))
+                .commitInterval(commitInterval)
+                .commitBatchSize(commitBatchSize)
+                .consumerListener(new reactor.kafka.receiver.MicrometerConsumerListener(meterRegistry))
+                .subscription(List.of(createOrderTopic));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "payment.consumer.mode", havingValue = "reactive")
+    public KafkaSender<String, PaymentEvent> paymentEventKafkaSender(
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+        return KafkaSender.create(SenderOptions.<String, PaymentEvent>create(commonProducerConfigs(bootstrapServers))
+                .withKeySerializer(new StringSerializer())
+                .withValueSerializer(paymentEventSerializer())
+                .producerListener(new reactor.kafka.sender.MicrometerProducerListener(meterRegistry)));
+    }
+
+    private ConcurrentKafkaListenerContainerFactory<String, OrderEvent> batchListenerContainerFactory(
+            String bootstrapServers, String groupId, KafkaTemplate<String, OrderEvent> kafkaTemplate) {
+
+        ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory =
+                batchListenerContainerFactory(commonConsumerConfigs(bootstrapServers, groupId));
+        factory.setCommonErrorHandler(orderEventErrorHandler(kafkaTemplate));
+
+        return factory;
+    }
+
+    private ConcurrentKafkaListenerContainerFactory<String, OrderEvent> batchListenerContainerFactory(
+            Map<String, Object> consumerConfigs) {
+
+        DefaultKafkaConsumerFactory<String, OrderEvent> consumerFactory =
+                new DefaultKafkaConsumerFactory<>(consumerConfigs,
+                        new StringDeserializer(), new ErrorHandlingDeserializer<>(orderEventDeserializer()));
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+
+        ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        return factory;
+    }
+
+    private Deserializer<OrderEvent> orderEventDeserializer() {
+        return new NegotiatingDeserializer<>(new OrderEventBinaryCodec(),
+                new JsonEventDeserializer<>(new OrderEventJsonCodec()));
+    }
+
+    private Serializer<OrderEvent> orderEventSerializer() {
+        return new NegotiatingSerializer<>(wireFormat, new OrderEventBinaryCodec(),
+                new JsonEventSerializer<>(new OrderEventJsonCodec()));
+    }
+
+    private Serializer<PaymentEvent> paymentEventSerializer() {
+        return new NegotiatingSerializer<>(wireFormat, new PaymentEventBinaryCodec(),
+                new JsonEventSerializer<>(new PaymentEventJsonCodec()));
+    }
+
+    private DefaultErrorHandler orderEventErrorHandler(KafkaTemplate<String, OrderEvent> kafkaTemplate) {
         DefaultErrorHandler errorHandler = new DefaultErrorHandler(
                 new DeadLetterPublishingRecoverer(kafkaTemplate),
                 new FixedBackOff(1000L, 3)
         );
         errorHandler.setAckAfterHandle(false);
         errorHandler.addNotRetryableExceptions(IllegalArgumentException.class);
-        factory.setCommonErrorHandler(errorHandler);
-
-        return factory;
+        return errorHandler;
     }
 
     private Map<String, Object> commonConsumerConfigs(String bootstrapServers, String groupId) {
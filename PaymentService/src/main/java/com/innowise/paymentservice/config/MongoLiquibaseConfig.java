@@ -1,9 +1,12 @@
 package com.innowise.paymentservice.config;
 
-import com.mongodb.ConnectionString;
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import liquibase.Contexts;
 import liquibase.LabelExpression;
 import liquibase.Liquibase;
@@ -12,41 +15,103 @@ import liquibase.ext.mongodb.database.MongoConnection;
 import liquibase.ext.mongodb.database.MongoLiquibaseDatabase;
 import liquibase.resource.ClassLoaderResourceAccessor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HexFormat;
+
+/**
+ * @ClassName MongoLiquibaseConfig
+ * @Description Applies the Liquibase changelog to MongoDB on startup.
+ * Runs once all singletons exist and before any lifecycle bean starts, so the Kafka listener containers, the
+ * reactive consumer and the outbox relay never see an unmigrated database. Liquibase works on the Spring-managed
+ * {@link MongoClient}. The SHA-256 of every file under the changelog's directory is stored in
+ * {@code payment_migrations} after a successful update; when it matches on the next boot Liquibase is skipped
+ * entirely. Set {@code payment.migration.skip-unchanged=false} to always run it, e.g. after editing the database
+ * by hand. The time spent is recorded in {@code payment.migration.duration} (tag {@code outcome}).
+ * {@code spring.liquibase.enabled} is checked again at runtime, AOT-processed builds fix the condition at build time.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
 @Slf4j
 @Component
 @ConditionalOnProperty(prefix = "spring.liquibase", name = "enabled", havingValue = "true")
-public class MongoLiquibaseConfig implements CommandLineRunner {
-
-    @Value("${spring.data.mongodb.uri}")
-    private String mongoUri;
-
-    @Value("${spring.liquibase.change-log}")
-    private String changelogFile;
+public class MongoLiquibaseConfig implements SmartInitializingSingleton {
+
+    static final String CHECKSUM_COLLECTION = "payment_migrations";
+
+    private final MongoClient mongoClient;
+    private final MongoDatabaseFactory mongoDatabaseFactory;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String changelogFile;
+    private final boolean skipUnchanged;
+
+    public MongoLiquibaseConfig(MongoClient mongoClient,
+                                MongoDatabaseFactory mongoDatabaseFactory,
+                                MeterRegistry meterRegistry,
+                                @Value("${spring.liquibase.enabled:true}") boolean enabled,
+                                @Value("${spring.liquibase.change-log}") String changelogFile,
+                                @Value("${payment.migration.skip-unchanged:true}") boolean skipUnchanged) {
+        this.mongoClient = mongoClient;
+        this.mongoDatabaseFactory = mongoDatabaseFactory;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.changelogFile = changelogFile;
+        this.skipUnchanged = skipUnchanged;
+    }
 
     @Override
-    public void run(String... args) throws Exception {
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            log.info("MongoDB migration disabled");
+            return;
+        }
         validateChangelogExists();
-
-        MongoClient mongoClient = createMongoClient();
-        try {
-            String dbName = extractDatabaseName();
-
-            MongoDatabase mongoDatabase = getMongoDatabase(mongoClient, dbName);
-
-            Liquibase liquibase = createLiquibase(mongoClient, mongoDatabase);
-
-            runMigrations(liquibase);
-
-        } finally {
-            closeMongoClient(mongoClient);
+        long started = System.nanoTime();
+
+        MongoDatabase mongoDatabase = mongoDatabaseFactory.getMongoDatabase();
+        MongoCollection<Document> checksums = mongoDatabase.getCollection(CHECKSUM_COLLECTION);
+        String checksum = changelogChecksum(changelogFile);
+
+        String outcome;
+        if (skipUnchanged && checksum.equals(appliedChecksum(checksums))) {
+            outcome = "skipped";
+        } else {
+            runMigrations(createLiquibase(mongoDatabase));
+            checksums.replaceOne(Filters.eq("_id", changelogFile),
+                    new Document("_id", changelogFile)
+                            .append("checksum", checksum)
+                            .append("applied_at", new Date()),
+                    new ReplaceOptions().upsert(true));
+            outcome = "applied";
         }
 
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        Timer.builder("payment.migration.duration")
+                .description("Time spent on the MongoDB migration at startup")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed);
+        log.info("MongoDB migration {} in {} ms, changelog checksum {}", outcome, elapsed.toMillis(), checksum);
     }
 
     private void validateChangelogExists() {
@@ -57,30 +122,53 @@ public class MongoLiquibaseConfig implements CommandLineRunner {
         }
     }
 
-    private MongoClient createMongoClient() {
-        return MongoClients.create(mongoUri);
+    private String appliedChecksum(MongoCollection<Document> checksums) {
+        Document applied = checksums.find(Filters.eq("_id", changelogFile)).first();
+        return applied == null ? null : applied.getString("checksum");
     }
 
-    private String extractDatabaseName() {
-        ConnectionString cs = new ConnectionString(mongoUri);
-        String databaseName = cs.getDatabase();
-
-        if (databaseName == null) {
-            throw new IllegalStateException(
-                    "MongoDB URI must include database name, e.g. mongodb://host:27017/paymentdb"
-            );
+    /**
+     * Hashes the names and contents of all files in the changelog's directory, so editing any included
+     * changelog, or adding one, changes the checksum.
+     */
+    static String changelogChecksum(String changelogFile) {
+        int slash = changelogFile.lastIndexOf('/');
+        String directory = slash < 0 ? "" : changelogFile.substring(0, slash + 1);
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver()
+                    .getResources("classpath*:" + directory + "**/*");
+            Arrays.sort(resources, Comparator.comparing(resource -> relativePath(resource, directory)));
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Resource resource : resources) {
+                if (!resource.isReadable()) {
+                    continue;
+                }
+                digest.update(relativePath(resource, directory).getBytes(StandardCharsets.UTF_8));
+                try (InputStream content = resource.getInputStream()) {
+                    digest.update(content.readAllBytes());
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read changelog files for " + changelogFile, ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
         }
-
-        return databaseName;
     }
 
-    private MongoDatabase getMongoDatabase(MongoClient mongoClient, String dbName) {
-        return mongoClient.getDatabase(dbName);
+    private static String relativePath(Resource resource, String directory) {
+        try {
+            String url = resource.getURL().toString();
+            int index = directory.isEmpty() ? -1 : url.lastIndexOf(directory);
+            return index < 0 ? url.substring(url.lastIndexOf('/') + 1) : url.substring(index + directory.length());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
     }
 
-
-    private Liquibase createLiquibase(MongoClient mongoClient, MongoDatabase mongoDatabase) {
-        MongoConnection connection = new MongoConnection();
+    Liquibase createLiquibase(MongoDatabase mongoDatabase) {
+        MongoConnection connection = new SharedMongoConnection();
         connection.setMongoClient(mongoClient);
         connection.setMongoDatabase(mongoDatabase);
 
@@ -94,12 +182,22 @@ public class MongoLiquibaseConfig implements CommandLineRunner {
         );
     }
 
-    private void runMigrations(Liquibase liquibase) throws LiquibaseException {
-        liquibase.update(new Contexts(), new LabelExpression());
+    private void runMigrations(Liquibase liquibase) {
+        try {
+            liquibase.update(new Contexts(), new LabelExpression());
+        } catch (LiquibaseException ex) {
+            throw new IllegalStateException("MongoDB migration failed for " + changelogFile, ex);
+        }
     }
 
-    private void closeMongoClient(MongoClient mongoClient) {
-        mongoClient.close();
+    /**
+     * Connection over the Spring-managed client, which must outlive Liquibase.
+     */
+    private static class SharedMongoConnection extends MongoConnection {
+        @Override
+        public void close() {
+            // the client is closed by the application context
+        }
     }
 
 }
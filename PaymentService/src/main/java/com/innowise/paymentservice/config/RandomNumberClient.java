@@ -1,6 +1,10 @@
 package com.innowise.paymentservice.config;
 
+import com.innowise.paymentservice.exception.ConcurrencyLimitExceededException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +14,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @ClassName RandomNumberClient
@@ -25,25 +30,64 @@ public class RandomNumberClient {
     private static final Logger logger = LoggerFactory.getLogger(RandomNumberClient.class);
     private final WebClient webClient;
     private final String randomApiUrl;
+    private final AdaptiveConcurrencyLimiter randomApiLimiter;
+    private final RequestHedger randomApiHedger;
+    private final Counter fallbackCounter;
+    private final Timer requestTimer;
 
     public RandomNumberClient(WebClient webClient,
-                              @Value("${random.api.url}") String randomApiUrl) {
+                              @Value("${random.api.url}") String randomApiUrl,
+                              AdaptiveConcurrencyLimiter randomApiLimiter,
+                              RequestHedger randomApiHedger,
+                              MeterRegistry meterRegistry) {
         this.webClient = webClient;
         this.randomApiUrl = randomApiUrl;
+        this.randomApiLimiter = randomApiLimiter;
+        this.randomApiHedger = randomApiHedger;
+        this.fallbackCounter = Counter.builder("random.api.fallbacks")
+                .description("Random number requests answered by the fallback instead of the API")
+                .register(meterRegistry);
+        this.requestTimer = Timer.builder("random.api.requests")
+                .description("Latency of random number requests to the API, including failed ones")
+                .register(meterRegistry);
     }
 
 
     @CircuitBreaker(name = "payment-service", fallbackMethod = "fallbackRandomNumbers")
     public Mono<List<Integer>> fetchRandomNumbers() {
+        return randomApiHedger.hedge(this::limitedRequest);
+    }
+
+    /**
+     * Same call as {@link #fetchRandomNumbers()} without the fallback, for prefetching: errors and an open circuit
+     * are signalled instead of being turned into fallback numbers that would be pooled as real ones.
+     */
+    @CircuitBreaker(name = "payment-service")
+    public Mono<List<Integer>> prefetchRandomNumbers() {
+        return randomApiHedger.hedge(this::limitedRequest);
+    }
+
+    private Mono<List<Integer>> limitedRequest(Runnable sent) {
+        return randomApiLimiter.run(() -> request().doOnSubscribe(subscription -> sent.run()));
+    }
+
+    private Mono<List<Integer>> request() {
+        long started = System.nanoTime();
         return webClient.get()
                 .uri(randomApiUrl)
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<>() {
-                });
+                .bodyToMono(new ParameterizedTypeReference<List<Integer>>() {
+                })
+                .doFinally(signal -> requestTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS));
     }
 
     private Mono<List<Integer>> fallbackRandomNumbers(Throwable ex) {
+        if (ex instanceof ConcurrencyLimitExceededException) {
+            // a shed call is load, not an outage: the consumer redelivers it instead of storing a FAILED payment
+            return Mono.error(ex);
+        }
         logger.warn("Fallback triggered for fetchRandomNumbers due to: {}", ex.getMessage());
+        fallbackCounter.increment();
         return Mono.just(List.of(1));
     }
 
@@ -0,0 +1,119 @@
+package com.innowise.paymentservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @ClassName RandomNumberPool
+ * @Description Pool of prefetched random numbers in front of {@link RandomNumberClient}.
+ * Numbers are served from an in-memory ring buffer that a background task refills in bulk
+ * whenever its depth drops below the low-water mark. The network is hit on the caller's path
+ * only when the pool has run dry, and only that call degrades into the client's fallback numbers; refills
+ * bypass the fallback, so a failing API leaves the pool empty rather than filled with fallback numbers.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+public class RandomNumberPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(RandomNumberPool.class);
+
+    private final RandomNumberClient client;
+    private final RandomNumberRingBuffer buffer;
+    private final int lowWaterMark;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final Timer refillTimer;
+    private final Counter missCounter;
+
+    public RandomNumberPool(RandomNumberClient client,
+                            @Value("${payment.random-pool.capacity:1024}") int capacity,
+                            @Value("${payment.random-pool.low-water-mark:256}") int lowWaterMark,
+                            MeterRegistry meterRegistry) {
+        this.client = client;
+        this.buffer = new RandomNumberRingBuffer(capacity);
+        this.lowWaterMark = lowWaterMark;
+
+        Gauge.builder("random.pool.depth", buffer, RandomNumberRingBuffer::size)
+                .description("Prefetched random numbers available in the pool")
+                .register(meterRegistry);
+        this.refillTimer = Timer.builder("random.pool.refill")
+                .description("Latency of bulk refills of the random number pool")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("random.pool.misses")
+                .description("Requests that found the pool empty and went to the network")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes the next random number, from the pool when possible.
+     *
+     * @return Mono emitting a random number, or empty if the API returned no numbers
+     */
+    public Mono<Integer> next() {
+        long pooled = buffer.poll();
+        if (pooled != RandomNumberRingBuffer.EMPTY) {
+            refillIfLow();
+            return Mono.just((int) pooled);
+        }
+
+        missCounter.increment();
+        return client.fetchRandomNumbers()
+                .flatMap(numbers -> {
+                    if (numbers == null || numbers.isEmpty()) {
+                        logger.warn("Empty response from random number API");
+                        return Mono.empty();
+                    }
+                    offerAll(numbers.subList(1, numbers.size()));
+                    return Mono.just(numbers.getFirst());
+                })
+                .doFinally(signal -> refillIfLow());
+    }
+
+    int depth() {
+        return buffer.size();
+    }
+
+    private void refillIfLow() {
+        if (buffer.size() >= lowWaterMark || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start();
+        // deferred so that a synchronous throw or a null Mono from the client ends as an error and releases the flag
+        Mono.defer(client::prefetchRandomNumbers)
+                .doFinally(signal -> {
+                    sample.stop(refillTimer);
+                    refilling.set(false);
+                })
+                .subscribe(this::offerAll,
+                        ex -> logger.warn("Failed to refill random number pool: {}", ex.getMessage()));
+    }
+
+    private void offerAll(List<Integer> numbers) {
+        if (numbers == null) {
+            return;
+        }
+        for (Integer number : numbers) {
+            if (number == null) {
+                continue;
+            }
+            if (!buffer.offer(number)) {
+                logger.debug("Random number pool is full, dropping {} numbers", numbers.size());
+                return;
+            }
+        }
+    }
+
+}
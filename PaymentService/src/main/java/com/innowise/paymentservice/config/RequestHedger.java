@@ -0,0 +1,187 @@
+package com.innowise.paymentservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * @ClassName RequestHedger
+ * @Description Hedged requests against a long-tail upstream.
+ * When a call has not answered within the hedge delay a second, identical request is sent and the first value
+ * wins, the slower request is cancelled. The delay is the {@code percentile} of the latencies of the last
+ * {@code window} requests, clamped to {@code [min-delay, max-delay]} and refreshed at most every
+ * {@link #REFRESH_INTERVAL}; until the window has {@link #MIN_SAMPLES} samples {@code max-delay} is used.
+ * A latency is measured from the moment the request is actually sent, so time spent waiting for a permit of a
+ * limiter in front of the upstream is not counted, and is recorded for answered as well as cancelled requests:
+ * dropping the cancelled losers would keep only the fast requests and pull the delay down.
+ * Extra load is capped by a token budget: every call earns {@code budget} tokens (up to {@link #MAX_TOKENS}) and
+ * every hedge spends one, so at most about {@code budget} of the calls are hedged.
+ * A failing hedge is ignored; a failing first request fails the call, it is not retried.
+ * Exports {@code <name>.hedge.calls}, {@code <name>.hedge.sent} and {@code <name>.hedge.wins}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class RequestHedger {
+
+    static final int MIN_SAMPLES = 32;
+    static final double MAX_TOKENS = 10;
+    private static final long REFRESH_INTERVAL = Duration.ofSeconds(1).toNanos();
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final double budget;
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final Counter calls;
+    private final Counter hedges;
+    private final Counter wins;
+
+    private double tokens = MAX_TOKENS;
+    private volatile long delayNanos;
+    private volatile long refreshedAt;
+
+    public RequestHedger(String name, boolean enabled, double percentile, Duration minDelay, Duration maxDelay,
+                         double budget, int window, MeterRegistry meterRegistry) {
+        if (percentile <= 0 || percentile >= 1 || budget < 0 || budget > 1 || window < MIN_SAMPLES
+                || minDelay.compareTo(maxDelay) > 0) {
+            throw new IllegalArgumentException("Invalid hedging settings: percentile " + percentile + ", budget "
+                    + budget + ", window " + window + ", delay " + minDelay + ".." + maxDelay);
+        }
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.budget = budget;
+        this.samples = new AtomicLongArray(window);
+        this.delayNanos = maxDelayNanos;
+        this.refreshedAt = System.nanoTime() - REFRESH_INTERVAL;
+
+        this.calls = Counter.builder(name + ".hedge.calls")
+                .description("Calls eligible for hedging")
+                .register(meterRegistry);
+        this.hedges = Counter.builder(name + ".hedge.sent")
+                .description("Hedge requests sent because the first request was slow")
+                .register(meterRegistry);
+        this.wins = Counter.builder(name + ".hedge.wins")
+                .description("Calls answered by the hedge request before the first request")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the request, hedging it if it is slow. Latency is measured from the subscription to the request.
+     *
+     * @param request supplies a new, identical request on every call
+     * @return the first value of either request
+     */
+    public <T> Mono<T> hedge(Supplier<Mono<T>> request) {
+        return hedge(sent -> request.get().doOnSubscribe(subscription -> sent.run()));
+    }
+
+    /**
+     * Runs the request, hedging it if it is slow.
+     *
+     * @param request creates a new, identical request on every call; the given callback must be run when the
+     *                request is actually sent, latency is measured from there and not recorded without it
+     * @return the first value of either request
+     */
+    public <T> Mono<T> hedge(Function<Runnable, Mono<T>> request) {
+        if (!enabled) {
+            return request.apply(() -> {
+            });
+        }
+        return Mono.defer(() -> {
+            calls.increment();
+            earnBudget();
+            Mono<Attempt<T>> first = timed(request)
+                    .map(value -> new Attempt<>(value, false));
+            Mono<Attempt<T>> second = Mono.delay(hedgeDelay())
+                    .filter(tick -> spendBudget())
+                    .flatMap(tick -> {
+                        hedges.increment();
+                        return timed(request);
+                    })
+                    .map(value -> new Attempt<>(value, true))
+                    .onErrorResume(ex -> Mono.empty());
+
+            return Flux.merge(first, second)
+                    .next()
+                    .map(attempt -> {
+                        if (attempt.hedged()) {
+                            wins.increment();
+                        }
+                        return attempt.value();
+                    });
+        });
+    }
+
+    Duration hedgeDelay() {
+        long now = System.nanoTime();
+        if (now - refreshedAt >= REFRESH_INTERVAL) {
+            refreshDelay(now);
+        }
+        return Duration.ofNanos(delayNanos);
+    }
+
+    private <T> Mono<T> timed(Function<Runnable, Mono<T>> request) {
+        return Mono.defer(() -> {
+            AtomicLong sentAt = new AtomicLong(-1);
+            return request.apply(() -> sentAt.compareAndSet(-1, System.nanoTime()))
+                    .doFinally(signal -> {
+                        long sent = sentAt.get();
+                        if (sent >= 0 && signal != SignalType.ON_ERROR) {
+                            record(System.nanoTime() - sent);
+                        }
+                    });
+        });
+    }
+
+    private void record(long latencyNanos) {
+        long index = recorded.getAndIncrement();
+        samples.set((int) (index % samples.length()), latencyNanos);
+    }
+
+    private synchronized void refreshDelay(long now) {
+        if (now - refreshedAt < REFRESH_INTERVAL) {
+            return;
+        }
+        int count = (int) Math.min(recorded.get(), samples.length());
+        if (count < MIN_SAMPLES) {
+            return;
+        }
+        refreshedAt = now;
+        long[] window = new long[count];
+        for (int i = 0; i < count; i++) {
+            window[i] = samples.get(i);
+        }
+        Arrays.sort(window);
+        long value = window[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+        delayNanos = Math.clamp(value, minDelayNanos, maxDelayNanos);
+    }
+
+    private synchronized void earnBudget() {
+        tokens = Math.min(MAX_TOKENS, tokens + budget);
+    }
+
+    private synchronized boolean spendBudget() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private record Attempt<T>(T value, boolean hedged) {
+    }
+}
@@ -1,8 +1,13 @@
 package com.innowise.paymentservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
 
 /**
  * @ClassName WebClientConfig
@@ -20,4 +25,36 @@ public class WebClientConfig {
         return builder.build();
     }
 
+    /**
+     * Limiter of concurrent random API calls, running them on their own scheduler so a slow API
+     * cannot tie up the threads of the consumers.
+     */
+    @Bean(destroyMethod = "dispose")
+    public AdaptiveConcurrencyLimiter randomApiLimiter(
+            @Value("${payment.random-api.limiter.initial-limit:8}") int initialLimit,
+            @Value("${payment.random-api.limiter.min-limit:1}") int minLimit,
+            @Value("${payment.random-api.limiter.max-limit:64}") int maxLimit,
+            @Value("${payment.random-api.limiter.latency-tolerance:2.0}") double latencyTolerance,
+            @Value("${payment.random-api.limiter.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${payment.random-api.limiter.max-queue:256}") int maxQueue,
+            MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("random.api", initialLimit, minLimit, maxLimit, latencyTolerance,
+                backoffRatio, maxQueue, Schedulers.newBoundedElastic(maxLimit, maxQueue, "random-api"), meterRegistry);
+    }
+
+    /**
+     * Hedging of slow random API calls, disabled unless {@code payment.random-api.hedging.enabled} is set.
+     */
+    @Bean
+    public RequestHedger randomApiHedger(
+            @Value("${payment.random-api.hedging.enabled:false}") boolean enabled,
+            @Value("${payment.random-api.hedging.percentile:0.95}") double percentile,
+            @Value("${payment.random-api.hedging.min-delay:5ms}") Duration minDelay,
+            @Value("${payment.random-api.hedging.max-delay:500ms}") Duration maxDelay,
+            @Value("${payment.random-api.hedging.budget:0.05}") double budget,
+            @Value("${payment.random-api.hedging.window:256}") int window,
+            MeterRegistry meterRegistry) {
+        return new RequestHedger("random.api", enabled, percentile, minDelay, maxDelay, budget, window, meterRegistry);
+    }
+
 }
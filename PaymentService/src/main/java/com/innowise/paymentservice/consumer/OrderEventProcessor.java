@@ -0,0 +1,95 @@
+package com.innowise.paymentservice.consumer;
+
+import com.innowise.paymentservice.exception.PaymentAlreadyProcessedException;
+import com.innowise.paymentservice.metrics.PipelineMetrics;
+import com.innowise.paymentservice.metrics.PipelineMetrics.Outcome;
+import com.innowise.paymentservice.metrics.PipelineMetrics.Stage;
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import com.innowise.paymentservice.outbox.PaymentOutbox;
+import com.innowise.paymentservice.producer.PaymentProducer;
+import com.innowise.paymentservice.service.PaymentDecisionEngine;
+import com.innowise.paymentservice.service.PaymentService;
+import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * @ClassName OrderEventProcessor
+ * @Description Blocking per-event CREATE_ORDER processing shared by the record and parallel listeners:
+ * duplicate check, payment decision, payment creation and CREATE_PAYMENT publishing.
+ * Each stage is timed and every event is counted by outcome in {@link PipelineMetrics}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+@AllArgsConstructor
+public class OrderEventProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventProcessor.class);
+
+    private final PaymentService paymentService;
+    private final PaymentProducer paymentEventProducer;
+    private final PaymentDecisionEngine paymentDecisionEngine;
+    private final PaymentOutbox paymentOutbox;
+    private final PipelineMetrics pipelineMetrics;
+
+    /**
+     * @param event the incoming order event, may be {@code null} after a deserialization failure
+     * @return {@code false} if the event has no order ID and must be skipped
+     */
+    public boolean isValid(OrderEvent event) {
+        if (event == null || event.getOrderId() == null) {
+            logger.warn("Invalid OrderEvent, skipping: {}", event);
+            pipelineMetrics.count(Outcome.INVALID);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param event the incoming order event
+     * @return {@code true} if a payment for the order already exists and the event must be skipped
+     */
+    public boolean isDuplicate(OrderEvent event) {
+        if (pipelineMetrics.time(Stage.DEDUP, () -> paymentService.isAlreadyProcessed(event.getOrderId()))) {
+            logger.warn("Duplicate event detected, skipping: {}", event.getOrderId());
+            pipelineMetrics.count(Outcome.DUPLICATE);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Creates the payment for a new order and publishes the resulting CREATE_PAYMENT event,
+     * unless events are delivered through the outbox.
+     * A concurrent duplicate detected on insert is logged and skipped; any other failure is counted and propagated.
+     *
+     * @param event           the incoming order event
+     * @param sourceTimestamp timestamp of the consumed record, for the end-to-end latency
+     */
+    public void processNew(OrderEvent event, long sourceTimestamp) {
+        try {
+            boolean isEven = pipelineMetrics.time(Stage.DECISION, () -> paymentDecisionEngine.decideNow(event));
+
+            PaymentDto saved = pipelineMetrics.time(Stage.PERSIST, () -> paymentService.processOrderEvent(event, isEven));
+            pipelineMetrics.count(Outcome.PROCESSED);
+            if (paymentOutbox.isEnabled()) {
+                return;
+            }
+            PaymentEvent paymentEvent = paymentService.toPaymentEvent(saved);
+
+            pipelineMetrics.time(Stage.PUBLISH, () -> paymentEventProducer.sendCreatePayment(paymentEvent, sourceTimestamp));
+            logger.info("Sent CREATE_PAYMENT event: {}", paymentEvent);
+        } catch (PaymentAlreadyProcessedException ex) {
+            logger.warn("Duplicate event detected, skipping: {}", event.getOrderId());
+            pipelineMetrics.count(Outcome.DUPLICATE);
+        } catch (RuntimeException ex) {
+            pipelineMetrics.count(Outcome.FAILED);
+            throw ex;
+        }
+    }
+
+}
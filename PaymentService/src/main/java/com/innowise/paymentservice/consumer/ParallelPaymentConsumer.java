@@ -0,0 +1,134 @@
+package com.innowise.paymentservice.consumer;
+
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @ClassName ParallelPaymentConsumer
+ * @Description Kafka consumer that fans each poll of CREATE_ORDER events out to virtual threads.
+ * Records sharing a key (orderId) are processed sequentially in offset order, unrelated records run
+ * concurrently, so one slow random-API call no longer stalls the whole partition.
+ * Offsets are committed only up to the first record that did not complete: a failure is reported as a
+ * {@link BatchListenerFailedException} and the container redelivers everything from that record on.
+ * Active when {@code payment.consumer.mode=parallel}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "payment.consumer.mode", havingValue = "parallel")
+public class ParallelPaymentConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelPaymentConsumer.class);
+
+    private final OrderEventProcessor orderEventProcessor;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ParallelPaymentConsumer(OrderEventProcessor orderEventProcessor,
+                                   @Value("${payment.consumer.parallel.max-concurrency:256}") int maxConcurrency) {
+        this.orderEventProcessor = orderEventProcessor;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @KafkaListener(topics = "${spring.kafka.topics.create-order}", groupId = "payment-group",
+            containerFactory = "orderEventParallelKafkaListenerContainerFactory")
+    public void listen(List<ConsumerRecord<String, OrderEvent>> records) {
+        logger.info("Received batch of {} CREATE_ORDER events", records.size());
+
+        AtomicReferenceArray<Throwable> failures = new AtomicReferenceArray<>(records.size());
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (List<Integer> sameKey : groupByKey(records).values()) {
+            tasks.add(submit(() -> processInOrder(records, sameKey, failures)));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+
+        for (int index = 0; index < records.size(); index++) {
+            Throwable failure = failures.get(index);
+            if (failure != null) {
+                throw new BatchListenerFailedException("Failed to process order event", failure, index);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.close();
+    }
+
+    private Map<Object, List<Integer>> groupByKey(List<ConsumerRecord<String, OrderEvent>> records) {
+        Map<Object, List<Integer>> indexesByKey = new LinkedHashMap<>();
+        for (int index = 0; index < records.size(); index++) {
+            indexesByKey.computeIfAbsent(orderingKey(records.get(index)), key -> new ArrayList<>()).add(index);
+        }
+        return indexesByKey;
+    }
+
+    private Object orderingKey(ConsumerRecord<String, OrderEvent> consumerRecord) {
+        OrderEvent event = consumerRecord.value();
+        if (event != null && event.getOrderId() != null) {
+            return event.getOrderId();
+        }
+        if (consumerRecord.key() != null) {
+            return consumerRecord.key();
+        }
+        return consumerRecord.partition() + "-" + consumerRecord.offset();
+    }
+
+    private void processInOrder(List<ConsumerRecord<String, OrderEvent>> records, List<Integer> indexes,
+                                AtomicReferenceArray<Throwable> failures) {
+        for (int i = 0; i < indexes.size(); i++) {
+            int index = indexes.get(i);
+            try {
+                process(records.get(index));
+            } catch (Exception ex) {
+                logger.error("Error while processing order event", ex);
+                for (int j = i; j < indexes.size(); j++) {
+                    failures.set(indexes.get(j), ex);
+                }
+                return;
+            }
+        }
+    }
+
+    private void process(ConsumerRecord<String, OrderEvent> record) {
+        OrderEvent event = record.value();
+        if (!orderEventProcessor.isValid(event)) {
+            return;
+        }
+        logger.info("Received CREATE_ORDER event: {}", event);
+
+        if (!orderEventProcessor.isDuplicate(event)) {
+            orderEventProcessor.processNew(event, record.timestamp());
+        }
+    }
+
+    private CompletableFuture<Void> submit(Runnable task) {
+        return CompletableFuture.runAsync(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+}
@@ -0,0 +1,263 @@
+package com.innowise.paymentservice.consumer;
+
+import com.innowise.paymentservice.exception.ConcurrencyLimitExceededException;
+import com.innowise.paymentservice.metrics.PipelineMetrics;
+import com.innowise.paymentservice.metrics.PipelineMetrics.Outcome;
+import com.innowise.paymentservice.metrics.PipelineMetrics.Stage;
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import com.innowise.paymentservice.outbox.PaymentOutbox;
+import com.innowise.paymentservice.producer.PaymentProducer;
+import com.innowise.paymentservice.service.PaymentDecisionEngine;
+import com.innowise.paymentservice.service.PaymentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * @ClassName PaymentBatchConsumer
+ * @Description Kafka consumer handling CREATE_ORDER events a whole poll at a time.
+ * Duplicates are detected with one query per batch, new payments are persisted with one
+ * bulk insert and offsets are committed once per batch. Stages are timed per batch in {@link PipelineMetrics}.
+ * Active when {@code payment.consumer.mode=batch}.
+ * <p>
+ * With {@code payment.consumer.batch.transaction.enabled=true} the listener runs inside the container's Kafka
+ * transaction, so any failure is rethrown to abort it. Payments are still written to MongoDB outside the
+ * transaction, so they are inserted with their event marked unsent and the markers are cleared once the transaction
+ * commits. Orders found already processed on redelivery have their event re-sent only while it is still marked,
+ * which keeps the committed output complete if an earlier attempt inserted the payments and then aborted,
+ * without publishing again the events of orders that were merely delivered twice.
+ * <p>
+ * Without a transaction a failure is rethrown as a {@link BatchListenerFailedException}, so the container's error
+ * handler retries the batch and finally dead-letters the record at fault. An order without a payment decision fails
+ * at its own position once the orders before it are stored and published, an insert or publish failure at the first
+ * order of the batch. In direct delivery the events are tracked the same way as in a transaction, and the markers are
+ * cleared once the events are handed to the producer, so a retry re-sends the events of payments an earlier attempt
+ * stored but did not publish.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "payment.consumer.mode", havingValue = "batch")
+public class PaymentBatchConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentBatchConsumer.class);
+
+    private final PaymentService paymentService;
+    private final PaymentProducer paymentEventProducer;
+    private final PaymentDecisionEngine paymentDecisionEngine;
+    private final PaymentOutbox paymentOutbox;
+    private final PipelineMetrics pipelineMetrics;
+    private final int decisionConcurrency;
+    private final boolean transactional;
+
+    public PaymentBatchConsumer(PaymentService paymentService,
+                                PaymentProducer paymentEventProducer,
+                                PaymentDecisionEngine paymentDecisionEngine,
+                                PaymentOutbox paymentOutbox,
+                                PipelineMetrics pipelineMetrics,
+                                @Value("${payment.consumer.batch.decision-concurrency:16}") int decisionConcurrency,
+                                @Value("${payment.consumer.batch.transaction.enabled:false}") boolean transactional) {
+        this.paymentService = paymentService;
+        this.paymentEventProducer = paymentEventProducer;
+        this.paymentDecisionEngine = paymentDecisionEngine;
+        this.paymentOutbox = paymentOutbox;
+        this.pipelineMetrics = pipelineMetrics;
+        this.decisionConcurrency = decisionConcurrency;
+        this.transactional = transactional;
+    }
+
+    @KafkaListener(topics = "${spring.kafka.topics.create-order}", groupId = "payment-group",
+            containerFactory = "orderEventBatchKafkaListenerContainerFactory")
+    public void listen(List<OrderEvent> events, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) List<Long> timestamps) {
+        logger.info("Received batch of {} CREATE_ORDER events", events.size());
+
+        Map<Long, Integer> positions = new HashMap<>();
+        Map<Long, OrderEvent> candidates = uniqueValidEvents(events, positions);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        int firstPosition = positions.get(candidates.keySet().iterator().next());
+
+        Set<Long> processed = pipelineMetrics.time(Stage.DEDUP,
+                () -> paymentService.findProcessedOrderIds(candidates.keySet()));
+        if (!processed.isEmpty()) {
+            logger.warn("Duplicate events detected, skipping: {}", processed);
+            pipelineMetrics.count(Outcome.DUPLICATE, processed.size());
+            candidates.keySet().removeAll(processed);
+        }
+
+        boolean direct = !paymentOutbox.isEnabled();
+        int pending = candidates.size();
+        OrderEvent undecided;
+        try {
+            List<PaymentEvent> replayed = direct && !processed.isEmpty()
+                    ? paymentService.findUnsentEvents(processed)
+                    : List.of();
+            Map<OrderEvent, Boolean> decisions = candidates.isEmpty()
+                    ? Map.of()
+                    : pipelineMetrics.time(Stage.DECISION, () -> decide(candidates.values()));
+            undecided = firstUndecided(candidates.values(), decisions);
+            if (transactional && undecided != null) {
+                throw new IllegalStateException("No payment decision for order " + undecided.getOrderId()
+                        + ", aborting the transaction");
+            }
+
+            Map<OrderEvent, Boolean> accepted = decidedBefore(undecided, decisions, positions);
+            List<PaymentDto> saved = accepted.isEmpty()
+                    ? List.of()
+                    : pipelineMetrics.time(Stage.PERSIST, () -> paymentService.processOrderEvents(accepted, direct));
+            pipelineMetrics.count(Outcome.PROCESSED, saved.size());
+            pending -= accepted.size();
+            if (direct) {
+                publish(Stream.concat(replayed.stream(), saved.stream().map(paymentService::toPaymentEvent)).toList(),
+                        timestamps, positions);
+            }
+        } catch (RuntimeException ex) {
+            pipelineMetrics.count(Outcome.FAILED, pending);
+            // shed decisions are redelivered with the batch rather than dropped
+            if (transactional || ex instanceof ConcurrencyLimitExceededException) {
+                throw ex;
+            }
+            throw new BatchListenerFailedException("Failed to process order event batch", ex, firstPosition);
+        }
+
+        if (undecided != null) {
+            pipelineMetrics.count(Outcome.FAILED, pending);
+            throw new BatchListenerFailedException("No payment decision for order " + undecided.getOrderId(),
+                    positions.get(undecided.getOrderId()));
+        }
+    }
+
+    private void publish(List<PaymentEvent> paymentEvents, List<Long> timestamps, Map<Long, Integer> positions) {
+        pipelineMetrics.time(Stage.PUBLISH, () -> paymentEvents.forEach(event ->
+                paymentEventProducer.sendCreatePayment(event, timestampOf(event.getOrderId(), timestamps, positions))));
+        List<String> paymentIds = paymentEvents.stream().map(PaymentEvent::getPaymentId).toList();
+        if (transactional) {
+            markSentAfterCommit(paymentIds);
+        } else {
+            markSent(paymentIds);
+        }
+        logger.info("Sent {} CREATE_PAYMENT events", paymentEvents.size());
+    }
+
+    private static OrderEvent firstUndecided(Collection<OrderEvent> candidates, Map<OrderEvent, Boolean> decisions) {
+        if (decisions.size() == candidates.size()) {
+            return null;
+        }
+        return candidates.stream().filter(event -> !decisions.containsKey(event)).findFirst().orElseThrow();
+    }
+
+    /**
+     * @return the decisions of the events preceding {@code undecided} in the batch, or all of them if it is null
+     */
+    private static Map<OrderEvent, Boolean> decidedBefore(OrderEvent undecided, Map<OrderEvent, Boolean> decisions,
+                                                          Map<Long, Integer> positions) {
+        if (undecided == null) {
+            return decisions;
+        }
+        int limit = positions.get(undecided.getOrderId());
+        Map<OrderEvent, Boolean> decided = new LinkedHashMap<>();
+        for (Map.Entry<OrderEvent, Boolean> decision : decisions.entrySet()) {
+            if (positions.get(decision.getKey().getOrderId()) > limit) {
+                break;
+            }
+            decided.put(decision.getKey(), decision.getValue());
+        }
+        return decided;
+    }
+
+    private void markSentAfterCommit(List<String> paymentIds) {
+        if (paymentIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Transactional batch listener invoked outside a container transaction");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markSent(paymentIds);
+            }
+        });
+    }
+
+    private void markSent(List<String> paymentIds) {
+        if (paymentIds.isEmpty()) {
+            return;
+        }
+        try {
+            paymentService.markEventsSent(paymentIds);
+        } catch (RuntimeException ex) {
+            // the events are sent, a marker left behind only causes a resend on a later redelivery
+            logger.warn("Failed to clear the event markers of {} payments: {}", paymentIds.size(), ex.getMessage());
+        }
+    }
+
+    private Map<Long, OrderEvent> uniqueValidEvents(List<OrderEvent> events, Map<Long, Integer> positions) {
+        Map<Long, OrderEvent> unique = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            OrderEvent event = events.get(i);
+            if (!isValidEvent(event)) {
+                logger.warn("Invalid OrderEvent in batch, skipping: {}", event);
+                pipelineMetrics.count(Outcome.INVALID);
+                continue;
+            }
+            if (unique.putIfAbsent(event.getOrderId(), event) != null) {
+                pipelineMetrics.count(Outcome.DUPLICATE);
+                continue;
+            }
+            positions.put(event.getOrderId(), i);
+        }
+        return unique;
+    }
+
+    private static long timestampOf(Long orderId, List<Long> timestamps, Map<Long, Integer> positions) {
+        Integer position = positions.get(orderId);
+        return position != null && position < timestamps.size() ? timestamps.get(position) : PipelineMetrics.NO_TIMESTAMP;
+    }
+
+    private boolean isValidEvent(OrderEvent event) {
+        return event != null && event.getOrderId() != null && event.getUserId() != null && event.getAmount() != null;
+    }
+
+    private Map<OrderEvent, Boolean> decide(Iterable<OrderEvent> events) {
+        Map<OrderEvent, Boolean> decisions = new LinkedHashMap<>();
+        Flux.fromIterable(events)
+                .flatMapSequential(this::decide, decisionConcurrency)
+                .doOnNext(decision -> decisions.put(decision.getT1(), decision.getT2()))
+                .blockLast();
+        return decisions;
+    }
+
+    private Mono<Tuple2<OrderEvent, Boolean>> decide(OrderEvent event) {
+        return paymentDecisionEngine.decide(event)
+                .defaultIfEmpty(false)
+                .map(isEven -> Tuples.of(event, isEven))
+                .onErrorResume(ex -> !(ex instanceof ConcurrencyLimitExceededException), ex -> {
+                    logger.error("Error while processing order event {}", event.getOrderId(), ex);
+                    return Mono.empty();
+                });
+    }
+}
@@ -1,54 +1,48 @@
 package com.innowise.paymentservice.consumer;
 
+import com.innowise.paymentservice.exception.ConcurrencyLimitExceededException;
 import com.innowise.paymentservice.model.dto.OrderEvent;
-import com.innowise.paymentservice.model.dto.PaymentDto;
-import com.innowise.paymentservice.model.dto.PaymentEvent;
-import com.innowise.paymentservice.producer.PaymentProducer;
-import com.innowise.paymentservice.service.PaymentService;
-import com.innowise.paymentservice.service.RandomNumberService;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 /**
  * @ClassName PaymentConsumer
- * @Description Kafka consumer responsible for handling CREATE_ORDER events.
+ * @Description Kafka consumer responsible for handling CREATE_ORDER events one record at a time.
+ * Active unless another {@code payment.consumer.mode} is configured.
  * @Author dshparko
  * @Date 09.11.2025 18:13
  * @Version 1.0
  */
 @Component
 @AllArgsConstructor
+@ConditionalOnProperty(name = "payment.consumer.mode", havingValue = "record", matchIfMissing = true)
 public class PaymentConsumer {
     private static final Logger logger = LoggerFactory.getLogger(PaymentConsumer.class);
 
-    private final PaymentService paymentService;
-    private final PaymentProducer paymentEventProducer;
-    private final RandomNumberService randomNumberService;
+    private final OrderEventProcessor orderEventProcessor;
 
 
     @KafkaListener(topics = "${spring.kafka.topics.create-order}", groupId = "payment-group")
-    public void listen(OrderEvent event) {
+    public void listen(OrderEvent event, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp) {
         logger.info("Received CREATE_ORDER event: {}", event);
 
-        if (paymentService.isAlreadyProcessed(event.getOrderId())) {
-            logger.warn("Duplicate event detected, skipping: {}", event.getOrderId());
+        if (orderEventProcessor.isDuplicate(event)) {
             return;
         }
 
         try {
-            boolean isEven = randomNumberService.isEven().blockOptional().orElse(false);
-
-            PaymentDto saved = paymentService.processOrderEvent(event, isEven);
-            PaymentEvent paymentEvent = paymentService.toPaymentEvent(saved);
-
-            paymentEventProducer.sendCreatePayment(paymentEvent);
-            logger.info("Sent CREATE_PAYMENT event: {}", paymentEvent);
+            orderEventProcessor.processNew(event, timestamp);
+        } catch (ConcurrencyLimitExceededException ex) {
+            // shed by the random API limiter, the container retries the record after its back-off
+            throw ex;
         } catch (Exception ex) {
             logger.error("Error while processing order event", ex);
         }
     }
 }
-
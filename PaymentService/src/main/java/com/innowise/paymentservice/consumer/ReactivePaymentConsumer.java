@@ -0,0 +1,224 @@
+package com.innowise.paymentservice.consumer;
+
+import com.innowise.paymentservice.exception.PaymentAlreadyProcessedException;
+import com.innowise.paymentservice.metrics.PipelineMetrics;
+import com.innowise.paymentservice.metrics.PipelineMetrics.Outcome;
+import com.innowise.paymentservice.metrics.PipelineMetrics.Stage;
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import com.innowise.paymentservice.outbox.PaymentOutbox;
+import com.innowise.paymentservice.service.PaymentDecisionEngine;
+import com.innowise.paymentservice.service.PaymentService;
+import com.innowise.paymentservice.service.ReactivePaymentService;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * @ClassName ReactivePaymentConsumer
+ * @Description Non-blocking CREATE_ORDER pipeline built on reactor-kafka and the reactive MongoDB driver.
+ * Records are grouped by partition and processed one at a time within a partition, so inserts, events and
+ * acknowledgements keep the partition order while partitions run concurrently. A partition group completes
+ * when the partition is revoked, so a reassigned partition starts a fresh group.
+ * An offset is acknowledged only after the resulting PaymentEvent has been acknowledged by the broker,
+ * or after the record has been published to the dead-letter topic once retries are exhausted.
+ * The payment is inserted with its event marked pending and the marker is cleared after the broker
+ * acknowledgement, so a redelivered order whose event was never published gets it resent instead of being
+ * skipped as a duplicate. In outbox delivery mode the event is left to the relay and the offset is
+ * acknowledged as soon as the payment is stored.
+ * Active when {@code payment.consumer.mode=reactive}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "payment.consumer.mode", havingValue = "reactive")
+public class ReactivePaymentConsumer implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(ReactivePaymentConsumer.class);
+
+    private static final int MAX_PARTITIONS = 1024;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final ReceiverOptions<String, OrderEvent> receiverOptions;
+    private final KafkaSender<String, PaymentEvent> kafkaSender;
+    private final ReactivePaymentService reactivePaymentService;
+    private final PaymentService paymentService;
+    private final PaymentDecisionEngine paymentDecisionEngine;
+    private final PaymentOutbox paymentOutbox;
+    private final PipelineMetrics pipelineMetrics;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
+    private final String createPaymentTopic;
+
+    private volatile Disposable subscription;
+
+    public ReactivePaymentConsumer(ReceiverOptions<String, OrderEvent> receiverOptions,
+                                   KafkaSender<String, PaymentEvent> kafkaSender,
+                                   ReactivePaymentService reactivePaymentService,
+                                   PaymentService paymentService,
+                                   PaymentDecisionEngine paymentDecisionEngine,
+                                   PaymentOutbox paymentOutbox,
+                                   PipelineMetrics pipelineMetrics,
+                                   KafkaTemplate<String, OrderEvent> orderEventKafkaTemplate,
+                                   @Value("${spring.kafka.topics.create-payment}") String createPaymentTopic) {
+        this.receiverOptions = receiverOptions;
+        this.kafkaSender = kafkaSender;
+        this.reactivePaymentService = reactivePaymentService;
+        this.paymentService = paymentService;
+        this.paymentDecisionEngine = paymentDecisionEngine;
+        this.paymentOutbox = paymentOutbox;
+        this.pipelineMetrics = pipelineMetrics;
+        this.deadLetterRecoverer = new DeadLetterPublishingRecoverer(orderEventKafkaTemplate);
+        this.createPaymentTopic = createPaymentTopic;
+    }
+
+    @Override
+    public void start() {
+        subscription = consume().subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+        subscription = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        Disposable current = subscription;
+        return current != null && !current.isDisposed();
+    }
+
+    Flux<ReceiverRecord<String, OrderEvent>> consume() {
+        return Flux.defer(() -> {
+                    Sinks.Many<TopicPartition> revoked = Sinks.many().multicast().directBestEffort();
+                    ReceiverOptions<String, OrderEvent> options = receiverOptions.addRevokeListener(partitions ->
+                            partitions.forEach(partition -> revoked.tryEmitNext(partition.topicPartition())));
+                    return KafkaReceiver.create(options).receive()
+                            .groupBy(receiverRecord -> receiverRecord.receiverOffset().topicPartition())
+                            .flatMap(partition -> partition
+                                    .takeUntilOther(revoked.asFlux().filter(partition.key()::equals))
+                                    .concatMap(this::handle)
+                                    .doOnNext(receiverRecord -> receiverRecord.receiverOffset().acknowledge()),
+                                    MAX_PARTITIONS);
+                })
+                .doOnError(ex -> logger.error("Reactive order event pipeline failed, resubscribing", ex))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)));
+    }
+
+    /**
+     * Processes a record, retrying transient failures, and publishes it to the dead-letter topic once the
+     * retries are exhausted. Emits the record when its offset may be acknowledged; fails, leaving the offset
+     * unacknowledged, only if the dead-letter publish fails too.
+     */
+    Mono<ReceiverRecord<String, OrderEvent>> handle(ReceiverRecord<String, OrderEvent> receiverRecord) {
+        return Mono.defer(() -> process(receiverRecord))
+                .retryWhen(Retry.fixedDelay(MAX_ATTEMPTS, RETRY_DELAY)
+                        .filter(ex -> !(ex instanceof IllegalArgumentException))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .onErrorResume(ex -> deadLetter(receiverRecord, ex));
+    }
+
+    Mono<ReceiverRecord<String, OrderEvent>> process(ReceiverRecord<String, OrderEvent> receiverRecord) {
+        OrderEvent event = receiverRecord.value();
+        if (event == null || event.getOrderId() == null) {
+            logger.warn("Invalid OrderEvent at offset {}, skipping", receiverRecord.receiverOffset().offset());
+            pipelineMetrics.count(Outcome.INVALID);
+            return Mono.just(receiverRecord);
+        }
+        logger.info("Received CREATE_ORDER event: {}", event);
+
+        return timed(Stage.DEDUP, reactivePaymentService.isAlreadyProcessed(event.getOrderId()))
+                .flatMap(processed -> {
+                    if (Boolean.TRUE.equals(processed)) {
+                        return redelivered(event);
+                    }
+                    return timed(Stage.DECISION, paymentDecisionEngine.decide(event).defaultIfEmpty(false))
+                            .flatMap(isEven -> timed(Stage.PERSIST, reactivePaymentService.processOrderEvent(event, isEven)))
+                            .doOnNext(saved -> pipelineMetrics.count(Outcome.PROCESSED))
+                            .map(paymentService::toPaymentEvent);
+                })
+                .onErrorResume(PaymentAlreadyProcessedException.class, ex -> redelivered(event))
+                .flatMap(paymentEvent -> send(paymentEvent, receiverRecord.timestamp()))
+                .thenReturn(receiverRecord);
+    }
+
+    /**
+     * Handles an order that already has a payment: in direct mode its event is resent if the broker never
+     * acknowledged it, otherwise the record is a duplicate and is skipped.
+     */
+    private Mono<PaymentEvent> redelivered(OrderEvent event) {
+        Mono<PaymentEvent> unsent = paymentOutbox.isEnabled()
+                ? Mono.empty()
+                : reactivePaymentService.findUnsentEvent(event.getOrderId())
+                        .doOnNext(paymentEvent -> logger.info("Resending unpublished CREATE_PAYMENT event: {}", paymentEvent));
+        return unsent.switchIfEmpty(Mono.fromRunnable(() -> {
+            logger.warn("Duplicate event detected, skipping: {}", event.getOrderId());
+            pipelineMetrics.count(Outcome.DUPLICATE);
+        }));
+    }
+
+    private Mono<ReceiverRecord<String, OrderEvent>> deadLetter(ReceiverRecord<String, OrderEvent> receiverRecord,
+                                                               Throwable ex) {
+        return Mono.fromRunnable(() -> {
+                    logger.error("Error while processing order event at offset {}, publishing to dead-letter topic",
+                            receiverRecord.receiverOffset().offset(), ex);
+                    deadLetterRecoverer.accept(receiverRecord,
+                            ex instanceof Exception exception ? exception : new IllegalStateException(ex));
+                    pipelineMetrics.count(Outcome.FAILED);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(receiverRecord);
+    }
+
+    private Mono<Void> send(PaymentEvent paymentEvent, long sourceTimestamp) {
+        if (paymentOutbox.isEnabled()) {
+            return Mono.empty();
+        }
+        ProducerRecord<String, PaymentEvent> producerRecord =
+                new ProducerRecord<>(createPaymentTopic, paymentEvent.getPaymentId(), paymentEvent);
+
+        Mono<Void> sent = kafkaSender.send(Mono.just(SenderRecord.create(producerRecord, paymentEvent.getPaymentId())))
+                .next()
+                .flatMap(result -> result.exception() == null
+                        ? Mono.just(result)
+                        : Mono.error(result.exception()))
+                .doOnNext(result -> {
+                    pipelineMetrics.recordEndToEnd(sourceTimestamp);
+                    logger.info("Sent CREATE_PAYMENT event: {}", paymentEvent);
+                })
+                .then(Mono.defer(() -> reactivePaymentService.markEventSent(paymentEvent.getPaymentId())));
+        return timed(Stage.PUBLISH, sent);
+    }
+
+    private <T> Mono<T> timed(Stage stage, Mono<T> mono) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return mono.doFinally(signal -> pipelineMetrics.recordSince(stage, start));
+        });
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.innowise.paymentservice.controller;
+
+import com.innowise.paymentservice.exception.InvalidQueryException;
+import com.innowise.paymentservice.model.PaymentGrouping;
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import com.innowise.paymentservice.model.dto.PaymentPageDto;
+import com.innowise.paymentservice.model.dto.PaymentTotalDto;
+import com.innowise.paymentservice.service.PaymentService;
+import com.innowise.paymentservice.service.ReactivePaymentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @ClassName PaymentController
+ * @Description Read-only REST API over payments.
+ * Unbounded result sets are streamed as {@code application/x-ndjson}: each payment is written as soon as
+ * it is read from the MongoDB cursor, and the cursor is only advanced as fast as the client consumes.
+ * Bounded reads are served as pages with a keyset cursor, order lookups from the payment cache
+ * and totals from the payment rollups.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/payments")
+@RequiredArgsConstructor
+public class PaymentController {
+
+    private static final String DEFAULT_PAGE_SIZE = "50";
+
+    private final PaymentService paymentService;
+    private final ReactivePaymentService reactivePaymentService;
+
+    @GetMapping("/order/{orderId}")
+    public PaymentDto getByOrderId(@PathVariable Long orderId) {
+        return paymentService.getByOrderId(orderId)
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No payment for order " + orderId));
+    }
+
+    @GetMapping(value = "/user/{userId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PaymentDto> streamByUserId(@PathVariable Long userId) {
+        return reactivePaymentService.findByUserId(userId);
+    }
+
+    @GetMapping("/user/{userId}/page")
+    public PaymentPageDto getPageByUserId(@PathVariable Long userId,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return paymentService.getPageByUserId(userId, cursor, size);
+    }
+
+    @GetMapping(value = "/status", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PaymentDto> streamByStatuses(@RequestParam Set<PaymentStatus> statuses) {
+        return reactivePaymentService.findByStatuses(statuses);
+    }
+
+    @GetMapping("/status/page")
+    public PaymentPageDto getPageByStatuses(@RequestParam Set<PaymentStatus> statuses,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return paymentService.getPageByStatuses(statuses, cursor, size);
+    }
+
+    @GetMapping(value = "/range", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PaymentDto> streamBetween(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        validateRange(from, to);
+        return reactivePaymentService.findBetween(from, to);
+    }
+
+    @GetMapping("/total")
+    public BigDecimal getTotalBetween(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        validateRange(from, to);
+        return paymentService.getTotalBetween(from, to);
+    }
+
+    @GetMapping("/totals")
+    public List<PaymentTotalDto> getTotalsBetween(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                  @RequestParam(defaultValue = "STATUS") PaymentGrouping groupBy) {
+        validateRange(from, to);
+        return paymentService.getTotalsBetween(from, to, groupBy);
+    }
+
+    private static void validateRange(Instant from, Instant to) {
+        if (from.isAfter(to)) {
+            throw new InvalidQueryException("'from' must not be after 'to'");
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.innowise.paymentservice.controller;
+
+import com.innowise.paymentservice.exception.InvalidQueryException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * @ClassName RestExceptionHandler
+ * @Description Maps invalid query input (malformed cursor, bad page size or range) to 400 Bad Request.
+ * Only {@link InvalidQueryException} is mapped, whose messages are fixed; any other exception keeps the
+ * default handling, so internal errors are neither reported as client errors nor leak their messages.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@RestControllerAdvice
+public class RestExceptionHandler {
+
+    @ExceptionHandler(InvalidQueryException.class)
+    public ProblemDetail handleInvalidQuery(InvalidQueryException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+}
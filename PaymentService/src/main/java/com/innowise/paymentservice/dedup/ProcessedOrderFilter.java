@@ -0,0 +1,94 @@
+package com.innowise.paymentservice.dedup;
+
+import com.innowise.paymentservice.model.entity.Payment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * @ClassName ProcessedOrderFilter
+ * @Description In-memory front for duplicate detection of processed orders.
+ * Backed by an {@link OrderIdBloomFilter} that is seeded from the payments collection at startup
+ * and updated on every save of this replica. Until seeding has finished (or when disabled) every order
+ * is reported as "maybe processed", so callers always fall back to MongoDB.
+ * The filter is local to the replica and does not see orders saved by other replicas after seeding, so a negative
+ * is only a hint that skips the existence query. Duplicates are rejected by the insert on the deterministic
+ * {@code _id}, which every write path relies on ({@code PaymentAlreadyProcessedException} / skipped bulk entries).
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+public class ProcessedOrderFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessedOrderFilter.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final OrderIdBloomFilter bloomFilter;
+    private final boolean enabled;
+    private volatile boolean seeded;
+
+    public ProcessedOrderFilter(MongoTemplate mongoTemplate,
+                                @Value("${payment.dedup.bloom.enabled:true}") boolean enabled,
+                                @Value("${payment.dedup.bloom.expected-insertions:1000000}") long expectedInsertions,
+                                @Value("${payment.dedup.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.bloomFilter = new OrderIdBloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    /**
+     * @param orderId the order ID to check
+     * @return {@code false} if this replica has not seen the order; a hint only, another replica may have saved it
+     */
+    public boolean mightBeProcessed(Long orderId) {
+        return !seeded || bloomFilter.mightContain(orderId);
+    }
+
+    /**
+     * Records a successfully persisted order.
+     *
+     * @param orderId the order ID of the saved payment
+     */
+    public void markProcessed(Long orderId) {
+        if (enabled && orderId != null) {
+            bloomFilter.put(orderId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        if (enabled) {
+            Thread.ofVirtual().name("processed-order-filter-seed").start(this::seed);
+        }
+    }
+
+    void seed() {
+        long started = System.nanoTime();
+        Query query = new Query();
+        query.fields().include("order_id");
+
+        long count = 0;
+        try (Stream<Payment> payments = mongoTemplate.stream(query, Payment.class)) {
+            for (Payment payment : (Iterable<Payment>) payments::iterator) {
+                if (payment.getOrderId() != null) {
+                    bloomFilter.put(payment.getOrderId());
+                    count++;
+                }
+            }
+            seeded = true;
+            logger.info("Processed order filter seeded with {} orders in {} ms",
+                    count, (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception ex) {
+            logger.warn("Failed to seed processed order filter, duplicate checks go to MongoDB: {}", ex.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.innowise.paymentservice.exception;
+
+/**
+ * @ClassName ConcurrencyLimitExceededException
+ * @Description Thrown when a call is shed because the concurrency limit and the wait queue are both full.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class ConcurrencyLimitExceededException extends IllegalStateException {
+
+    public ConcurrencyLimitExceededException(String name, int limit, int queued) {
+        super(name + " rejected a call: " + limit + " calls in flight and " + queued + " queued");
+    }
+
+}
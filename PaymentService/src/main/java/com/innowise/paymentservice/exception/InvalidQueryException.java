@@ -0,0 +1,22 @@
+package com.innowise.paymentservice.exception;
+
+/**
+ * @ClassName InvalidQueryException
+ * @Description Thrown when a payment query has invalid input: a malformed cursor, a page size that is not
+ * positive or an inverted time range. The message is fixed and safe to return to the client,
+ * the rejected value is only kept in the cause.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class InvalidQueryException extends IllegalArgumentException {
+
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+
+    public InvalidQueryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.innowise.paymentservice.exception;
+
+/**
+ * @ClassName PaymentAlreadyProcessedException
+ * @Description Thrown when a payment for the given order has already been persisted.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class PaymentAlreadyProcessedException extends IllegalStateException {
+
+    public PaymentAlreadyProcessedException(Long orderId, Throwable cause) {
+        super("Order " + orderId + " already processed", cause);
+    }
+
+}
@@ -0,0 +1,239 @@
+package com.innowise.paymentservice.flow;
+
+import com.innowise.paymentservice.producer.PaymentProducer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @ClassName ConsumerFlowController
+ * @Description Adaptive backpressure for the Kafka listener containers.
+ * Every {@code check-interval} it compares the downstream signals with their targets:
+ * <ul>
+ *     <li>mean latency of Mongo write commands ({@code mongodb.driver.commands}) in the last interval</li>
+ *     <li>mean latency of random API requests ({@code random.api.requests}) in the last interval</li>
+ *     <li>CREATE_PAYMENT sends not yet acknowledged by the broker</li>
+ * </ul>
+ * When any signal is above its target the containers are paused; they keep polling without fetching records.
+ * They are resumed once every signal has stayed below {@code resume-ratio} of its target for {@code resume-checks}
+ * consecutive intervals that carried latency samples. A paused consumer produces few samples, so after
+ * {@code probe-checks} intervals without any it is resumed on probation; a probe that ends in a pause within
+ * the same number of intervals doubles the wait before the next one, up to {@code max-probe-checks}.
+ * The reactive consumer is not a listener container and is bounded by its own in-flight window instead.
+ * Active only with {@code payment.consumer.flow-control.enabled=true}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "payment.consumer.flow-control.enabled", havingValue = "true")
+public class ConsumerFlowController implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(ConsumerFlowController.class);
+
+    static final String MONGO_COMMANDS = "mongodb.driver.commands";
+    static final String RANDOM_API_REQUESTS = "random.api.requests";
+    private static final Set<String> MONGO_WRITE_COMMANDS = Set.of("insert", "update", "delete", "findAndModify");
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final PaymentProducer paymentProducer;
+    private final MeterRegistry meterRegistry;
+    private final Duration checkInterval;
+    private final Duration mongoWriteLatencyTarget;
+    private final Duration randomApiLatencyTarget;
+    private final int maxInFlightSends;
+    private final double resumeRatio;
+    private final int resumeChecks;
+    private final int probeChecks;
+    private final int maxProbeChecks;
+    private final LatencyWindow mongoWrites;
+    private final LatencyWindow randomApi;
+    private final List<MessageListenerContainer> pausedContainers = new ArrayList<>();
+
+    private volatile boolean paused;
+    private int healthyChecks;
+    private int idleChecks;
+    private int probeDelay;
+    private int probeAge = -1;
+    private volatile Thread worker;
+
+    public ConsumerFlowController(KafkaListenerEndpointRegistry listenerRegistry,
+                                  PaymentProducer paymentProducer,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${payment.consumer.flow-control.check-interval:500ms}") Duration checkInterval,
+                                  @Value("${payment.consumer.flow-control.mongo-write-latency:250ms}") Duration mongoWriteLatencyTarget,
+                                  @Value("${payment.consumer.flow-control.random-api-latency:1s}") Duration randomApiLatencyTarget,
+                                  @Value("${payment.consumer.flow-control.max-in-flight-sends:10000}") int maxInFlightSends,
+                                  @Value("${payment.consumer.flow-control.resume-ratio:0.5}") double resumeRatio,
+                                  @Value("${payment.consumer.flow-control.resume-checks:3}") int resumeChecks,
+                                  @Value("${payment.consumer.flow-control.probe-checks:10}") int probeChecks,
+                                  @Value("${payment.consumer.flow-control.max-probe-checks:120}") int maxProbeChecks) {
+        if (resumeRatio <= 0 || resumeRatio > 1) {
+            throw new IllegalArgumentException("Flow control resume-ratio must be in (0, 1]: " + resumeRatio);
+        }
+        if (resumeChecks < 1 || probeChecks < 1 || maxProbeChecks < probeChecks) {
+            throw new IllegalArgumentException("Flow control needs resume-checks >= 1 and 1 <= probe-checks <= max-probe-checks");
+        }
+        this.listenerRegistry = listenerRegistry;
+        this.paymentProducer = paymentProducer;
+        this.meterRegistry = meterRegistry;
+        this.checkInterval = checkInterval;
+        this.mongoWriteLatencyTarget = mongoWriteLatencyTarget;
+        this.randomApiLatencyTarget = randomApiLatencyTarget;
+        this.maxInFlightSends = maxInFlightSends;
+        this.resumeRatio = resumeRatio;
+        this.resumeChecks = resumeChecks;
+        this.probeChecks = probeChecks;
+        this.maxProbeChecks = maxProbeChecks;
+        this.probeDelay = probeChecks;
+        this.mongoWrites = new LatencyWindow(() -> meterRegistry.find(MONGO_COMMANDS).timers().stream()
+                .filter(timer -> MONGO_WRITE_COMMANDS.contains(timer.getId().getTag("command")))
+                .toList());
+        this.randomApi = new LatencyWindow(() -> meterRegistry.find(RANDOM_API_REQUESTS).timers());
+        Gauge.builder("payment.flow.paused", this, controller -> controller.paused ? 1 : 0)
+                .description("1 while the listener containers are paused by flow control")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        worker = Thread.ofVirtual().name("payment-flow-control").start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        Thread current = worker;
+        worker = null;
+        if (current != null) {
+            current.interrupt();
+        }
+        synchronized (this) {
+            if (paused) {
+                resume("stopping");
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    @Override
+    public int getPhase() {
+        // stop before the listener containers and hand them back unpaused
+        return Integer.MAX_VALUE;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    private void run() {
+        while (worker == Thread.currentThread()) {
+            try {
+                evaluate();
+                Thread.sleep(checkInterval);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                logger.error("Flow control check failed", ex);
+            }
+        }
+    }
+
+    /**
+     * Reads the downstream signals of the last interval and pauses or resumes the listener containers.
+     * Latency signals without samples in the interval are unknown and neither pause nor confirm recovery.
+     */
+    synchronized void evaluate() {
+        Duration mongoLatency = mongoWrites.next();
+        Duration randomLatency = randomApi.next();
+        int inFlight = paymentProducer.inFlightSends();
+
+        if (!paused) {
+            if (probeAge >= 0 && ++probeAge >= probeDelay) {
+                // the probe held, the downstream recovered
+                probeAge = -1;
+                probeDelay = probeChecks;
+            }
+            String reason = saturation(mongoLatency, randomLatency, inFlight, 1.0);
+            if (reason != null) {
+                pause(reason, mongoLatency, randomLatency, inFlight);
+            }
+            return;
+        }
+
+        if (saturation(mongoLatency, randomLatency, inFlight, resumeRatio) != null) {
+            healthyChecks = 0;
+            idleChecks = 0;
+        } else if (mongoLatency != null || randomLatency != null) {
+            idleChecks = 0;
+            if (++healthyChecks >= resumeChecks) {
+                probeAge = -1;
+                probeDelay = probeChecks;
+                resume("downstream recovered");
+            }
+        } else if (++idleChecks >= probeDelay) {
+            probeAge = 0;
+            resume("probing idle downstream");
+        }
+    }
+
+    private String saturation(Duration mongoLatency, Duration randomLatency, int inFlight, double ratio) {
+        if (mongoLatency != null && mongoLatency.toNanos() > mongoWriteLatencyTarget.toNanos() * ratio) {
+            return "mongo";
+        }
+        if (randomLatency != null && randomLatency.toNanos() > randomApiLatencyTarget.toNanos() * ratio) {
+            return "random-api";
+        }
+        if (inFlight > maxInFlightSends * ratio) {
+            return "producer";
+        }
+        return null;
+    }
+
+    private void pause(String reason, Duration mongoLatency, Duration randomLatency, int inFlight) {
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            if (container.isRunning() && !container.isPauseRequested()) {
+                container.pause();
+                pausedContainers.add(container);
+            }
+        }
+        paused = true;
+        healthyChecks = 0;
+        idleChecks = 0;
+        if (probeAge >= 0) {
+            // the probe failed, wait longer before the next one
+            probeDelay = Math.min(probeDelay * 2, maxProbeChecks);
+            probeAge = -1;
+        }
+        Counter.builder("payment.flow.pauses")
+                .description("Listener container pauses by saturated downstream")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        logger.warn("Pausing CREATE_ORDER consumption, {} saturated: mongo write {}, random API {}, {} sends in flight",
+                reason, mongoLatency, randomLatency, inFlight);
+    }
+
+    private void resume(String reason) {
+        pausedContainers.forEach(MessageListenerContainer::resume);
+        pausedContainers.clear();
+        paused = false;
+        logger.info("Resuming CREATE_ORDER consumption, {}", reason);
+    }
+}
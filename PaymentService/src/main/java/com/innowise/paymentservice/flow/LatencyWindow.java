@@ -0,0 +1,44 @@
+package com.innowise.paymentservice.flow;
+
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @ClassName LatencyWindow
+ * @Description Mean latency of a set of cumulative timers since the previous read.
+ * Timers are looked up on every read, so meters registered after startup (e.g. per collection) are picked up.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+class LatencyWindow {
+
+    private final Supplier<Collection<Timer>> timers;
+    private long count;
+    private double totalNanos;
+
+    LatencyWindow(Supplier<Collection<Timer>> timers) {
+        this.timers = timers;
+    }
+
+    /**
+     * @return the mean latency of the calls recorded since the previous read, {@code null} if there were none
+     */
+    Duration next() {
+        long currentCount = 0;
+        double currentTotalNanos = 0;
+        for (Timer timer : timers.get()) {
+            currentCount += timer.count();
+            currentTotalNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+        }
+        long calls = currentCount - count;
+        double nanos = currentTotalNanos - totalNanos;
+        count = currentCount;
+        totalNanos = currentTotalNanos;
+        return calls > 0 ? Duration.ofNanos((long) (nanos / calls)) : null;
+    }
+}
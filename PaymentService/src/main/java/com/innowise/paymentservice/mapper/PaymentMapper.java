@@ -3,12 +3,15 @@ package com.innowise.paymentservice.mapper;
 import com.innowise.paymentservice.model.dto.PaymentDto;
 import com.innowise.paymentservice.model.entity.Payment;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface PaymentMapper {
 
     PaymentDto toDto(Payment entity);
 
+    @Mapping(target = "eventPending", ignore = true)
+    @Mapping(target = "rollupPending", ignore = true)
     Payment toEntity(PaymentDto dto);
     
 }
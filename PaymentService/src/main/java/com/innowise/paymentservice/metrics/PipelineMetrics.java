@@ -0,0 +1,113 @@
+package com.innowise.paymentservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * @ClassName PipelineMetrics
+ * @Description Meters of the CREATE_ORDER consumer pipeline, shared by all consumer modes.
+ * <ul>
+ *     <li>{@code payment.pipeline.stage} - latency per {@link Stage}, per event in the record and parallel modes
+ *     and per poll in the batch mode (tag {@code stage})</li>
+ *     <li>{@code payment.pipeline.end-to-end} - from the CREATE_ORDER record timestamp to the broker ack of the
+ *     CREATE_PAYMENT event</li>
+ *     <li>{@code payment.pipeline.events} - events by {@link Outcome} (tag {@code outcome})</li>
+ * </ul>
+ * Timers publish percentile histograms for server-side aggregation across instances, plus local percentiles.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+public class PipelineMetrics {
+
+    /**
+     * Kafka's marker for a record without a timestamp.
+     */
+    public static final long NO_TIMESTAMP = -1L;
+
+    public enum Stage {
+        DEDUP, DECISION, PERSIST, PUBLISH
+    }
+
+    public enum Outcome {
+        PROCESSED, DUPLICATE, INVALID, FAILED
+    }
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<Outcome, Counter> outcomeCounters = new EnumMap<>(Outcome.class);
+    private final Timer endToEndTimer;
+
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("payment.pipeline.stage")
+                    .description("Latency of a CREATE_ORDER processing stage")
+                    .tag("stage", tagValue(stage))
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("payment.pipeline.events")
+                    .description("CREATE_ORDER events by processing outcome")
+                    .tag("outcome", tagValue(outcome))
+                    .register(meterRegistry));
+        }
+        this.endToEndTimer = Timer.builder("payment.pipeline.end-to-end")
+                .description("Time from the CREATE_ORDER record timestamp to the ack of the CREATE_PAYMENT event")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public <T> T time(Stage stage, Supplier<T> action) {
+        return stageTimers.get(stage).record(action);
+    }
+
+    public void time(Stage stage, Runnable action) {
+        stageTimers.get(stage).record(action);
+    }
+
+    /**
+     * Records a stage that is measured by the caller, e.g. one spanning asynchronous work.
+     *
+     * @param stage     the stage
+     * @param startNanos the {@link System#nanoTime()} at the start of the stage
+     */
+    public void recordSince(Stage stage, long startNanos) {
+        stageTimers.get(stage).record(Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    public void count(Outcome outcome) {
+        count(outcome, 1);
+    }
+
+    public void count(Outcome outcome, int events) {
+        if (events > 0) {
+            outcomeCounters.get(outcome).increment(events);
+        }
+    }
+
+    /**
+     * Records the end-to-end latency of an event whose CREATE_PAYMENT was just acknowledged.
+     *
+     * @param sourceTimestamp the timestamp of the CREATE_ORDER record, or {@link #NO_TIMESTAMP}
+     */
+    public void recordEndToEnd(long sourceTimestamp) {
+        if (sourceTimestamp > 0) {
+            endToEndTimer.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - sourceTimestamp)));
+        }
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
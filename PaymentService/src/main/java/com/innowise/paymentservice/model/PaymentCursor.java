@@ -0,0 +1,47 @@
+package com.innowise.paymentservice.model;
+
+import com.innowise.paymentservice.exception.InvalidQueryException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * @ClassName PaymentCursor
+ * @Description Keyset position of the last payment of a page, ordered by timestamp and payment ID.
+ * Passed to clients as an opaque URL-safe string.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public record PaymentCursor(Instant timestamp, String paymentId) {
+
+    private static final char SEPARATOR = ':';
+
+    /**
+     * @return the opaque string form of this cursor
+     */
+    public String encode() {
+        String raw = timestamp.toEpochMilli() + String.valueOf(SEPARATOR) + paymentId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor the opaque string form, {@code null} or blank for the first page
+     * @return the decoded cursor, or {@code null} for the first page
+     * @throws InvalidQueryException if the cursor is malformed
+     */
+    public static PaymentCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new PaymentCursor(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, separator))),
+                    raw.substring(separator + 1));
+        } catch (RuntimeException ex) {
+            throw new InvalidQueryException("Invalid payment cursor", ex);
+        }
+    }
+}
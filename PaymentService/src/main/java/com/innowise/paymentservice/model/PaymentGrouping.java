@@ -0,0 +1,13 @@
+package com.innowise.paymentservice.model;
+
+/**
+ * @ClassName PaymentGrouping
+ * @Description Dimension by which payment totals are grouped in reporting queries.
+ * Time buckets are truncated in UTC.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public enum PaymentGrouping {
+    STATUS, USER, HOUR, DAY, MONTH
+}
@@ -0,0 +1,27 @@
+package com.innowise.paymentservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @ClassName PaymentPageDto
+ * @Description One page of payments, newest first, with the cursor for the next page.
+ * The cursor is {@code null} on the last page.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentPageDto {
+
+    private List<PaymentDto> content;
+
+    private String nextCursor;
+}
@@ -0,0 +1,30 @@
+package com.innowise.paymentservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * @ClassName PaymentTotalDto
+ * @Description Sum and count of payments for a single group of a reporting query.
+ * The key is the status name, the user ID or the ISO-8601 start of the time bucket,
+ * depending on the requested {@link com.innowise.paymentservice.model.PaymentGrouping}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentTotalDto {
+
+    private String key;
+
+    private BigDecimal total;
+
+    private long count;
+}
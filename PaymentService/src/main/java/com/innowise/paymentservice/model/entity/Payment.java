@@ -4,7 +4,7 @@ import com.innowise.paymentservice.model.PaymentStatus;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -15,6 +15,10 @@ import java.time.Instant;
  * @ClassName Payment
  * @Description Represents a payment transaction stored in the MongoDB "payments" collection.
  * Contains metadata such as order reference, user, amount, status, and timestamp.
+ * The payment ID ("PAYMENT-" + orderId) is the document {@code _id}, so a second payment
+ * for the same order is rejected by the primary key on insert.
+ * The document may also carry the pending CREATE_PAYMENT event marker, see {@link #eventPending}.
+ * Indexes are created by the Liquibase changelog only, see {@code db/changelog}.
  * @Author dshparko
  * @Date 05.11.2025 11:32
  * @Version 1.0
@@ -25,24 +29,36 @@ import java.time.Instant;
 @NoArgsConstructor
 public class Payment {
 
-    @Field("payment_id")
+    @Id
     private String paymentId;
 
-    @Indexed
     @Field("order_id")
     private Long orderId;
 
-    @Indexed
     @Field("user_id")
     private Long userId;
 
-    @Indexed
     private PaymentStatus status;
 
-    @Indexed
     private Instant timestamp;
 
     @Field("payment_amount")
     private BigDecimal paymentAmount;
 
+    /**
+     * Outbox marker: {@code true} while the CREATE_PAYMENT event of this payment has not been published yet.
+     * Written in the same insert as the payment and removed by the outbox relay, or in direct delivery mode by
+     * the reactive consumer once the broker has acknowledged the event. Absent for the record listeners.
+     */
+    @Field("event_pending")
+    private Boolean eventPending;
+
+    /**
+     * Rollup marker: {@code true} until this payment is known to be added to its rollup buckets.
+     * Written in the same insert as the payment and removed once the rollup increment succeeded,
+     * or by {@link com.innowise.paymentservice.rollup.PaymentRollupReconciler} after rebuilding the buckets.
+     */
+    @Field("rollup_pending")
+    private Boolean rollupPending;
+
 }
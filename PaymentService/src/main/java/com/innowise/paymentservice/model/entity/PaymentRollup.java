@@ -0,0 +1,45 @@
+package com.innowise.paymentservice.model.entity;
+
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.rollup.RollupGranularity;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * @ClassName PaymentRollup
+ * @Description Pre-aggregated sum and count of payments of one status within one time bucket,
+ * stored in the MongoDB "payment_rollups" collection. The {@code _id} is
+ * "granularity:status:bucket epoch millis", so every bucket is maintained with a single upsert.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Getter
+@Setter
+@Document(collection = "payment_rollups")
+@NoArgsConstructor
+public class PaymentRollup {
+
+    @Id
+    private String id;
+
+    private RollupGranularity granularity;
+
+    private PaymentStatus status;
+
+    private Instant bucket;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal total;
+
+    private long count;
+
+}
@@ -0,0 +1,63 @@
+package com.innowise.paymentservice.outbox;
+
+import com.innowise.paymentservice.model.entity.Payment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * @ClassName PaymentOutbox
+ * @Description Selects how CREATE_PAYMENT events are delivered ({@code payment.events.delivery}).
+ * In {@code direct} mode the consumers publish the event right after the payment is stored.
+ * In {@code outbox} mode the event is staged in the payment document itself, so it is persisted by
+ * the same single-document write as the payment, and {@link PaymentOutboxRelay} publishes it later.
+ * Consumers that wait for the broker acknowledgement in direct mode use the same marker through {@link #track}
+ * and clear it once the event is acknowledged, so an order found already processed on redelivery
+ * can be told apart from one whose event was never published.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+public class PaymentOutbox {
+
+    public static final String OUTBOX = "outbox";
+
+    private final boolean enabled;
+
+    public PaymentOutbox(@Value("${payment.events.delivery:direct}") String delivery) {
+        this.enabled = OUTBOX.equalsIgnoreCase(delivery);
+    }
+
+    /**
+     * @return {@code true} if events are published by the relay and consumers must not send them
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks the CREATE_PAYMENT event of a payment that is about to be inserted as pending.
+     *
+     * @param payment the payment to insert
+     * @return the same payment
+     */
+    public Payment stage(Payment payment) {
+        if (enabled) {
+            payment.setEventPending(true);
+        }
+        return payment;
+    }
+
+    /**
+     * Marks the CREATE_PAYMENT event of a payment that is about to be inserted as pending in every delivery mode.
+     * In direct mode the caller must clear the marker once the broker has acknowledged the event.
+     *
+     * @param payment the payment to insert
+     * @return the same payment
+     */
+    public Payment track(Payment payment) {
+        payment.setEventPending(true);
+        return payment;
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.innowise.paymentservice.outbox;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * @ClassName PaymentOutboxLease
+ * @Description Elects the single replica that runs the outbox relay.
+ * The lease is one document claimed with an atomic find-and-modify upsert: it is taken when it is free,
+ * expired or already owned by this instance, and every successful claim extends it by {@code lease}.
+ * A claim held by another live instance matches nothing, so the upsert collides on the document ID and fails.
+ * The lease must outlast a relay round and the clock skew between replicas, otherwise two replicas may relay
+ * the same events, which the at-least-once delivery tolerates but should not make routine.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "payment.events.delivery", havingValue = PaymentOutbox.OUTBOX)
+public class PaymentOutboxLease {
+
+    static final String COLLECTION = "payment_outbox_lease";
+    static final String LEASE_ID = "relay";
+
+    private static final String OWNER = "owner";
+    private static final String EXPIRES_AT = "expires_at";
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration duration;
+    private final Clock clock;
+    private final String owner = UUID.randomUUID().toString();
+
+    public PaymentOutboxLease(MongoTemplate mongoTemplate,
+                              @Value("${payment.events.relay.lease:1m}") Duration duration) {
+        this(mongoTemplate, duration, Clock.systemUTC());
+    }
+
+    PaymentOutboxLease(MongoTemplate mongoTemplate, Duration duration, Clock clock) {
+        this.mongoTemplate = mongoTemplate;
+        this.duration = duration;
+        this.clock = clock;
+    }
+
+    /**
+     * @return how long a claim stays valid
+     */
+    public Duration duration() {
+        return duration;
+    }
+
+    /**
+     * Claims or extends the lease.
+     *
+     * @return {@code true} if this instance holds the lease for the next {@link #duration()}
+     */
+    public boolean acquire() {
+        Instant now = clock.instant();
+        Query claimable = Query.query(Criteria.where("_id").is(LEASE_ID)
+                .orOperator(Criteria.where(OWNER).is(owner), Criteria.where(EXPIRES_AT).lte(now)));
+        Update claim = new Update().set(OWNER, owner).set(EXPIRES_AT, now.plus(duration));
+        try {
+            return mongoTemplate.findAndModify(claimable, claim,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, COLLECTION) != null;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Gives the lease up if this instance holds it, so another replica can take over without waiting for expiry.
+     */
+    public void release() {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(LEASE_ID).and(OWNER).is(owner)), COLLECTION);
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.innowise.paymentservice.outbox;
+
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import com.innowise.paymentservice.model.entity.Payment;
+import com.innowise.paymentservice.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @ClassName PaymentOutboxRelay
+ * @Description Drains pending CREATE_PAYMENT events from the payments collection to Kafka.
+ * Each round reads up to {@code batch-size} pending payments oldest first, hands all events to the producer
+ * at once so they share produce requests, waits for the broker acknowledgements and then clears the
+ * marker of every acknowledged payment with one bulk update. Unacknowledged events stay pending and are
+ * retried in the next round, so delivery is at-least-once; events are keyed by payment ID for deduplication.
+ * Only the replica holding the {@link PaymentOutboxLease} relays, the others poll for the lease, so each event
+ * is normally published once however many replicas run.
+ * Active when {@code payment.events.delivery=outbox}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "payment.events.delivery", havingValue = PaymentOutbox.OUTBOX)
+public class PaymentOutboxRelay implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentOutboxRelay.class);
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentOutboxLease lease;
+    private final KafkaTemplate<String, PaymentEvent> kafkaTemplate;
+    private final String createPaymentTopic;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration sendTimeout;
+
+    private volatile Thread worker;
+
+    public PaymentOutboxRelay(PaymentRepository paymentRepository,
+                              PaymentOutboxLease lease,
+                              KafkaTemplate<String, PaymentEvent> kafkaTemplate,
+                              @Value("${spring.kafka.topics.create-payment}") String createPaymentTopic,
+                              @Value("${payment.events.relay.batch-size:500}") int batchSize,
+                              @Value("${payment.events.relay.poll-interval:200ms}") Duration pollInterval,
+                              @Value("${payment.events.relay.send-timeout:30s}") Duration sendTimeout) {
+        if (lease.duration().compareTo(sendTimeout.plus(pollInterval)) <= 0) {
+            throw new IllegalArgumentException("payment.events.relay.lease must exceed send-timeout plus poll-interval");
+        }
+        this.paymentRepository = paymentRepository;
+        this.lease = lease;
+        this.kafkaTemplate = kafkaTemplate;
+        this.createPaymentTopic = createPaymentTopic;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.sendTimeout = sendTimeout;
+    }
+
+    @Override
+    public void start() {
+        worker = Thread.ofVirtual().name("payment-outbox-relay").start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        Thread current = worker;
+        worker = null;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    private void run() {
+        try {
+            while (worker == Thread.currentThread()) {
+                try {
+                    int published = relayOnce();
+                    // a fully published batch means there is a backlog, keep draining without waiting
+                    if (published < batchSize) {
+                        Thread.sleep(pollInterval);
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception ex) {
+                    logger.error("Outbox relay round failed", ex);
+                    sleepQuietly();
+                }
+            }
+        } finally {
+            releaseQuietly();
+        }
+    }
+
+    /**
+     * Publishes one batch of pending events and marks the acknowledged ones as published,
+     * provided this instance holds the relay lease.
+     *
+     * @return the number of events that were published, zero when another replica holds the lease
+     * @throws InterruptedException if interrupted while waiting for acknowledgements
+     */
+    int relayOnce() throws InterruptedException {
+        if (!lease.acquire()) {
+            return 0;
+        }
+        List<Payment> pending = paymentRepository.findPendingEvents(Limit.of(batchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, CompletableFuture<?>> sends = new LinkedHashMap<>();
+        for (Payment payment : pending) {
+            PaymentEvent event = new PaymentEvent(payment.getPaymentId(), payment.getOrderId(), payment.getStatus());
+            sends.put(payment.getPaymentId(), kafkaTemplate.send(createPaymentTopic, event.getPaymentId(), event));
+        }
+        kafkaTemplate.flush();
+
+        List<String> published = new ArrayList<>(sends.size());
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (Map.Entry<String, CompletableFuture<?>> send : sends.entrySet()) {
+            try {
+                send.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                published.add(send.getKey());
+            } catch (ExecutionException | TimeoutException ex) {
+                logger.warn("CREATE_PAYMENT event [paymentId={}] not acknowledged, will retry: {}", send.getKey(), ex.getMessage());
+            }
+        }
+
+        paymentRepository.markEventsPublished(published);
+        logger.info("Relayed {} of {} pending CREATE_PAYMENT events", published.size(), pending.size());
+        return published.size();
+    }
+
+    private void releaseQuietly() {
+        try {
+            lease.release();
+        } catch (Exception ex) {
+            logger.warn("Failed to release the outbox relay lease, it expires in {}: {}", lease.duration(), ex.getMessage());
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollInterval);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -1,12 +1,19 @@
 package com.innowise.paymentservice.producer;
 
+import com.innowise.paymentservice.metrics.PipelineMetrics;
 import com.innowise.paymentservice.model.dto.PaymentEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Kafka producer responsible for publishing {@link PaymentEvent} messages
  * to the CREATE_PAYMENT topic. Used to notify OrderService about payment results.
@@ -22,29 +29,67 @@ public class PaymentProducer {
 
     private final KafkaTemplate<String, PaymentEvent> kafkaTemplate;
     private final String createPaymentTopic;
+    private final PipelineMetrics pipelineMetrics;
+    private final AtomicInteger inFlightSends = new AtomicInteger();
 
     public PaymentProducer(KafkaTemplate<String, PaymentEvent> kafkaTemplate,
-                           @Value("${spring.kafka.topics.create-payment}") String createPaymentTopic) {
+                           @Value("${spring.kafka.topics.create-payment}") String createPaymentTopic,
+                           PipelineMetrics pipelineMetrics,
+                           MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
         this.createPaymentTopic = createPaymentTopic;
+        this.pipelineMetrics = pipelineMetrics;
+        Gauge.builder("payment.producer.in-flight", inFlightSends, AtomicInteger::get)
+                .description("CREATE_PAYMENT events handed to the producer and not yet acknowledged")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the number of CREATE_PAYMENT events sent and not yet acknowledged or failed
+     */
+    public int inFlightSends() {
+        return inFlightSends.get();
     }
 
     public void sendCreatePayment(PaymentEvent event) {
+        sendCreatePayment(event, PipelineMetrics.NO_TIMESTAMP);
+    }
+
+    /**
+     * Publishes the event and, once the broker acknowledges it, records the end-to-end latency
+     * from the CREATE_ORDER record it was produced for.
+     *
+     * @param event           the event to publish
+     * @param sourceTimestamp timestamp of the consumed CREATE_ORDER record, or {@link PipelineMetrics#NO_TIMESTAMP}
+     */
+    public void sendCreatePayment(PaymentEvent event, long sourceTimestamp) {
         if (!isValidEvent(event)) {
             logger.warn("Invalid PaymentEvent: {}", event);
             return;
         }
 
-        kafkaTemplate.send(createPaymentTopic, String.valueOf(event.getPaymentId()), event)
-                .whenComplete((result, ex) -> handleSendResult(event, ex));
+        inFlightSends.incrementAndGet();
+        CompletableFuture<SendResult<String, PaymentEvent>> sent;
+        try {
+            sent = kafkaTemplate.send(createPaymentTopic, String.valueOf(event.getPaymentId()), event);
+        } catch (RuntimeException ex) {
+            // e.g. serialization or metadata timeout, thrown before the record was handed to the producer
+            inFlightSends.decrementAndGet();
+            throw ex;
+        }
+        sent.whenComplete((result, ex) -> {
+            inFlightSends.decrementAndGet();
+            handleSendResult(event, sourceTimestamp, ex);
+        });
     }
 
     private boolean isValidEvent(PaymentEvent event) {
         return event != null && event.getPaymentId() != null && event.getOrderId() != null && event.getStatus() != null;
     }
 
-    private void handleSendResult(PaymentEvent event, Throwable ex) {
+    private void handleSendResult(PaymentEvent event, long sourceTimestamp, Throwable ex) {
         if (ex == null) {
+            pipelineMetrics.recordEndToEnd(sourceTimestamp);
             logger.info("Sent create_payment event [paymentId={}] to topic '{}'",
                     event.getPaymentId(), createPaymentTopic);
         } else {
@@ -0,0 +1,39 @@
+package com.innowise.paymentservice.repository;
+
+import com.innowise.paymentservice.model.PaymentGrouping;
+import com.innowise.paymentservice.model.dto.PaymentTotalDto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Custom repository fragment for reporting queries that are computed
+ * by the MongoDB aggregation pipeline instead of on the application heap.
+ *
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public interface PaymentAggregationRepository {
+
+    /**
+     * Sums the amounts of all payments made within a specific time range.
+     *
+     * @param from start of the time range (inclusive)
+     * @param to   end of the time range (inclusive)
+     * @return total payment amount in the range, {@link BigDecimal#ZERO} if there are none
+     */
+    BigDecimal sumAmountsBetween(Instant from, Instant to);
+
+    /**
+     * Sums and counts the payments made within a specific time range, grouped by the given dimension.
+     *
+     * @param from     start of the time range (inclusive)
+     * @param to       end of the time range (inclusive)
+     * @param grouping the dimension to group by
+     * @return one total per group, ordered by group key
+     */
+    List<PaymentTotalDto> sumAmountsBetween(Instant from, Instant to, PaymentGrouping grouping);
+
+}
@@ -0,0 +1,93 @@
+package com.innowise.paymentservice.repository;
+
+import com.innowise.paymentservice.model.PaymentGrouping;
+import com.innowise.paymentservice.model.dto.PaymentTotalDto;
+import com.innowise.paymentservice.model.entity.Payment;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * MongoTemplate based implementation of {@link PaymentAggregationRepository}.
+ * Amounts are summed with {@code $toDecimal}, so documents that store {@code payment_amount}
+ * as a string and documents that store it as Decimal128 are both added up exactly.
+ *
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@RequiredArgsConstructor
+public class PaymentAggregationRepositoryImpl implements PaymentAggregationRepository {
+
+    private static final String TOTAL = "total";
+    private static final String COUNT = "count";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public BigDecimal sumAmountsBetween(Instant from, Instant to) {
+        List<Document> result = aggregate(from, to, null);
+        return result.isEmpty() ? BigDecimal.ZERO : toBigDecimal(result.getFirst().get(TOTAL));
+    }
+
+    @Override
+    public List<PaymentTotalDto> sumAmountsBetween(Instant from, Instant to, PaymentGrouping grouping) {
+        return aggregate(from, to, groupKey(grouping))
+                .stream()
+                .map(document -> PaymentTotalDto.builder()
+                        .key(toKey(document.get("_id")))
+                        .total(toBigDecimal(document.get(TOTAL)))
+                        .count(document.get(COUNT, Number.class).longValue())
+                        .build())
+                .toList();
+    }
+
+    private List<Document> aggregate(Instant from, Instant to, Object groupKey) {
+        AggregationOperation group = context -> new Document("$group", new Document("_id", groupKey)
+                .append(TOTAL, new Document("$sum", new Document("$toDecimal", "$payment_amount")))
+                .append(COUNT, new Document("$sum", 1)));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("timestamp").gte(from).lte(to)),
+                group,
+                Aggregation.sort(Sort.Direction.ASC, "_id"));
+
+        return mongoTemplate.aggregate(aggregation, Payment.class, Document.class).getMappedResults();
+    }
+
+    private static Object groupKey(PaymentGrouping grouping) {
+        return switch (grouping) {
+            case STATUS -> "$status";
+            case USER -> "$user_id";
+            case HOUR, DAY, MONTH -> new Document("$dateTrunc", new Document("date", "$timestamp")
+                    .append("unit", grouping.name().toLowerCase(Locale.ROOT))
+                    .append("timezone", "UTC"));
+        };
+    }
+
+    private static String toKey(Object id) {
+        if (id instanceof Date date) {
+            return date.toInstant().toString();
+        }
+        return id == null ? null : id.toString();
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        return value == null ? BigDecimal.ZERO : new BigDecimal(value.toString());
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.innowise.paymentservice.repository;
+
+import com.innowise.paymentservice.model.entity.Payment;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom repository fragment for bulk write operations on Payment documents
+ * that are not covered by derived query methods.
+ *
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public interface PaymentBulkRepository {
+
+    /**
+     * Inserts all payments with a single unordered bulk write.
+     * Documents rejected with a duplicate-key error are skipped, the rest are still persisted.
+     *
+     * @param payments the payments to insert
+     * @return the payments that were actually inserted, in input order
+     */
+    List<Payment> insertAllUnordered(List<Payment> payments);
+
+    /**
+     * Clears the outbox marker of the given payments with a single multi-document update.
+     *
+     * @param paymentIds the payments whose CREATE_PAYMENT event has been published
+     * @return the number of payments updated
+     */
+    long markEventsPublished(Collection<String> paymentIds);
+
+}
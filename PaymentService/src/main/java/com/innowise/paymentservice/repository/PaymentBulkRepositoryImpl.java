@@ -0,0 +1,77 @@
+package com.innowise.paymentservice.repository;
+
+import com.innowise.paymentservice.model.entity.Payment;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * MongoTemplate based implementation of {@link PaymentBulkRepository}.
+ *
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@RequiredArgsConstructor
+public class PaymentBulkRepositoryImpl implements PaymentBulkRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Payment> insertAllUnordered(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return List.of();
+        }
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)
+                    .insert(payments)
+                    .execute();
+            return payments;
+        } catch (BulkOperationException ex) {
+            return withoutDuplicates(payments, ex);
+        }
+    }
+
+    @Override
+    public long markEventsPublished(Collection<String> paymentIds) {
+        if (paymentIds.isEmpty()) {
+            return 0;
+        }
+
+        return mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(paymentIds)),
+                        new Update().unset("event_pending"), Payment.class)
+                .getModifiedCount();
+    }
+
+    private List<Payment> withoutDuplicates(List<Payment> payments, BulkOperationException ex) {
+        Set<Integer> rejected = new HashSet<>();
+        for (BulkWriteError error : ex.getErrors()) {
+            if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                throw ex;
+            }
+            rejected.add(error.getIndex());
+        }
+
+        List<Payment> inserted = new ArrayList<>(payments.size() - rejected.size());
+        for (int i = 0; i < payments.size(); i++) {
+            if (!rejected.contains(i)) {
+                inserted.add(payments.get(i));
+            }
+        }
+        return inserted;
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.innowise.paymentservice.repository;
+
+import com.innowise.paymentservice.model.PaymentCursor;
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.entity.Payment;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom repository fragment for keyset pagination of Payment documents.
+ * Pages are ordered by timestamp and payment ID, newest first, and each page is read with an index seek
+ * past the given cursor, so the cost does not grow with the page number.
+ *
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public interface PaymentKeysetRepository {
+
+    /**
+     * Retrieves the next page of payments made by a specific user.
+     *
+     * @param userId the user ID to filter by
+     * @param after  the position of the last payment of the previous page, {@code null} for the first page
+     * @param limit  the maximum number of payments to return
+     * @return payments following the cursor
+     */
+    List<Payment> findPageByUserId(Long userId, PaymentCursor after, int limit);
+
+    /**
+     * Retrieves the next page of payments whose status matches any of the provided values.
+     *
+     * @param statuses the status values to filter by
+     * @param after    the position of the last payment of the previous page, {@code null} for the first page
+     * @param limit    the maximum number of payments to return
+     * @return payments following the cursor
+     */
+    List<Payment> findPageByStatusIn(Collection<PaymentStatus> statuses, PaymentCursor after, int limit);
+
+}
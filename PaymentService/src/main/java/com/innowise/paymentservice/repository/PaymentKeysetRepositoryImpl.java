@@ -0,0 +1,51 @@
+package com.innowise.paymentservice.repository;
+
+import com.innowise.paymentservice.model.PaymentCursor;
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.entity.Payment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * MongoTemplate based implementation of {@link PaymentKeysetRepository}.
+ *
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@RequiredArgsConstructor
+public class PaymentKeysetRepositoryImpl implements PaymentKeysetRepository {
+
+    private static final String TIMESTAMP = "timestamp";
+    private static final String ID = "_id";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Payment> findPageByUserId(Long userId, PaymentCursor after, int limit) {
+        return findPage(Criteria.where("user_id").is(userId), after, limit);
+    }
+
+    @Override
+    public List<Payment> findPageByStatusIn(Collection<PaymentStatus> statuses, PaymentCursor after, int limit) {
+        return findPage(Criteria.where("status").in(statuses), after, limit);
+    }
+
+    private List<Payment> findPage(Criteria filter, PaymentCursor after, int limit) {
+        Criteria criteria = after == null ? filter : new Criteria().andOperator(filter, new Criteria().orOperator(
+                Criteria.where(TIMESTAMP).lt(after.timestamp()),
+                Criteria.where(TIMESTAMP).is(after.timestamp()).and(ID).lt(after.paymentId())));
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, TIMESTAMP, ID))
+                .limit(limit);
+        return mongoTemplate.find(query, Payment.class);
+    }
+
+}
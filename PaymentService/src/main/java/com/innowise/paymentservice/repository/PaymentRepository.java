@@ -2,12 +2,15 @@ package com.innowise.paymentservice.repository;
 
 import com.innowise.paymentservice.model.PaymentStatus;
 import com.innowise.paymentservice.model.entity.Payment;
-import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for accessing and managing Payment documents in MongoDB.
@@ -17,7 +20,10 @@ import java.util.List;
  * @Date 05.11.2025
  * @Version 1.0
  */
-public interface PaymentRepository extends MongoRepository<Payment, ObjectId> {
+public interface PaymentRepository extends MongoRepository<Payment, String>, PaymentBulkRepository, PaymentAggregationRepository,
+        PaymentKeysetRepository {
+
+    int STREAM_BATCH_SIZE = 500;
 
     /**
      * Saves a Payment entity to the database.
@@ -27,14 +33,6 @@ public interface PaymentRepository extends MongoRepository<Payment, ObjectId> {
      */
     Payment save(Payment entity);
 
-    /**
-     * Retrieves all payments associated with a specific order ID.
-     *
-     * @param orderId the order ID to filter by
-     * @return list of matching payments
-     */
-    List<Payment> findByOrderId(Long orderId);
-
     /**
      * Retrieves all payments made by a specific user.
      *
@@ -51,6 +49,26 @@ public interface PaymentRepository extends MongoRepository<Payment, ObjectId> {
      */
     List<Payment> findByStatusIn(List<PaymentStatus> statuses);
 
+    /**
+     * Streams all payments made by a specific user, newest first, from a MongoDB cursor.
+     * The stream must be closed to release the cursor.
+     *
+     * @param userId the user ID to filter by
+     * @return lazily fetched stream of matching payments
+     */
+    @Meta(cursorBatchSize = STREAM_BATCH_SIZE)
+    Stream<Payment> streamByUserIdOrderByTimestampDescPaymentIdDesc(Long userId);
+
+    /**
+     * Streams all payments whose status matches any of the provided values, newest first, from a MongoDB cursor.
+     * The stream must be closed to release the cursor.
+     *
+     * @param statuses status values to filter by
+     * @return lazily fetched stream of matching payments
+     */
+    @Meta(cursorBatchSize = STREAM_BATCH_SIZE)
+    Stream<Payment> streamByStatusInOrderByTimestampDescPaymentIdDesc(Collection<PaymentStatus> statuses);
+
     /**
      * Retrieves all payments made within a specific time range.
      *
@@ -72,12 +90,33 @@ public interface PaymentRepository extends MongoRepository<Payment, ObjectId> {
     List<Payment> findAmountsByTimestampBetween(Instant from, Instant to);
 
     /**
-     * Checks whether a record with the specified order ID exists.
+     * Retrieves the payments whose payment ID is contained in the given collection,
+     * using a single {@code $in} query on {@code _id}. Only the order ID field is populated.
      *
+     * @param paymentIds the payment IDs to look up
+     * @return payments with only the orderId field populated
+     */
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'order_id': 1 }")
+    List<Payment> findOrderIdsByPaymentIdIn(Collection<String> paymentIds);
+
+    /**
+     * Retrieves the oldest payments whose CREATE_PAYMENT event is still pending in the outbox.
+     * Only the fields of the event are populated.
+     *
+     * @param limit the maximum number of payments to return
+     * @return pending payments, oldest first
+     */
+    @Query(value = "{ 'event_pending': true }", fields = "{ 'order_id': 1, 'status': 1 }", sort = "{ 'timestamp': 1 }")
+    List<Payment> findPendingEvents(Limit limit);
+
+    /**
+     * Retrieves the payments among the given IDs whose CREATE_PAYMENT event is still marked unsent.
+     * Only the fields of the event are populated.
      *
-     * @param orderId the ID of the order to check; must not be {@code null}
-     * @return {@code true} if an entity with the given order ID exists; {@code false} otherwise
+     * @param paymentIds the payment IDs to look up
+     * @return payments with a pending event
      */
-    boolean existsByOrderId(Long orderId);
+    @Query(value = "{ '_id': { $in: ?0 }, 'event_pending': true }", fields = "{ 'order_id': 1, 'status': 1 }")
+    List<Payment> findPendingEventsByPaymentIdIn(Collection<String> paymentIds);
 
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.innowise.paymentservice.repository;
+
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.entity.Payment;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.mongodb.repository.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Non-blocking counterpart of {@link PaymentRepository}, used by the reactive processing pipeline.
+ *
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public interface ReactivePaymentRepository extends ReactiveMongoRepository<Payment, String> {
+
+    /**
+     * Emits all payments made by a specific user, newest first, as they are read from the cursor.
+     *
+     * @param userId the user ID to filter by
+     * @return Flux of matching payments
+     */
+    @Meta(cursorBatchSize = PaymentRepository.STREAM_BATCH_SIZE)
+    Flux<Payment> findByUserIdOrderByTimestampDescPaymentIdDesc(Long userId);
+
+    /**
+     * Emits all payments whose status matches any of the provided values, newest first, as they are read from the cursor.
+     *
+     * @param statuses status values to filter by
+     * @return Flux of matching payments
+     */
+    @Meta(cursorBatchSize = PaymentRepository.STREAM_BATCH_SIZE)
+    Flux<Payment> findByStatusInOrderByTimestampDescPaymentIdDesc(Collection<PaymentStatus> statuses);
+
+    /**
+     * Emits all payments made within a specific time range, oldest first, as they are read from the cursor.
+     *
+     * @param from start of the time range (inclusive)
+     * @param to   end of the time range (inclusive)
+     * @return Flux of matching payments
+     */
+    @Meta(cursorBatchSize = PaymentRepository.STREAM_BATCH_SIZE)
+    @Query(value = "{ 'timestamp': { $gte: ?0, $lte: ?1 } }", sort = "{ 'timestamp': 1, '_id': 1 }")
+    Flux<Payment> findByTimestampBetween(Instant from, Instant to);
+
+    /**
+     * Emits the payment if its CREATE_PAYMENT event is still pending, with only the fields of the event populated.
+     *
+     * @param paymentId the payment ID to look up
+     * @return Mono emitting the pending payment, empty if there is none or its event was published
+     */
+    @Query(value = "{ '_id': ?0, 'event_pending': true }", fields = "{ 'order_id': 1, 'status': 1 }")
+    Mono<Payment> findPendingEvent(String paymentId);
+
+    /**
+     * Clears the pending-event marker of a payment.
+     *
+     * @param paymentId the payment whose event was published
+     * @return Mono emitting the number of modified documents
+     */
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$unset': { 'event_pending': '' } }")
+    Mono<Long> clearEventPending(String paymentId);
+
+}
@@ -0,0 +1,129 @@
+package com.innowise.paymentservice.rollup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @ClassName PaymentRollupReconciler
+ * @Description Repairs the rollups of payments whose increment failed or was interrupted.
+ * Each round takes the payments still carrying the rollup marker whose minute closed at least {@code grace} ago,
+ * marks their hour and day stale, rebuilds their minutes from the raw payments and removes the markers.
+ * Stale hours and days that have closed and hold no marked payments or stale hours are then rebuilt
+ * from their minutes and hours. Every step replaces buckets with values recomputed from their source,
+ * so an interrupted round is simply repeated and rounds running in several replicas do not conflict.
+ * Active unless {@code payment.rollup.enabled=false}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+@ConditionalOnProperty(name = "payment.rollup.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentRollupReconciler implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentRollupReconciler.class);
+
+    private final PaymentRollupStore paymentRollupStore;
+    private final int batchSize;
+    private final Duration interval;
+    private final Duration grace;
+
+    private volatile Thread worker;
+
+    public PaymentRollupReconciler(PaymentRollupStore paymentRollupStore,
+                                   @Value("${payment.rollup.reconcile.batch-size:1000}") int batchSize,
+                                   @Value("${payment.rollup.reconcile.interval:30s}") Duration interval,
+                                   @Value("${payment.rollup.reconcile.grace:1m}") Duration grace) {
+        this.paymentRollupStore = paymentRollupStore;
+        this.batchSize = batchSize;
+        this.interval = interval;
+        this.grace = grace;
+    }
+
+    @Override
+    public void start() {
+        worker = Thread.ofVirtual().name("payment-rollup-reconciler").start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        Thread current = worker;
+        worker = null;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    private void run() {
+        while (worker == Thread.currentThread()) {
+            try {
+                reconcileOnce(Instant.now());
+                Thread.sleep(interval);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                logger.error("Rollup reconciliation round failed", ex);
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the minutes of one batch of marked payments and the stale hours and days that can be rebuilt.
+     *
+     * @param now the current time
+     * @return the number of minutes that were rebuilt
+     */
+    int reconcileOnce(Instant now) {
+        Instant closedBy = now.minus(grace);
+
+        Map<Instant, List<String>> pending =
+                paymentRollupStore.findPendingByMinute(RollupGranularity.MINUTE.floor(closedBy), batchSize);
+        pending.forEach((minute, paymentIds) -> {
+            paymentRollupStore.markStale(RollupGranularity.HOUR, RollupGranularity.HOUR.floor(minute));
+            paymentRollupStore.markStale(RollupGranularity.DAY, RollupGranularity.DAY.floor(minute));
+            paymentRollupStore.rebuild(RollupGranularity.MINUTE, minute);
+            paymentRollupStore.clearPending(paymentIds);
+        });
+
+        for (RollupGranularity granularity : List.of(RollupGranularity.HOUR, RollupGranularity.DAY)) {
+            for (Instant bucket : paymentRollupStore.findStale(granularity, closedBy)) {
+                Instant end = granularity.next(bucket);
+                if (paymentRollupStore.hasPending(bucket, end)
+                        || granularity == RollupGranularity.DAY
+                        && paymentRollupStore.hasStale(RollupGranularity.HOUR, bucket, end)) {
+                    continue;
+                }
+                paymentRollupStore.rebuild(granularity, bucket);
+                paymentRollupStore.clearStale(granularity, bucket);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            logger.info("Rebuilt payment rollups of {} minutes", pending.size());
+        }
+        return pending.size();
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(interval);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,366 @@
+package com.innowise.paymentservice.rollup;
+
+import com.innowise.paymentservice.model.dto.PaymentTotalDto;
+import com.innowise.paymentservice.model.entity.Payment;
+import com.innowise.paymentservice.model.entity.PaymentRollup;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * @ClassName PaymentRollupStore
+ * @Description Maintains and reads the per-status minute/hour/day rollups of the payments collection.
+ * Every persisted payment is added to its three buckets with an atomic {@code $inc} upsert.
+ * The increment cannot be atomic with the insert, so payments are inserted with a rollup marker that is
+ * removed once the increment succeeded; {@link PaymentRollupReconciler} rebuilds the buckets of payments
+ * whose marker stayed, and marks their hour and day stale until those are rebuilt from the finer buckets.
+ * Range totals are answered from whole buckets, only the sub-minute edges of the range, and the minutes still
+ * holding marked payments, are aggregated from raw payments, and stale hours and days are read as finer buckets.
+ * The cost thus depends on the number of buckets rather than the number of payments.
+ * When disabled, nothing is recorded and totals are aggregated from raw payments only.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Component
+public class PaymentRollupStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentRollupStore.class);
+
+    static final String PENDING = "rollup_pending";
+    static final String STALE_COLLECTION = "payment_rollup_stale";
+
+    private static final String TOTAL = "total";
+    private static final String COUNT = "count";
+    private static final String TIMESTAMP = "timestamp";
+    private static final String GRANULARITY = "granularity";
+    private static final String BUCKET = "bucket";
+
+    private final MongoTemplate mongoTemplate;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final boolean enabled;
+
+    public PaymentRollupStore(MongoTemplate mongoTemplate,
+                              ReactiveMongoTemplate reactiveMongoTemplate,
+                              @Value("${payment.rollup.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Marks a payment that is about to be inserted as not yet added to the rollups.
+     *
+     * @param payment the payment to insert
+     * @return the same payment
+     */
+    public Payment markPending(Payment payment) {
+        if (enabled) {
+            payment.setRollupPending(true);
+        }
+        return payment;
+    }
+
+    /**
+     * Adds the given persisted payments to their rollup buckets with a single bulk write and then removes
+     * their rollup marker. A failed write is logged and leaves the marker to the reconciler.
+     *
+     * @param payments the payments that were just inserted
+     */
+    public void record(Collection<Payment> payments) {
+        Collection<Increment> increments = increments(payments);
+        if (increments.isEmpty()) {
+            return;
+        }
+
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PaymentRollup.class);
+            increments.forEach(increment -> bulk.upsert(increment.query(), increment.update()));
+            bulk.execute();
+            clearPending(payments.stream().map(Payment::getPaymentId).toList());
+        } catch (DataAccessException ex) {
+            logger.warn("Failed to update payment rollups for {} payments: {}", payments.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #record(Collection)} for a single payment.
+     *
+     * @param payment the payment that was just inserted
+     * @return completes once the rollups are updated or the failure has been logged
+     */
+    public Mono<Void> recordReactive(Payment payment) {
+        Collection<Increment> increments = increments(List.of(payment));
+        if (increments.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return Mono.defer(() -> {
+                    var bulk = reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PaymentRollup.class);
+                    increments.forEach(increment -> bulk.upsert(increment.query(), increment.update()));
+                    return bulk.execute();
+                })
+                .then(Mono.defer(() -> reactiveMongoTemplate.updateFirst(
+                        Query.query(Criteria.where("_id").is(payment.getPaymentId())), new Update().unset(PENDING),
+                        Payment.class)))
+                .onErrorResume(DataAccessException.class, ex -> {
+                    logger.warn("Failed to update payment rollups for payment {}: {}", payment.getPaymentId(), ex.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Sums and counts the payments made within a specific time range per status.
+     *
+     * @param from start of the time range (inclusive)
+     * @param to   end of the time range (inclusive)
+     * @return one total per status that has payments in the range, ordered by status
+     */
+    public List<PaymentTotalDto> totalsByStatusBetween(Instant from, Instant to) {
+        // MongoDB stores dates with millisecond precision, the inclusive end becomes the next millisecond
+        Instant start = from.truncatedTo(ChronoUnit.MILLIS);
+        Instant end = to.truncatedTo(ChronoUnit.MILLIS).plusMillis(1);
+        RollupPlan plan = enabled
+                ? RollupPlan.of(start, end, untrustedBuckets(start, end))
+                : new RollupPlan(List.of(), List.of(new RollupPlan.Segment(null, start, end)));
+
+        Map<String, PaymentTotalDto> totals = new TreeMap<>();
+        if (!plan.rollupSegments().isEmpty()) {
+            merge(totals, aggregate(PaymentRollup.class, plan.rollupSegments(),
+                    segment -> Criteria.where("granularity").is(segment.granularity().name())
+                            .and("bucket").gte(segment.from()).lt(segment.to()),
+                    new Document("$sum", "$" + TOTAL), new Document("$sum", "$" + COUNT)));
+        }
+        if (!plan.rawSegments().isEmpty()) {
+            merge(totals, aggregate(Payment.class, plan.rawSegments(),
+                    segment -> Criteria.where("timestamp").gte(segment.from()).lt(segment.to()),
+                    new Document("$sum", new Document("$toDecimal", "$payment_amount")), new Document("$sum", 1)));
+        }
+        return List.copyOf(totals.values());
+    }
+
+    /**
+     * Returns the minutes that hold payments not yet added to the rollups, and the stale hours and days.
+     */
+    private List<RollupPlan.Segment> untrustedBuckets(Instant start, Instant end) {
+        List<RollupPlan.Segment> untrusted = new ArrayList<>();
+
+        AggregationOperation groupByMinute = context -> new Document("$group", new Document("_id",
+                new Document("$dateTrunc", new Document("date", "$" + TIMESTAMP).append("unit", "minute").append("timezone", "UTC"))));
+        Aggregation pendingMinutes = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(PENDING).is(true).and(TIMESTAMP).gte(start).lt(end)), groupByMinute);
+        for (Document minute : mongoTemplate.aggregate(pendingMinutes, Payment.class, Document.class).getMappedResults()) {
+            Instant bucket = minute.getDate("_id").toInstant();
+            untrusted.add(new RollupPlan.Segment(RollupGranularity.MINUTE, bucket, RollupGranularity.MINUTE.next(bucket)));
+        }
+
+        Query stale = Query.query(Criteria.where(BUCKET).gte(RollupGranularity.DAY.floor(start)).lt(end));
+        for (Document marker : mongoTemplate.find(stale, Document.class, STALE_COLLECTION)) {
+            RollupGranularity granularity = RollupGranularity.valueOf(marker.getString(GRANULARITY));
+            Instant bucket = marker.getDate(BUCKET).toInstant();
+            untrusted.add(new RollupPlan.Segment(granularity, bucket, granularity.next(bucket)));
+        }
+        return untrusted;
+    }
+
+    /**
+     * Groups the payments that are still marked and were made before the given instant by minute, oldest first.
+     *
+     * @return payment IDs per minute bucket, at most {@code limit} payments in total
+     */
+    Map<Instant, List<String>> findPendingByMinute(Instant before, int limit) {
+        Query query = Query.query(Criteria.where(PENDING).is(true).and(TIMESTAMP).lt(before))
+                .with(Sort.by(TIMESTAMP))
+                .limit(limit);
+        query.fields().include(TIMESTAMP);
+
+        Map<Instant, List<String>> byMinute = new LinkedHashMap<>();
+        for (Payment payment : mongoTemplate.find(query, Payment.class)) {
+            byMinute.computeIfAbsent(RollupGranularity.MINUTE.floor(payment.getTimestamp()), minute -> new ArrayList<>())
+                    .add(payment.getPaymentId());
+        }
+        return byMinute;
+    }
+
+    boolean hasPending(Instant from, Instant to) {
+        return mongoTemplate.exists(Query.query(Criteria.where(PENDING).is(true).and(TIMESTAMP).gte(from).lt(to)),
+                Payment.class);
+    }
+
+    void clearPending(Collection<String> paymentIds) {
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(paymentIds)), new Update().unset(PENDING),
+                Payment.class);
+    }
+
+    /**
+     * Marks an hour or day bucket as stale, so that it is not read until it is rebuilt from the finer buckets.
+     */
+    void markStale(RollupGranularity granularity, Instant bucket) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(staleId(granularity, bucket))),
+                new Update().setOnInsert(GRANULARITY, granularity.name()).setOnInsert(BUCKET, bucket),
+                STALE_COLLECTION);
+    }
+
+    /**
+     * @return stale buckets of the given granularity that ended at or before the given instant, oldest first
+     */
+    List<Instant> findStale(RollupGranularity granularity, Instant endedBy) {
+        Query query = Query.query(Criteria.where(GRANULARITY).is(granularity.name())
+                        .and(BUCKET).lt(granularity.floor(endedBy)))
+                .with(Sort.by(BUCKET));
+        return mongoTemplate.find(query, Document.class, STALE_COLLECTION).stream()
+                .map(marker -> marker.getDate(BUCKET).toInstant())
+                .toList();
+    }
+
+    boolean hasStale(RollupGranularity granularity, Instant from, Instant to) {
+        return mongoTemplate.exists(Query.query(Criteria.where(GRANULARITY).is(granularity.name())
+                .and(BUCKET).gte(from).lt(to)), STALE_COLLECTION);
+    }
+
+    void clearStale(RollupGranularity granularity, Instant bucket) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(staleId(granularity, bucket))), STALE_COLLECTION);
+    }
+
+    /**
+     * Replaces the rollups of one bucket with totals recomputed from the raw payments for a minute,
+     * or from the minute or hour rollups for an hour or day. The bucket must be closed, otherwise the
+     * replacement could overwrite a concurrent increment.
+     */
+    void rebuild(RollupGranularity granularity, Instant bucket) {
+        RollupPlan.Segment segment = new RollupPlan.Segment(granularity, bucket, granularity.next(bucket));
+        List<Document> groups = switch (granularity) {
+            case MINUTE -> aggregate(Payment.class, List.of(segment),
+                    raw -> Criteria.where(TIMESTAMP).gte(raw.from()).lt(raw.to()),
+                    new Document("$sum", new Document("$toDecimal", "$payment_amount")), new Document("$sum", 1));
+            case HOUR, DAY -> aggregate(PaymentRollup.class, List.of(segment),
+                    whole -> Criteria.where(GRANULARITY).is(granularity == RollupGranularity.DAY
+                                    ? RollupGranularity.HOUR.name() : RollupGranularity.MINUTE.name())
+                            .and(BUCKET).gte(whole.from()).lt(whole.to()),
+                    new Document("$sum", "$" + TOTAL), new Document("$sum", "$" + COUNT));
+        };
+        Map<String, PaymentTotalDto> totals = new TreeMap<>();
+        merge(totals, groups);
+
+        Query existing = Query.query(Criteria.where(GRANULARITY).is(granularity.name()).and(BUCKET).is(bucket));
+        for (PaymentRollup rollup : mongoTemplate.find(existing, PaymentRollup.class)) {
+            totals.putIfAbsent(rollup.getStatus().name(), new PaymentTotalDto(rollup.getStatus().name(), BigDecimal.ZERO, 0));
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PaymentRollup.class);
+        for (PaymentTotalDto total : totals.values()) {
+            String id = granularity.rollupId(total.getKey(), bucket);
+            bulk.upsert(Query.query(Criteria.where("_id").is(id)), new Update()
+                    .setOnInsert(GRANULARITY, granularity.name())
+                    .setOnInsert("status", total.getKey())
+                    .setOnInsert(BUCKET, bucket)
+                    .set(TOTAL, new Decimal128(total.getTotal()))
+                    .set(COUNT, total.getCount()));
+        }
+        if (!totals.isEmpty()) {
+            bulk.execute();
+        }
+    }
+
+    private static String staleId(RollupGranularity granularity, Instant bucket) {
+        return granularity.name() + ":" + bucket.toEpochMilli();
+    }
+
+    private List<Document> aggregate(Class<?> collection, List<RollupPlan.Segment> segments,
+                                     Function<RollupPlan.Segment, Criteria> segmentCriteria,
+                                     Document total, Document count) {
+        Criteria match = new Criteria().orOperator(segments.stream().map(segmentCriteria).toList());
+        AggregationOperation group = context -> new Document("$group", new Document("_id", "$status")
+                .append(TOTAL, total)
+                .append(COUNT, count));
+
+        return mongoTemplate.aggregate(Aggregation.newAggregation(Aggregation.match(match), group), collection, Document.class)
+                .getMappedResults();
+    }
+
+    private static void merge(Map<String, PaymentTotalDto> totals, List<Document> groups) {
+        for (Document group : groups) {
+            String status = String.valueOf(group.get("_id"));
+            BigDecimal total = toBigDecimal(group.get(TOTAL));
+            long count = group.get(COUNT, Number.class).longValue();
+            totals.merge(status, new PaymentTotalDto(status, total, count), (left, right) ->
+                    new PaymentTotalDto(status, left.getTotal().add(right.getTotal()), left.getCount() + right.getCount()));
+        }
+    }
+
+    private Collection<Increment> increments(Collection<Payment> payments) {
+        if (!enabled) {
+            return List.of();
+        }
+
+        Map<String, Increment> increments = new LinkedHashMap<>();
+        for (Payment payment : payments) {
+            if (payment.getStatus() == null || payment.getTimestamp() == null) {
+                continue;
+            }
+            BigDecimal amount = payment.getPaymentAmount() == null ? BigDecimal.ZERO : payment.getPaymentAmount();
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                Instant bucket = granularity.floor(payment.getTimestamp());
+                String id = granularity.rollupId(payment.getStatus().name(), bucket);
+                increments.merge(id, new Increment(id, granularity, payment.getStatus().name(), bucket, amount, 1),
+                        Increment::plus);
+            }
+        }
+        return increments.values();
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        return value == null ? BigDecimal.ZERO : new BigDecimal(value.toString());
+    }
+
+    private record Increment(String id, RollupGranularity granularity, String status, Instant bucket,
+                             BigDecimal total, long count) {
+
+        Increment plus(Increment other) {
+            return new Increment(id, granularity, status, bucket, total.add(other.total), count + other.count);
+        }
+
+        Query query() {
+            return Query.query(Criteria.where("_id").is(id));
+        }
+
+        Update update() {
+            return new Update()
+                    .setOnInsert("granularity", granularity.name())
+                    .setOnInsert("status", status)
+                    .setOnInsert("bucket", bucket)
+                    .inc(TOTAL, new Decimal128(total))
+                    .inc(COUNT, count);
+        }
+    }
+
+}
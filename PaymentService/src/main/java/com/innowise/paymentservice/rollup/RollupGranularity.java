@@ -0,0 +1,52 @@
+package com.innowise.paymentservice.rollup;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * @ClassName RollupGranularity
+ * @Description Width of a payment rollup bucket. Buckets are aligned to UTC.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * @return start of the bucket containing the given instant
+     */
+    public Instant floor(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    /**
+     * @return start of the first bucket that begins at or after the given instant
+     */
+    public Instant ceil(Instant instant) {
+        Instant floor = floor(instant);
+        return floor.equals(instant) ? floor : floor.plus(1, unit);
+    }
+
+    /**
+     * @return start of the bucket following the one containing the given instant
+     */
+    public Instant next(Instant instant) {
+        return floor(instant).plus(1, unit);
+    }
+
+    /**
+     * @return identifier of the rollup document for the given status and bucket start
+     */
+    public String rollupId(String status, Instant bucket) {
+        return name() + ":" + status + ":" + bucket.toEpochMilli();
+    }
+}
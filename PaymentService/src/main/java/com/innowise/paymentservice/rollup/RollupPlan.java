@@ -0,0 +1,91 @@
+package com.innowise.paymentservice.rollup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @ClassName RollupPlan
+ * @Description Splits a half-open time range into whole rollup buckets, coarsest first,
+ * and the sub-minute edges that are not covered by any bucket and have to be read from raw payments.
+ * Buckets overlapping an exclusion are replaced by finer buckets or, below minutes, by raw payments.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+record RollupPlan(List<Segment> rollupSegments, List<Segment> rawSegments) {
+
+    private static final RollupGranularity[] COARSEST_FIRST =
+            {RollupGranularity.DAY, RollupGranularity.HOUR, RollupGranularity.MINUTE};
+
+    /**
+     * A half-open range {@code [from, to)}, covered by buckets of the given granularity
+     * or by raw payments when the granularity is {@code null}.
+     */
+    record Segment(RollupGranularity granularity, Instant from, Instant to) {
+    }
+
+    static RollupPlan of(Instant from, Instant toExclusive) {
+        return of(from, toExclusive, List.of());
+    }
+
+    /**
+     * @param exclusions ranges whose buckets of the segment granularity or coarser must not be used,
+     *                   e.g. a minute with payments not yet added to the rollups or an hour awaiting its rebuild
+     */
+    static RollupPlan of(Instant from, Instant toExclusive, List<Segment> exclusions) {
+        RollupPlan plan = new RollupPlan(new ArrayList<>(), new ArrayList<>());
+        plan.split(from, toExclusive, 0, exclusions);
+        return plan;
+    }
+
+    private void split(Instant from, Instant to, int level, List<Segment> exclusions) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        if (level == COARSEST_FIRST.length) {
+            rawSegments.add(new Segment(null, from, to));
+            return;
+        }
+
+        RollupGranularity granularity = COARSEST_FIRST[level];
+        Instant firstBucket = granularity.ceil(from);
+        Instant lastBucketEnd = granularity.floor(to);
+        if (!firstBucket.isBefore(lastBucketEnd)) {
+            split(from, to, level + 1, exclusions);
+            return;
+        }
+
+        Instant runStart = firstBucket;
+        if (!exclusions.isEmpty()) {
+            for (Instant bucket = firstBucket; bucket.isBefore(lastBucketEnd); bucket = granularity.next(bucket)) {
+                Instant bucketEnd = granularity.next(bucket);
+                if (isExcluded(granularity, bucket, bucketEnd, exclusions)) {
+                    addRollupSegment(granularity, runStart, bucket);
+                    split(bucket, bucketEnd, level + 1, exclusions);
+                    runStart = bucketEnd;
+                }
+            }
+        }
+        addRollupSegment(granularity, runStart, lastBucketEnd);
+        split(from, firstBucket, level + 1, exclusions);
+        split(lastBucketEnd, to, level + 1, exclusions);
+    }
+
+    private void addRollupSegment(RollupGranularity granularity, Instant from, Instant to) {
+        if (from.isBefore(to)) {
+            rollupSegments.add(new Segment(granularity, from, to));
+        }
+    }
+
+    private static boolean isExcluded(RollupGranularity granularity, Instant bucket, Instant bucketEnd,
+                                      List<Segment> exclusions) {
+        for (Segment exclusion : exclusions) {
+            if (granularity.compareTo(exclusion.granularity()) >= 0
+                    && exclusion.from().isBefore(bucketEnd) && bucket.isBefore(exclusion.to())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
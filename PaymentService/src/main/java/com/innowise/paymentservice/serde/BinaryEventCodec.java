@@ -0,0 +1,111 @@
+package com.innowise.paymentservice.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * @ClassName BinaryEventCodec
+ * @Description Base of the compact binary event formats. A payload starts with a schema version byte and a
+ * presence byte with one bit per field; absent fields are not written. Integers are zig-zag varints, so the
+ * small IDs used in practice take one to three bytes instead of eight.
+ * Decoding rejects versions it does not know, so a new layout must get a new version number.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public abstract class BinaryEventCodec<T> {
+
+    static final int MAX_VARINT_BYTES = 10;
+
+    private final String eventName;
+    private final byte version;
+
+    protected BinaryEventCodec(String eventName, int version) {
+        this.eventName = eventName;
+        this.version = (byte) version;
+    }
+
+    /**
+     * @param event the event to encode, not {@code null}
+     * @return the binary payload
+     */
+    public byte[] encode(T event) {
+        ByteBuffer buffer = ByteBuffer.allocate(2 + maxBodySize(event));
+        buffer.put(version);
+        buffer.put((byte) 0);
+        int presence = writeBody(event, buffer);
+        buffer.put(1, (byte) presence);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * @param data the binary payload
+     * @return the decoded event
+     * @throws SerializationException if the payload has an unknown version or is truncated
+     */
+    public T decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try {
+            byte actual = buffer.get();
+            if (actual != version) {
+                throw new SerializationException("Unsupported " + eventName + " binary version: " + actual);
+            }
+            int presence = buffer.get() & 0xFF;
+            return readBody(presence, buffer);
+        } catch (BufferUnderflowException ex) {
+            throw new SerializationException("Truncated " + eventName + " binary payload", ex);
+        }
+    }
+
+    protected abstract int maxBodySize(T event);
+
+    /**
+     * @return the presence bits of the written fields
+     */
+    protected abstract int writeBody(T event, ByteBuffer buffer);
+
+    protected abstract T readBody(int presence, ByteBuffer buffer);
+
+    protected static boolean isPresent(int presence, int field) {
+        return (presence & (1 << field)) != 0;
+    }
+
+    protected static void writeVarLong(ByteBuffer buffer, long value) {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            buffer.put((byte) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        buffer.put((byte) zigZag);
+    }
+
+    protected static long readVarLong(ByteBuffer buffer) {
+        long zigZag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            zigZag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        }
+        throw new SerializationException("Malformed varint");
+    }
+
+    protected static void writeBytes(ByteBuffer buffer, byte[] bytes) {
+        writeVarLong(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    protected static byte[] readBytes(ByteBuffer buffer) {
+        long length = readVarLong(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new SerializationException("Invalid length " + length);
+        }
+        byte[] bytes = new byte[(int) length];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,67 @@
+package com.innowise.paymentservice.serde;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * @ClassName EventWireFormat
+ * @Description Value format of OrderEvent and PaymentEvent records, negotiated per record through the
+ * {@value #HEADER} header. Records without the header are JSON, which keeps messages written by older
+ * producers readable; producers pick the format with {@code payment.kafka.wire-format}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public enum EventWireFormat {
+    JSON("json"),
+    BINARY("binary");
+
+    public static final String HEADER = "payment-wire-format";
+
+    private final String headerValue;
+    private final byte[] headerBytes;
+
+    EventWireFormat(String headerValue) {
+        this.headerValue = headerValue;
+        this.headerBytes = headerValue.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @param property the configured format name, case-insensitive
+     * @return the matching format
+     */
+    public static EventWireFormat of(String property) {
+        try {
+            return valueOf(property.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown payment.kafka.wire-format: " + property, ex);
+        }
+    }
+
+    /**
+     * Resolves the format of a received record; records without a (known) header are treated as JSON.
+     *
+     * @param headers the record headers, may be {@code null}
+     * @return the format the value was written in
+     */
+    public static EventWireFormat of(Headers headers) {
+        Header header = headers == null ? null : headers.lastHeader(HEADER);
+        if (header != null && BINARY.headerValue.equals(new String(header.value(), StandardCharsets.US_ASCII))) {
+            return BINARY;
+        }
+        return JSON;
+    }
+
+    /**
+     * Replaces the format header of an outgoing record, e.g. one copied from the original record by the DLT recoverer.
+     *
+     * @param headers the record headers
+     */
+    public void writeTo(Headers headers) {
+        headers.remove(HEADER);
+        headers.add(HEADER, headerBytes);
+    }
+}
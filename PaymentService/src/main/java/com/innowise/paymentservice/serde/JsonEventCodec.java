@@ -0,0 +1,154 @@
+package com.innowise.paymentservice.serde;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * @ClassName JsonEventCodec
+ * @Description Base of the hand-written JSON codecs of the Kafka events. Works on the Jackson streaming API only:
+ * values are parsed straight from the record bytes and written straight into a byte buffer, without databinding,
+ * reflection or an intermediate {@code String}. The output matches what Spring's {@code JsonSerializer} writes
+ * for the same DTO (declared field order, nulls included), and unknown fields are ignored when reading.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public abstract class JsonEventCodec<T> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int INITIAL_BUFFER_SIZE = 128;
+
+    private final Class<T> type;
+
+    protected JsonEventCodec(Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * @return the event class, also announced in the type header of written records
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @param event the event to write, not {@code null}
+     * @return the UTF-8 JSON document
+     */
+    public byte[] encode(T event) {
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder(INITIAL_BUFFER_SIZE)) {
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer)) {
+                generator.writeStartObject();
+                writeFields(event, generator);
+                generator.writeEndObject();
+            }
+            return buffer.toByteArray();
+        } catch (IOException ex) {
+            throw new SerializationException("Can't serialize " + type.getSimpleName(), ex);
+        }
+    }
+
+    /**
+     * @param data the UTF-8 JSON document
+     * @return the event, or {@code null} for a JSON {@code null}
+     * @throws SerializationException if the document is not a JSON object of the expected shape
+     */
+    public T decode(byte[] data) {
+        try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new SerializationException("Expected a JSON object for " + type.getSimpleName() + ", got " + token);
+            }
+            T event = newEvent();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (!readField(field, parser, event)) {
+                    parser.skipChildren();
+                }
+            }
+            return event;
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new SerializationException("Can't deserialize " + type.getSimpleName(), ex);
+        }
+    }
+
+    protected abstract T newEvent();
+
+    protected abstract void writeFields(T event, JsonGenerator generator) throws IOException;
+
+    /**
+     * Reads the value the parser is positioned on into the given field.
+     *
+     * @return {@code false} if the field is unknown and its value has to be skipped
+     */
+    protected abstract boolean readField(String field, JsonParser parser, T event) throws IOException;
+
+    protected static void writeLong(JsonGenerator generator, String field, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value);
+        }
+    }
+
+    protected static void writeDecimal(JsonGenerator generator, String field, BigDecimal value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value);
+        }
+    }
+
+    protected static void writeString(JsonGenerator generator, String field, String value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeStringField(field, value);
+        }
+    }
+
+    /**
+     * Reads a long from a JSON number or a numeric string, as databinding does.
+     */
+    protected static Long readLong(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_NUMBER_INT -> parser.getLongValue();
+            case VALUE_STRING -> Long.valueOf(parser.getText().trim());
+            default -> throw unexpected(parser, "integer");
+        };
+    }
+
+    protected static BigDecimal readDecimal(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDecimalValue();
+            case VALUE_STRING -> new BigDecimal(parser.getText().trim());
+            default -> throw unexpected(parser, "number");
+        };
+    }
+
+    protected static String readString(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_STRING, VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getText();
+            default -> throw unexpected(parser, "string");
+        };
+    }
+
+    private static SerializationException unexpected(JsonParser parser, String expected) throws IOException {
+        return new SerializationException("Expected " + expected + " for '" + parser.currentName()
+                + "', got " + parser.currentToken());
+    }
+}
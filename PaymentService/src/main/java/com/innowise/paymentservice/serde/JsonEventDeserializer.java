@@ -0,0 +1,38 @@
+package com.innowise.paymentservice.serde;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+
+/**
+ * @ClassName JsonEventDeserializer
+ * @Description Kafka deserializer on top of a {@link JsonEventCodec}. The target type is fixed, so type headers
+ * of the producer are not consulted; they are removed from the record, as Spring's {@code JsonDeserializer}
+ * does with {@code removeTypeHeaders}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class JsonEventDeserializer<T> implements Deserializer<T> {
+
+    private final JsonEventCodec<T> codec;
+
+    public JsonEventDeserializer(JsonEventCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return data == null ? null : codec.decode(data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (headers != null) {
+            headers.remove(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+            headers.remove(AbstractJavaTypeMapper.DEFAULT_CONTENT_CLASSID_FIELD_NAME);
+            headers.remove(AbstractJavaTypeMapper.DEFAULT_KEY_CLASSID_FIELD_NAME);
+        }
+        return deserialize(topic, data);
+    }
+}
@@ -0,0 +1,41 @@
+package com.innowise.paymentservice.serde;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @ClassName JsonEventSerializer
+ * @Description Kafka serializer on top of a {@link JsonEventCodec}. Like Spring's {@code JsonSerializer} it
+ * announces the value class in the {@code __TypeId__} header, so consumers relying on type headers keep working.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class JsonEventSerializer<T> implements Serializer<T> {
+
+    private final JsonEventCodec<T> codec;
+    private final byte[] typeId;
+
+    public JsonEventSerializer(JsonEventCodec<T> codec) {
+        this.codec = codec;
+        this.typeId = codec.getType().getName().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        return data == null ? null : codec.encode(data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        if (data == null) {
+            return null;
+        }
+        headers.remove(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        headers.add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, typeId);
+        return codec.encode(data);
+    }
+}
@@ -0,0 +1,51 @@
+package com.innowise.paymentservice.serde;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+
+/**
+ * @ClassName NegotiatingDeserializer
+ * @Description Value deserializer that reads each record in the format announced by its
+ * {@value EventWireFormat#HEADER} header and falls back to JSON when the header is missing.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class NegotiatingDeserializer<T> implements Deserializer<T> {
+
+    private final BinaryEventCodec<T> binaryCodec;
+    private final Deserializer<T> jsonDeserializer;
+
+    public NegotiatingDeserializer(BinaryEventCodec<T> binaryCodec, Deserializer<T> jsonDeserializer) {
+        this.binaryCodec = binaryCodec;
+        this.jsonDeserializer = jsonDeserializer;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (EventWireFormat.of(headers) == EventWireFormat.BINARY) {
+            return binaryCodec.decode(data);
+        }
+        return jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
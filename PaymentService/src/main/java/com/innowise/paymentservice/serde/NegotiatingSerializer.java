@@ -0,0 +1,58 @@
+package com.innowise.paymentservice.serde;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * @ClassName NegotiatingSerializer
+ * @Description Value serializer that writes events in the configured {@link EventWireFormat} and records the
+ * format in the {@value EventWireFormat#HEADER} header, so that consumers can read both formats while producers
+ * are switched over.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class NegotiatingSerializer<T> implements Serializer<T> {
+
+    private final EventWireFormat format;
+    private final BinaryEventCodec<T> binaryCodec;
+    private final Serializer<T> jsonSerializer;
+
+    public NegotiatingSerializer(EventWireFormat format, BinaryEventCodec<T> binaryCodec, Serializer<T> jsonSerializer) {
+        this.format = format;
+        this.binaryCodec = binaryCodec;
+        this.jsonSerializer = jsonSerializer;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+    }
+
+    /**
+     * Without headers the format cannot be announced, so the value is always written as JSON.
+     */
+    @Override
+    public byte[] serialize(String topic, T data) {
+        return jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        if (data == null) {
+            return null;
+        }
+        format.writeTo(headers);
+        if (format == EventWireFormat.BINARY) {
+            return binaryCodec.encode(data);
+        }
+        return jsonSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
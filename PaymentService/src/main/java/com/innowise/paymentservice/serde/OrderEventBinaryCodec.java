@@ -0,0 +1,72 @@
+package com.innowise.paymentservice.serde;
+
+import com.innowise.paymentservice.model.dto.OrderEvent;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * @ClassName OrderEventBinaryCodec
+ * @Description Binary layout of {@link OrderEvent}, version 1:
+ * orderId and userId as varints, amount as varint scale followed by the length-prefixed two's-complement
+ * unscaled value.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class OrderEventBinaryCodec extends BinaryEventCodec<OrderEvent> {
+
+    public static final int VERSION = 1;
+
+    private static final int ORDER_ID = 0;
+    private static final int USER_ID = 1;
+    private static final int AMOUNT = 2;
+
+    public OrderEventBinaryCodec() {
+        super("OrderEvent", VERSION);
+    }
+
+    @Override
+    protected int maxBodySize(OrderEvent event) {
+        int amountSize = event.getAmount() == null
+                ? 0
+                : 2 * MAX_VARINT_BYTES + event.getAmount().unscaledValue().bitLength() / 8 + 1;
+        return 2 * MAX_VARINT_BYTES + amountSize;
+    }
+
+    @Override
+    protected int writeBody(OrderEvent event, ByteBuffer buffer) {
+        int presence = 0;
+        if (event.getOrderId() != null) {
+            presence |= 1 << ORDER_ID;
+            writeVarLong(buffer, event.getOrderId());
+        }
+        if (event.getUserId() != null) {
+            presence |= 1 << USER_ID;
+            writeVarLong(buffer, event.getUserId());
+        }
+        if (event.getAmount() != null) {
+            presence |= 1 << AMOUNT;
+            writeVarLong(buffer, event.getAmount().scale());
+            writeBytes(buffer, event.getAmount().unscaledValue().toByteArray());
+        }
+        return presence;
+    }
+
+    @Override
+    protected OrderEvent readBody(int presence, ByteBuffer buffer) {
+        OrderEvent event = new OrderEvent();
+        if (isPresent(presence, ORDER_ID)) {
+            event.setOrderId(readVarLong(buffer));
+        }
+        if (isPresent(presence, USER_ID)) {
+            event.setUserId(readVarLong(buffer));
+        }
+        if (isPresent(presence, AMOUNT)) {
+            int scale = (int) readVarLong(buffer);
+            event.setAmount(new BigDecimal(new BigInteger(readBytes(buffer)), scale));
+        }
+        return event;
+    }
+}
@@ -0,0 +1,50 @@
+package com.innowise.paymentservice.serde;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.innowise.paymentservice.model.dto.OrderEvent;
+
+import java.io.IOException;
+
+/**
+ * @ClassName OrderEventJsonCodec
+ * @Description Streaming JSON codec of {@link OrderEvent}: {@code {"orderId":1,"userId":2,"amount":10.50}}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class OrderEventJsonCodec extends JsonEventCodec<OrderEvent> {
+
+    private static final String ORDER_ID = "orderId";
+    private static final String USER_ID = "userId";
+    private static final String AMOUNT = "amount";
+
+    public OrderEventJsonCodec() {
+        super(OrderEvent.class);
+    }
+
+    @Override
+    protected OrderEvent newEvent() {
+        return new OrderEvent();
+    }
+
+    @Override
+    protected void writeFields(OrderEvent event, JsonGenerator generator) throws IOException {
+        writeLong(generator, ORDER_ID, event.getOrderId());
+        writeLong(generator, USER_ID, event.getUserId());
+        writeDecimal(generator, AMOUNT, event.getAmount());
+    }
+
+    @Override
+    protected boolean readField(String field, JsonParser parser, OrderEvent event) throws IOException {
+        switch (field) {
+            case ORDER_ID -> event.setOrderId(readLong(parser));
+            case USER_ID -> event.setUserId(readLong(parser));
+            case AMOUNT -> event.setAmount(readDecimal(parser));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,87 @@
+package com.innowise.paymentservice.serde;
+
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @ClassName PaymentEventBinaryCodec
+ * @Description Binary layout of {@link PaymentEvent}, version 1:
+ * paymentId as length-prefixed UTF-8, orderId as varint and status as a one-byte code.
+ * Status codes are fixed here rather than taken from the enum ordinal, so reordering {@link PaymentStatus}
+ * does not change the wire format.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class PaymentEventBinaryCodec extends BinaryEventCodec<PaymentEvent> {
+
+    public static final int VERSION = 1;
+
+    private static final int PAYMENT_ID = 0;
+    private static final int ORDER_ID = 1;
+    private static final int STATUS = 2;
+
+    public PaymentEventBinaryCodec() {
+        super("PaymentEvent", VERSION);
+    }
+
+    @Override
+    protected int maxBodySize(PaymentEvent event) {
+        int paymentIdSize = event.getPaymentId() == null
+                ? 0
+                : MAX_VARINT_BYTES + event.getPaymentId().length() * 3;
+        return paymentIdSize + MAX_VARINT_BYTES + 1;
+    }
+
+    @Override
+    protected int writeBody(PaymentEvent event, ByteBuffer buffer) {
+        int presence = 0;
+        if (event.getPaymentId() != null) {
+            presence |= 1 << PAYMENT_ID;
+            writeBytes(buffer, event.getPaymentId().getBytes(StandardCharsets.UTF_8));
+        }
+        if (event.getOrderId() != null) {
+            presence |= 1 << ORDER_ID;
+            writeVarLong(buffer, event.getOrderId());
+        }
+        if (event.getStatus() != null) {
+            presence |= 1 << STATUS;
+            buffer.put(statusCode(event.getStatus()));
+        }
+        return presence;
+    }
+
+    @Override
+    protected PaymentEvent readBody(int presence, ByteBuffer buffer) {
+        PaymentEvent event = new PaymentEvent();
+        if (isPresent(presence, PAYMENT_ID)) {
+            event.setPaymentId(new String(readBytes(buffer), StandardCharsets.UTF_8));
+        }
+        if (isPresent(presence, ORDER_ID)) {
+            event.setOrderId(readVarLong(buffer));
+        }
+        if (isPresent(presence, STATUS)) {
+            event.setStatus(status(buffer.get()));
+        }
+        return event;
+    }
+
+    private static byte statusCode(PaymentStatus status) {
+        return switch (status) {
+            case SUCCESS -> 1;
+            case FAILED -> 2;
+        };
+    }
+
+    private static PaymentStatus status(byte code) {
+        return switch (code) {
+            case 1 -> PaymentStatus.SUCCESS;
+            case 2 -> PaymentStatus.FAILED;
+            default -> throw new SerializationException("Unknown PaymentStatus code: " + code);
+        };
+    }
+}
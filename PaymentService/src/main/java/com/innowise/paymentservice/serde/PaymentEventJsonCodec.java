@@ -0,0 +1,55 @@
+package com.innowise.paymentservice.serde;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+
+import java.io.IOException;
+
+/**
+ * @ClassName PaymentEventJsonCodec
+ * @Description Streaming JSON codec of {@link PaymentEvent}:
+ * {@code {"paymentId":"PAYMENT-1","orderId":1,"status":"SUCCESS"}}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public class PaymentEventJsonCodec extends JsonEventCodec<PaymentEvent> {
+
+    private static final String PAYMENT_ID = "paymentId";
+    private static final String ORDER_ID = "orderId";
+    private static final String STATUS = "status";
+
+    public PaymentEventJsonCodec() {
+        super(PaymentEvent.class);
+    }
+
+    @Override
+    protected PaymentEvent newEvent() {
+        return new PaymentEvent();
+    }
+
+    @Override
+    protected void writeFields(PaymentEvent event, JsonGenerator generator) throws IOException {
+        writeString(generator, PAYMENT_ID, event.getPaymentId());
+        writeLong(generator, ORDER_ID, event.getOrderId());
+        writeString(generator, STATUS, event.getStatus() == null ? null : event.getStatus().name());
+    }
+
+    @Override
+    protected boolean readField(String field, JsonParser parser, PaymentEvent event) throws IOException {
+        switch (field) {
+            case PAYMENT_ID -> event.setPaymentId(readString(parser));
+            case ORDER_ID -> event.setOrderId(readLong(parser));
+            case STATUS -> {
+                String status = readString(parser);
+                event.setStatus(status == null ? null : PaymentStatus.valueOf(status));
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+}
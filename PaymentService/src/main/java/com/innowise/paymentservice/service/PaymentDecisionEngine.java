@@ -0,0 +1,35 @@
+package com.innowise.paymentservice.service;
+
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import reactor.core.publisher.Mono;
+
+/**
+ * @ClassName PaymentDecisionEngine
+ * @Description Decides whether the payment of an order succeeds.
+ * The implementation is chosen with {@code payment.decision.engine}: {@code remote} asks the random number API,
+ * {@code local} decides in-process without I/O for load tests, staging and replays.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public interface PaymentDecisionEngine {
+
+    /**
+     * Decides the outcome of the order's payment.
+     *
+     * @param event a valid order event
+     * @return Mono emitting true if the payment succeeds, false if it fails
+     */
+    Mono<Boolean> decide(OrderEvent event);
+
+    /**
+     * Decides the outcome on the caller's thread, for the blocking consumers.
+     *
+     * @param event a valid order event
+     * @return true if the payment succeeds, false if it fails or no decision was made
+     */
+    default boolean decideNow(OrderEvent event) {
+        return decide(event).blockOptional().orElse(false);
+    }
+
+}
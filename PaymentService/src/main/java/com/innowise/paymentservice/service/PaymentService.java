@@ -1,14 +1,21 @@
 package com.innowise.paymentservice.service;
 
+import com.innowise.paymentservice.exception.InvalidQueryException;
+import com.innowise.paymentservice.model.PaymentGrouping;
 import com.innowise.paymentservice.model.PaymentStatus;
 import com.innowise.paymentservice.model.dto.OrderEvent;
 import com.innowise.paymentservice.model.dto.PaymentDto;
 import com.innowise.paymentservice.model.dto.PaymentEvent;
+import com.innowise.paymentservice.model.dto.PaymentPageDto;
+import com.innowise.paymentservice.model.dto.PaymentTotalDto;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * @ClassName PaymentService
@@ -31,6 +38,34 @@ public interface PaymentService {
      */
     PaymentDto processOrderEvent(OrderEvent event, boolean isEven);
 
+    /**
+     * Processes a batch of {@link OrderEvent}s and persists the resulting payments
+     * with a single bulk insert. Events whose order has been processed concurrently are skipped.
+     *
+     * @param decisions   order events mapped to their parity flag, in processing order
+     * @param trackEvents {@code true} to store the payments with their event marked unsent in every delivery mode;
+     *                    the caller must then clear the markers with {@link #markEventsSent} once the events
+     *                    are sent
+     * @return the created and persisted payment DTOs
+     */
+    List<PaymentDto> processOrderEvents(Map<OrderEvent, Boolean> decisions, boolean trackEvents);
+
+    /**
+     * Returns the CREATE_PAYMENT events of already processed orders that have not been sent to the broker,
+     * i.e. the payments were stored but the attempt publishing their events failed or aborted.
+     *
+     * @param orderIds the orders to look up
+     * @return the unsent events, empty for orders without a payment or whose event was committed
+     */
+    List<PaymentEvent> findUnsentEvents(Collection<Long> orderIds);
+
+    /**
+     * Records that the CREATE_PAYMENT events of the given payments have been sent to the broker.
+     *
+     * @param paymentIds the payments whose events were published
+     */
+    void markEventsSent(Collection<String> paymentIds);
+
     /**
      * Converts a {@link PaymentDto} into a {@link PaymentEvent} suitable for Kafka publishing.
      *
@@ -40,39 +75,97 @@ public interface PaymentService {
     PaymentEvent toPaymentEvent(PaymentDto dto);
 
     /**
-     * Creates and persists a new payment.
+     * Creates and persists a new payment with a single insert.
      *
      * @param request the payment data to create
      * @return the saved payment as a DTO
+     * @throws com.innowise.paymentservice.exception.PaymentAlreadyProcessedException if the order already has a payment
      */
     PaymentDto create(PaymentDto request);
 
     /**
-     * Retrieves all payments associated with a specific order ID.
+     * Retrieves the payment associated with a specific order ID.
+     * There is at most one, as the payment ID is derived from the order ID.
      *
      * @param orderId the order ID to filter by
      * @return list of matching payments
      */
     List<PaymentDto> getByOrderId(Long orderId);
 
+    /**
+     * Retrieves the payments of the given orders with a single query.
+     * Orders without a payment are left out.
+     *
+     * @param orderIds the order IDs to look up
+     * @return payments of the orders that have one
+     */
+    List<PaymentDto> getByOrderIds(Collection<Long> orderIds);
+
     /**
      * Retrieves all payments made by a specific user.
      *
      * @param userId the user ID to filter by
      * @return list of matching payments
+     * @deprecated loads every matching payment into memory, use {@link #getPageByUserId} or {@link #streamByUserId}
      */
+    @Deprecated
     List<PaymentDto> getByUserId(Long userId);
 
+    /**
+     * Retrieves one page of payments made by a specific user, newest first.
+     * A first page of up to {@value com.innowise.paymentservice.cache.PaymentCache#RECENT_BY_USER} payments
+     * is served from the user's cached newest payments.
+     *
+     * @param userId the user ID to filter by
+     * @param cursor the next-page cursor of the previous page, {@code null} for the first page
+     * @param size   the page size, capped at {@value com.innowise.paymentservice.service.impl.PaymentServiceImpl#MAX_PAGE_SIZE}
+     * @return the page of payments and the cursor of the next one
+     * @throws InvalidQueryException if the cursor is malformed or the size is not positive
+     */
+    PaymentPageDto getPageByUserId(Long userId, String cursor, int size);
+
+    /**
+     * Streams all payments made by a specific user, newest first, mapping documents lazily
+     * as they are read from the cursor. The stream must be closed, e.g. with try-with-resources.
+     *
+     * @param userId the user ID to filter by
+     * @return lazily mapped stream of matching payments
+     */
+    Stream<PaymentDto> streamByUserId(Long userId);
+
     /**
      * Retrieves all payments whose status matches any of the provided values.
      *
      * @param statuses set of status values to filter by
      * @return list of matching payments
+     * @deprecated loads every matching payment into memory, use {@link #getPageByStatuses} or {@link #streamByStatuses}
      */
+    @Deprecated
     List<PaymentDto> getByStatuses(Set<PaymentStatus> statuses);
 
+    /**
+     * Retrieves one page of payments whose status matches any of the provided values, newest first.
+     *
+     * @param statuses set of status values to filter by
+     * @param cursor   the next-page cursor of the previous page, {@code null} for the first page
+     * @param size     the page size, capped at {@value com.innowise.paymentservice.service.impl.PaymentServiceImpl#MAX_PAGE_SIZE}
+     * @return the page of payments and the cursor of the next one
+     * @throws InvalidQueryException if the cursor is malformed or the size is not positive
+     */
+    PaymentPageDto getPageByStatuses(Set<PaymentStatus> statuses, String cursor, int size);
+
+    /**
+     * Streams all payments whose status matches any of the provided values, newest first, mapping documents
+     * lazily as they are read from the cursor. The stream must be closed, e.g. with try-with-resources.
+     *
+     * @param statuses set of status values to filter by
+     * @return lazily mapped stream of matching payments
+     */
+    Stream<PaymentDto> streamByStatuses(Set<PaymentStatus> statuses);
+
     /**
      * Calculates the total sum of payments made within a specific time range.
+     * Whole minutes, hours and days are read from the pre-aggregated rollups.
      *
      * @param from start of the time range (inclusive)
      * @param to   end of the time range (inclusive)
@@ -81,12 +174,43 @@ public interface PaymentService {
     BigDecimal getTotalBetween(Instant from, Instant to);
 
     /**
-     * Checks whether the specified order has already been processed.
+     * Counts the payments made within a specific time range.
+     * Whole minutes, hours and days are read from the pre-aggregated rollups.
      *
+     * @param from start of the time range (inclusive)
+     * @param to   end of the time range (inclusive)
+     * @return number of payments in the range
+     */
+    long getCountBetween(Instant from, Instant to);
+
+    /**
+     * Calculates the total sum and count of payments made within a specific time range,
+     * grouped by status, user or time bucket. Status totals are read from the pre-aggregated rollups.
+     *
+     * @param from     start of the time range (inclusive)
+     * @param to       end of the time range (inclusive)
+     * @param grouping the dimension to group by
+     * @return one total per group, ordered by group key
+     */
+    List<PaymentTotalDto> getTotalsBetween(Instant from, Instant to, PaymentGrouping grouping);
+
+    /**
+     * Checks whether the specified order has already been processed.
+     * A pre-check only: {@code false} may miss an order saved concurrently or by another replica,
+     * the insert itself rejects those with {@link com.innowise.paymentservice.exception.PaymentAlreadyProcessedException}.
      *
      * @param orderId the unique identifier of the order to check; must not be {@code null}
      * @return {@code true} if the order has already been processed; {@code false} otherwise
      */
     boolean isAlreadyProcessed(Long orderId);
 
+    /**
+     * Returns the subset of the given order IDs that have already been processed,
+     * using a single query regardless of the number of IDs.
+     *
+     * @param orderIds the order IDs to check
+     * @return order IDs that already have a payment
+     */
+    Set<Long> findProcessedOrderIds(Collection<Long> orderIds);
+
 }
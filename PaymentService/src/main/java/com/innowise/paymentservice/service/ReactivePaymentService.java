@@ -0,0 +1,93 @@
+package com.innowise.paymentservice.service;
+
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * @ClassName ReactivePaymentService
+ * @Description Non-blocking variant of the payment processing operations of {@link PaymentService}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+public interface ReactivePaymentService {
+
+    /**
+     * Processes an incoming {@link OrderEvent} and persists the resulting payment without blocking.
+     *
+     * @param event  the incoming order event containing orderId and userId
+     * @param isEven flag indicating whether the randomly generated number was even (success) or odd (failure)
+     * @return Mono emitting the persisted payment, or an error of
+     * {@link com.innowise.paymentservice.exception.PaymentAlreadyProcessedException} for duplicates
+     */
+    Mono<PaymentDto> processOrderEvent(OrderEvent event, boolean isEven);
+
+    /**
+     * Checks whether the specified order has already been processed.
+     *
+     * @param orderId the unique identifier of the order to check; must not be {@code null}
+     * @return Mono emitting {@code true} if the order has already been processed
+     */
+    Mono<Boolean> isAlreadyProcessed(Long orderId);
+
+    /**
+     * Returns the CREATE_PAYMENT event of an already processed order if it has not been acknowledged by the broker,
+     * i.e. the payment was stored but publishing the event failed or was interrupted.
+     *
+     * @param orderId the order to look up
+     * @return Mono emitting the unpublished event, empty if the order has no payment or its event was published
+     */
+    Mono<PaymentEvent> findUnsentEvent(Long orderId);
+
+    /**
+     * Records that the CREATE_PAYMENT event of a payment has been acknowledged by the broker.
+     *
+     * @param paymentId the payment whose event was published
+     * @return Mono completing once the marker is cleared
+     */
+    Mono<Void> markEventSent(String paymentId);
+
+    /**
+     * Emits all payments made by a specific user, newest first, mapping documents lazily
+     * as they are read from the cursor, with backpressure.
+     *
+     * @param userId the user ID to filter by
+     * @return Flux of matching payments
+     */
+    Flux<PaymentDto> findByUserId(Long userId);
+
+    /**
+     * Emits all payments whose status matches any of the provided values, newest first, mapping documents
+     * lazily as they are read from the cursor, with backpressure.
+     *
+     * @param statuses set of status values to filter by
+     * @return Flux of matching payments
+     */
+    Flux<PaymentDto> findByStatuses(Set<PaymentStatus> statuses);
+
+    /**
+     * Retrieves the payment associated with a specific order ID.
+     *
+     * @param orderId the order ID to look up
+     * @return Mono emitting the payment, or empty if the order has no payment
+     */
+    Mono<PaymentDto> findByOrderId(Long orderId);
+
+    /**
+     * Emits all payments made within a specific time range, oldest first, mapping documents lazily
+     * as they are read from the cursor, with backpressure.
+     *
+     * @param from start of the time range (inclusive)
+     * @param to   end of the time range (inclusive)
+     * @return Flux of matching payments
+     */
+    Flux<PaymentDto> findBetween(Instant from, Instant to);
+
+}
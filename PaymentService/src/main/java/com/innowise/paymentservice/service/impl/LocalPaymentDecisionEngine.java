@@ -0,0 +1,66 @@
+package com.innowise.paymentservice.service.impl;
+
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.service.PaymentDecisionEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.SplittableRandom;
+
+/**
+ * @ClassName LocalPaymentDecisionEngine
+ * @Description In-process decision engine without I/O, for running the consumers at full speed.
+ * With {@code payment.decision.local.seed} set, the outcome is a hash of the order ID and the seed, so replaying
+ * the same orders gives the same payments; otherwise every thread draws from its own {@link SplittableRandom}.
+ * A payment succeeds with probability {@code payment.decision.local.success-rate}.
+ * Decisions are made on the caller's thread without allocating. Active when {@code payment.decision.engine=local}.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Service
+@ConditionalOnProperty(name = "payment.decision.engine", havingValue = "local")
+public class LocalPaymentDecisionEngine implements PaymentDecisionEngine {
+
+    private static final Mono<Boolean> SUCCEEDED = Mono.just(true);
+    private static final Mono<Boolean> FAILED = Mono.just(false);
+    private static final double UNIT = 0x1.0p-53;
+    private static final ThreadLocal<SplittableRandom> RANDOM = ThreadLocal.withInitial(SplittableRandom::new);
+
+    private final Long seed;
+    private final double successRate;
+
+    public LocalPaymentDecisionEngine(@Value("${payment.decision.local.seed:#{null}}") Long seed,
+                                      @Value("${payment.decision.local.success-rate:0.5}") double successRate) {
+        if (successRate < 0 || successRate > 1) {
+            throw new IllegalArgumentException("Local decision success-rate must be in [0, 1]: " + successRate);
+        }
+        this.seed = seed;
+        this.successRate = successRate;
+    }
+
+    @Override
+    public Mono<Boolean> decide(OrderEvent event) {
+        return decideNow(event) ? SUCCEEDED : FAILED;
+    }
+
+    @Override
+    public boolean decideNow(OrderEvent event) {
+        double draw = seed == null
+                ? RANDOM.get().nextDouble()
+                : (mix(event.getOrderId() ^ seed) >>> 11) * UNIT;
+        return draw < successRate;
+    }
+
+    /**
+     * SplitMix64 finalizer, spreads consecutive order IDs over the whole range.
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,20 +1,36 @@
 package com.innowise.paymentservice.service.impl;
 
+import com.innowise.paymentservice.cache.PaymentCache;
+import com.innowise.paymentservice.dedup.ProcessedOrderFilter;
+import com.innowise.paymentservice.exception.InvalidQueryException;
+import com.innowise.paymentservice.exception.PaymentAlreadyProcessedException;
 import com.innowise.paymentservice.mapper.PaymentMapper;
+import com.innowise.paymentservice.model.PaymentCursor;
+import com.innowise.paymentservice.model.PaymentGrouping;
 import com.innowise.paymentservice.model.PaymentStatus;
 import com.innowise.paymentservice.model.dto.OrderEvent;
 import com.innowise.paymentservice.model.dto.PaymentDto;
 import com.innowise.paymentservice.model.dto.PaymentEvent;
+import com.innowise.paymentservice.model.dto.PaymentPageDto;
+import com.innowise.paymentservice.model.dto.PaymentTotalDto;
 import com.innowise.paymentservice.model.entity.Payment;
+import com.innowise.paymentservice.outbox.PaymentOutbox;
 import com.innowise.paymentservice.repository.PaymentRepository;
+import com.innowise.paymentservice.rollup.PaymentRollupStore;
 import com.innowise.paymentservice.service.PaymentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @ClassName PaymentService
@@ -29,28 +45,68 @@ import java.util.Set;
 public class PaymentServiceImpl implements PaymentService {
 
     public static final String PAYMENT = "PAYMENT-";
+    public static final int MAX_PAGE_SIZE = 1000;
     private final PaymentRepository paymentRepository;
     private final PaymentMapper paymentMapper;
+    private final ProcessedOrderFilter processedOrderFilter;
+    private final PaymentRollupStore paymentRollupStore;
+    private final PaymentCache paymentCache;
+    private final PaymentOutbox paymentOutbox;
 
     @Override
     public boolean isAlreadyProcessed(Long orderId) {
-        return paymentRepository.existsByOrderId(orderId);
+        return processedOrderFilter.mightBeProcessed(orderId) && paymentRepository.existsById(generatePaymentId(orderId));
+    }
+
+    @Override
+    public Set<Long> findProcessedOrderIds(Collection<Long> orderIds) {
+        List<String> candidates = orderIds.stream()
+                .filter(processedOrderFilter::mightBeProcessed)
+                .map(PaymentServiceImpl::generatePaymentId)
+                .toList();
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        return paymentRepository.findOrderIdsByPaymentIdIn(candidates)
+                .stream()
+                .map(Payment::getOrderId)
+                .collect(Collectors.toSet());
     }
 
     @Override
     public PaymentDto create(PaymentDto request) {
-        if (isAlreadyProcessed(request.getOrderId())) {
-            throw new IllegalStateException("Order " + request.getOrderId() + " already processed");
+        Payment payment = paymentRollupStore.markPending(paymentOutbox.stage(paymentMapper.toEntity(request)));
+
+        Payment saved;
+        try {
+            saved = paymentRepository.insert(payment);
+        } catch (DuplicateKeyException ex) {
+            processedOrderFilter.markProcessed(request.getOrderId());
+            throw new PaymentAlreadyProcessedException(request.getOrderId(), ex);
         }
-        Payment payment = paymentMapper.toEntity(request);
+        processedOrderFilter.markProcessed(saved.getOrderId());
+        paymentRollupStore.record(List.of(saved));
 
-        Payment saved = paymentRepository.save(payment);
-        return paymentMapper.toDto(saved);
+        PaymentDto dto = paymentMapper.toDto(saved);
+        paymentCache.writeThrough(List.of(dto));
+        return dto;
     }
 
     @Override
+    @Cacheable(cacheNames = PaymentCache.BY_ORDER, key = "#orderId", unless = "#result.isEmpty()")
     public List<PaymentDto> getByOrderId(Long orderId) {
-        return paymentRepository.findByOrderId(orderId)
+        return paymentRepository.findById(generatePaymentId(orderId))
+                .map(paymentMapper::toDto)
+                .stream()
+                .toList();
+    }
+
+    @Override
+    public List<PaymentDto> getByOrderIds(Collection<Long> orderIds) {
+        List<String> paymentIds = orderIds.stream()
+                .map(PaymentServiceImpl::generatePaymentId)
+                .toList();
+        return paymentRepository.findAllById(paymentIds)
                 .stream()
                 .map(paymentMapper::toDto)
                 .toList();
@@ -64,6 +120,33 @@ public class PaymentServiceImpl implements PaymentService {
                 .toList();
     }
 
+    @Override
+    public PaymentPageDto getPageByUserId(Long userId, String cursor, int size) {
+        int pageSize = pageSize(size);
+        PaymentCursor after = PaymentCursor.decode(cursor);
+        if (after == null && pageSize <= PaymentCache.RECENT_BY_USER) {
+            List<PaymentDto> recent = paymentCache.recentByUser(userId, () ->
+                    paymentRepository.findPageByUserId(userId, null, PaymentCache.RECENT_BY_USER + 1)
+                            .stream()
+                            .map(paymentMapper::toDto)
+                            .toList());
+            boolean hasNext = recent.size() > pageSize;
+            List<PaymentDto> content = hasNext ? recent.subList(0, pageSize) : recent;
+            PaymentDto last = hasNext ? content.getLast() : null;
+            return PaymentPageDto.builder()
+                    .content(content)
+                    .nextCursor(hasNext ? new PaymentCursor(last.getTimestamp(), last.getPaymentId()).encode() : null)
+                    .build();
+        }
+        return toPage(paymentRepository.findPageByUserId(userId, after, pageSize + 1), pageSize);
+    }
+
+    @Override
+    public Stream<PaymentDto> streamByUserId(Long userId) {
+        return paymentRepository.streamByUserIdOrderByTimestampDescPaymentIdDesc(userId)
+                .map(paymentMapper::toDto);
+    }
+
     @Override
     public List<PaymentDto> getByStatuses(Set<PaymentStatus> statuses) {
         List<PaymentStatus> statusNames = statuses.stream()
@@ -75,23 +158,101 @@ public class PaymentServiceImpl implements PaymentService {
                 .toList();
     }
 
+    @Override
+    public PaymentPageDto getPageByStatuses(Set<PaymentStatus> statuses, String cursor, int size) {
+        int pageSize = pageSize(size);
+        return toPage(paymentRepository.findPageByStatusIn(statuses, PaymentCursor.decode(cursor), pageSize + 1), pageSize);
+    }
+
+    @Override
+    public Stream<PaymentDto> streamByStatuses(Set<PaymentStatus> statuses) {
+        return paymentRepository.streamByStatusInOrderByTimestampDescPaymentIdDesc(statuses)
+                .map(paymentMapper::toDto);
+    }
+
     @Override
     public BigDecimal getTotalBetween(Instant from, Instant to) {
-        return paymentRepository.findAmountsByTimestampBetween(from, to)
+        return paymentRollupStore.totalsByStatusBetween(from, to)
                 .stream()
-                .map(Payment::getPaymentAmount)
+                .map(PaymentTotalDto::getTotal)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
+    @Override
+    public long getCountBetween(Instant from, Instant to) {
+        return paymentRollupStore.totalsByStatusBetween(from, to)
+                .stream()
+                .mapToLong(PaymentTotalDto::getCount)
+                .sum();
+    }
+
+    @Override
+    public List<PaymentTotalDto> getTotalsBetween(Instant from, Instant to, PaymentGrouping grouping) {
+        if (grouping == PaymentGrouping.STATUS) {
+            return paymentRollupStore.totalsByStatusBetween(from, to);
+        }
+        return paymentRepository.sumAmountsBetween(from, to, grouping);
+    }
+
     public PaymentDto processOrderEvent(OrderEvent event, boolean isEven) {
+        validateOrderEvent(event);
+
+        return create(toPaymentDto(event, isEven));
+    }
+
+    @Override
+    public List<PaymentDto> processOrderEvents(Map<OrderEvent, Boolean> decisions, boolean trackEvents) {
+        List<Payment> payments = decisions.entrySet()
+                .stream()
+                .map(entry -> paymentMapper.toEntity(toPaymentDto(entry.getKey(), entry.getValue())))
+                .map(payment -> paymentRollupStore.markPending(
+                        trackEvents ? paymentOutbox.track(payment) : paymentOutbox.stage(payment)))
+                .toList();
+
+        List<Payment> inserted = paymentRepository.insertAllUnordered(payments);
+        inserted.forEach(payment -> processedOrderFilter.markProcessed(payment.getOrderId()));
+        paymentRollupStore.record(inserted);
+
+        List<PaymentDto> dtos = inserted.stream()
+                .map(paymentMapper::toDto)
+                .toList();
+        paymentCache.writeThrough(dtos);
+        return dtos;
+    }
+
+    @Override
+    public List<PaymentEvent> findUnsentEvents(Collection<Long> orderIds) {
+        List<String> paymentIds = orderIds.stream()
+                .map(PaymentServiceImpl::generatePaymentId)
+                .toList();
+        return paymentRepository.findPendingEventsByPaymentIdIn(paymentIds)
+                .stream()
+                .map(payment -> new PaymentEvent(payment.getPaymentId(), payment.getOrderId(), payment.getStatus()))
+                .toList();
+    }
+
+    @Override
+    public void markEventsSent(Collection<String> paymentIds) {
+        if (!paymentIds.isEmpty()) {
+            paymentRepository.markEventsPublished(paymentIds);
+        }
+    }
+
+    public PaymentEvent toPaymentEvent(PaymentDto dto) {
+        return new PaymentEvent(dto.getPaymentId(), dto.getOrderId(), dto.getStatus());
+    }
+
+    static void validateOrderEvent(OrderEvent event) {
         if (event == null || event.getOrderId() == null || event.getUserId() == null || event.getAmount() == null) {
             throw new IllegalArgumentException("Invalid OrderEvent: missing required fields");
         }
+    }
 
+    static PaymentDto toPaymentDto(OrderEvent event, boolean isEven) {
         PaymentStatus status = isEven ? PaymentStatus.SUCCESS : PaymentStatus.FAILED;
         String paymentId = generatePaymentId(event.getOrderId());
 
-        PaymentDto dto = PaymentDto.builder()
+        return PaymentDto.builder()
                 .paymentId(paymentId)
                 .orderId(event.getOrderId())
                 .userId(event.getUserId())
@@ -99,16 +260,27 @@ public class PaymentServiceImpl implements PaymentService {
                 .status(status)
                 .timestamp(Instant.now())
                 .build();
-
-        return create(dto);
     }
 
+    private PaymentPageDto toPage(List<Payment> payments, int pageSize) {
+        boolean hasNext = payments.size() > pageSize;
+        List<Payment> content = hasNext ? payments.subList(0, pageSize) : payments;
+        Payment last = content.isEmpty() ? null : content.getLast();
 
-    public PaymentEvent toPaymentEvent(PaymentDto dto) {
-        return new PaymentEvent(dto.getPaymentId(), dto.getOrderId(), dto.getStatus());
+        return PaymentPageDto.builder()
+                .content(content.stream().map(paymentMapper::toDto).toList())
+                .nextCursor(hasNext ? new PaymentCursor(last.getTimestamp(), last.getPaymentId()).encode() : null)
+                .build();
+    }
+
+    private static int pageSize(int size) {
+        if (size < 1) {
+            throw new InvalidQueryException("Page size must be positive");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
     }
 
-    private String generatePaymentId(Long orderId) {
+    static String generatePaymentId(Long orderId) {
         return PAYMENT + orderId;
     }
 
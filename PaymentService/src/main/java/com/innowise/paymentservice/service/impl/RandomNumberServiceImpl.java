@@ -1,6 +1,6 @@
 package com.innowise.paymentservice.service.impl;
 
-import com.innowise.paymentservice.config.RandomNumberClient;
+import com.innowise.paymentservice.config.RandomNumberPool;
 import com.innowise.paymentservice.service.RandomNumberService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -20,17 +20,12 @@ import reactor.core.publisher.Mono;
 public class RandomNumberServiceImpl implements RandomNumberService {
 
     private static final Logger logger = LoggerFactory.getLogger(RandomNumberServiceImpl.class);
-    private final RandomNumberClient client;
+    private final RandomNumberPool pool;
 
     @Override
     public Mono<Boolean> isEven() {
-        return client.fetchRandomNumbers()
-                .map(numbers -> {
-                    if (numbers == null || numbers.isEmpty()) {
-                        logger.warn("Empty response from random number API");
-                        return false;
-                    }
-                    int number = numbers.getFirst();
+        return pool.next()
+                .map(number -> {
                     logger.debug("Retrieved random number: {}", number);
                     return number % 2 == 0;
                 })
@@ -0,0 +1,104 @@
+package com.innowise.paymentservice.service.impl;
+
+import com.innowise.paymentservice.cache.PaymentCache;
+import com.innowise.paymentservice.dedup.ProcessedOrderFilter;
+import com.innowise.paymentservice.exception.PaymentAlreadyProcessedException;
+import com.innowise.paymentservice.mapper.PaymentMapper;
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import com.innowise.paymentservice.outbox.PaymentOutbox;
+import com.innowise.paymentservice.repository.ReactivePaymentRepository;
+import com.innowise.paymentservice.rollup.PaymentRollupStore;
+import com.innowise.paymentservice.service.ReactivePaymentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @ClassName ReactivePaymentServiceImpl
+ * @Description Implementation of ReactivePaymentService on top of the reactive MongoDB driver.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactivePaymentServiceImpl implements ReactivePaymentService {
+
+    private final ReactivePaymentRepository reactivePaymentRepository;
+    private final PaymentMapper paymentMapper;
+    private final ProcessedOrderFilter processedOrderFilter;
+    private final PaymentRollupStore paymentRollupStore;
+    private final PaymentCache paymentCache;
+    private final PaymentOutbox paymentOutbox;
+
+    @Override
+    public Mono<PaymentDto> processOrderEvent(OrderEvent event, boolean isEven) {
+        return Mono.fromCallable(() -> {
+                    PaymentServiceImpl.validateOrderEvent(event);
+                    return paymentRollupStore.markPending(
+                            paymentOutbox.track(paymentMapper.toEntity(PaymentServiceImpl.toPaymentDto(event, isEven))));
+                })
+                .flatMap(reactivePaymentRepository::insert)
+                .doOnNext(saved -> processedOrderFilter.markProcessed(saved.getOrderId()))
+                .flatMap(saved -> paymentRollupStore.recordReactive(saved).thenReturn(saved))
+                .map(paymentMapper::toDto)
+                .doOnNext(dto -> paymentCache.writeThrough(List.of(dto)))
+                .onErrorMap(DuplicateKeyException.class, ex -> {
+                    processedOrderFilter.markProcessed(event.getOrderId());
+                    return new PaymentAlreadyProcessedException(event.getOrderId(), ex);
+                });
+    }
+
+    @Override
+    public Mono<Boolean> isAlreadyProcessed(Long orderId) {
+        if (!processedOrderFilter.mightBeProcessed(orderId)) {
+            return Mono.just(false);
+        }
+        return reactivePaymentRepository.existsById(PaymentServiceImpl.generatePaymentId(orderId));
+    }
+
+    @Override
+    public Mono<PaymentEvent> findUnsentEvent(Long orderId) {
+        return reactivePaymentRepository.findPendingEvent(PaymentServiceImpl.generatePaymentId(orderId))
+                .map(payment -> new PaymentEvent(payment.getPaymentId(), payment.getOrderId(), payment.getStatus()));
+    }
+
+    @Override
+    public Mono<Void> markEventSent(String paymentId) {
+        return reactivePaymentRepository.clearEventPending(paymentId).then();
+    }
+
+    @Override
+    public Flux<PaymentDto> findByUserId(Long userId) {
+        return reactivePaymentRepository.findByUserIdOrderByTimestampDescPaymentIdDesc(userId)
+                .map(paymentMapper::toDto);
+    }
+
+    @Override
+    public Flux<PaymentDto> findByStatuses(Set<PaymentStatus> statuses) {
+        return reactivePaymentRepository.findByStatusInOrderByTimestampDescPaymentIdDesc(statuses)
+                .map(paymentMapper::toDto);
+    }
+
+    @Override
+    public Mono<PaymentDto> findByOrderId(Long orderId) {
+        return reactivePaymentRepository.findById(PaymentServiceImpl.generatePaymentId(orderId))
+                .map(paymentMapper::toDto);
+    }
+
+    @Override
+    public Flux<PaymentDto> findBetween(Instant from, Instant to) {
+        return reactivePaymentRepository.findByTimestampBetween(from, to)
+                .map(paymentMapper::toDto);
+    }
+
+}
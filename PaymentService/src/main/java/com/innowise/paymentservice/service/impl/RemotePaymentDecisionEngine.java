@@ -0,0 +1,30 @@
+package com.innowise.paymentservice.service.impl;
+
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.service.PaymentDecisionEngine;
+import com.innowise.paymentservice.service.RandomNumberService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * @ClassName RemotePaymentDecisionEngine
+ * @Description Decision engine backed by the random number API: the payment succeeds when the number is even.
+ * Active unless {@code payment.decision.engine} selects another engine.
+ * @Author dshparko
+ * @Date 18.10.2026
+ * @Version 1.0
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "payment.decision.engine", havingValue = "remote", matchIfMissing = true)
+public class RemotePaymentDecisionEngine implements PaymentDecisionEngine {
+
+    private final RandomNumberService randomNumberService;
+
+    @Override
+    public Mono<Boolean> decide(OrderEvent event) {
+        return randomNumberService.isEven().defaultIfEmpty(false);
+    }
+}
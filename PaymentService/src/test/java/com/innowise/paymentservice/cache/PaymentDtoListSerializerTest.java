@@ -0,0 +1,60 @@
+package com.innowise.paymentservice.cache;
+
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentDtoListSerializerTest {
+
+    private final PaymentDtoListSerializer serializer = new PaymentDtoListSerializer();
+
+    @Test
+    void shouldRoundTripPaymentsCompactly() {
+        PaymentDto payment = PaymentDto.builder()
+                .paymentId("PAYMENT-42")
+                .orderId(42L)
+                .userId(7L)
+                .timestamp(Instant.parse("2026-10-18T10:15:30.123456789Z"))
+                .paymentAmount(new BigDecimal("-1234.5600"))
+                .status(PaymentStatus.SUCCESS)
+                .build();
+
+        byte[] bytes = serializer.serialize(List.of(payment));
+        List<PaymentDto> restored = serializer.deserialize(bytes);
+
+        assertThat(bytes.length).isLessThan(80);
+        assertThat(restored).singleElement().usingRecursiveComparison().isEqualTo(payment);
+    }
+
+    @Test
+    void shouldRoundTripAmountsWithMoreThan255UnscaledBytes() {
+        BigDecimal amount = new BigDecimal(BigInteger.TEN.pow(700).add(BigInteger.ONE), 2);
+        PaymentDto payment = PaymentDto.builder().paymentAmount(amount).build();
+
+        List<PaymentDto> restored = serializer.deserialize(serializer.serialize(List.of(payment)));
+
+        assertThat(restored).singleElement().extracting(PaymentDto::getPaymentAmount).isEqualTo(amount);
+    }
+
+    @Test
+    void shouldKeepMissingFieldsNull() {
+        PaymentDto partial = PaymentDto.builder().orderId(1L).build();
+
+        List<PaymentDto> restored = serializer.deserialize(serializer.serialize(List.of(partial)));
+
+        assertThat(restored).singleElement().usingRecursiveComparison().isEqualTo(partial);
+    }
+
+    @Test
+    void shouldTreatUnknownFormatAsMiss() {
+        assertThat(serializer.deserialize(new byte[]{99, 0, 0, 0, 0})).isNull();
+        assertThat(serializer.deserialize(null)).isNull();
+    }
+}
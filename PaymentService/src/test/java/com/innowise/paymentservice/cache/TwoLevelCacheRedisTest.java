@@ -0,0 +1,60 @@
+package com.innowise.paymentservice.cache;
+
+import com.innowise.paymentservice.config.CacheConfig;
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@SpringJUnitConfig(CacheConfig.class)
+@ImportAutoConfiguration(RedisAutoConfiguration.class)
+@TestPropertySource(properties = "payment.cache.redis.enabled=true")
+class TwoLevelCacheRedisTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.2").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void setRedisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    void shouldShareEntriesThroughRedis() {
+        PaymentDto payment = PaymentDto.builder().paymentId("PAYMENT-1").orderId(1L).status(PaymentStatus.SUCCESS).build();
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache(PaymentCache.BY_ORDER);
+
+        cache.put(1L, List.of(payment));
+        cache.getLocal().clear();
+        Cache.ValueWrapper fromRedis = cache.get(1L);
+
+        assertThat(redisTemplate.hasKey("payment-service:" + PaymentCache.BY_ORDER + "::1")).isTrue();
+        assertThat(fromRedis).isNotNull();
+        assertThat((List<?>) fromRedis.get()).singleElement()
+                .extracting("paymentId").isEqualTo("PAYMENT-1");
+    }
+}
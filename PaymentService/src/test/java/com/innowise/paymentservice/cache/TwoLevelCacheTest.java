@@ -0,0 +1,83 @@
+package com.innowise.paymentservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TwoLevelCacheTest {
+
+    private CaffeineCache local;
+    private Cache shared;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        local = new CaffeineCache("payments", Caffeine.newBuilder().build());
+        shared = new ConcurrentMapCache("payments");
+        cache = new TwoLevelCache(local, shared);
+    }
+
+    @Test
+    void shouldPromoteSharedHitIntoLocal() {
+        shared.put(1L, "payment");
+
+        assertThat(cache.get(1L).get()).isEqualTo("payment");
+        assertThat(local.get(1L).get()).isEqualTo("payment");
+    }
+
+    @Test
+    void shouldWriteAndEvictOnBothLevels() {
+        cache.put(1L, "payment");
+        assertThat(local.get(1L)).isNotNull();
+        assertThat(shared.get(1L)).isNotNull();
+
+        cache.evict(1L);
+        assertThat(local.get(1L)).isNull();
+        assertThat(shared.get(1L)).isNull();
+    }
+
+    @Test
+    void shouldWriteLocallyAtOnceAndLeaveSharedWriteToExecutor() {
+        List<Runnable> pending = new ArrayList<>();
+        cache = new TwoLevelCache(local, shared, pending::add);
+
+        cache.put(1L, "payment");
+
+        assertThat(local.get(1L).get()).isEqualTo("payment");
+        assertThat(shared.get(1L)).isNull();
+        pending.forEach(Runnable::run);
+        assertThat(shared.get(1L).get()).isEqualTo("payment");
+    }
+
+    @Test
+    void shouldLoadOnceAndShareLoadedValue() {
+        assertThat(cache.get(1L, () -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.get(1L, () -> "reloaded")).isEqualTo("loaded");
+        assertThat(shared.get(1L).get()).isEqualTo("loaded");
+    }
+
+    @Test
+    void shouldFallBackToLocalWhenSharedFails() {
+        Cache broken = mock(Cache.class);
+        when(broken.get(any())).thenThrow(new IllegalStateException("connection refused"));
+        doThrow(new IllegalStateException("connection refused")).when(broken).put(any(), any());
+        cache = new TwoLevelCache(local, broken);
+
+        cache.put(1L, "payment");
+
+        assertThat(cache.get(1L).get()).isEqualTo("payment");
+        assertThat(cache.get(2L)).isNull();
+    }
+}
@@ -0,0 +1,135 @@
+package com.innowise.paymentservice.config;
+
+import com.innowise.paymentservice.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void run_shouldQueueCallsBeyondLimitAndStartThemInOrder() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 2, 1000, 2);
+        List<Sinks.One<Integer>> calls = new ArrayList<>();
+        List<Integer> results = new ArrayList<>();
+        AtomicInteger started = new AtomicInteger();
+
+        for (int i = 0; i < 4; i++) {
+            limiter.run(() -> {
+                started.incrementAndGet();
+                Sinks.One<Integer> call = Sinks.one();
+                calls.add(call);
+                return call.asMono();
+            }).subscribe(results::add);
+        }
+
+        assertThat(started).hasValue(2);
+        assertThat(limiter.inFlight()).isEqualTo(2);
+        assertThat(limiter.queued()).isEqualTo(2);
+        assertThat(meterRegistry.get("random.api.queue").gauge().value()).isEqualTo(2);
+
+        calls.get(0).tryEmitValue(1);
+
+        assertThat(started).hasValue(3);
+        assertThat(limiter.queued()).isEqualTo(1);
+
+        calls.get(1).tryEmitValue(2);
+        calls.get(2).tryEmitValue(3);
+        calls.get(3).tryEmitValue(4);
+
+        assertThat(results).containsExactly(1, 2, 3, 4);
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.queued()).isZero();
+    }
+
+    @Test
+    void run_shouldRejectWhenLimitAndQueueAreFull() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 1000, 1);
+        limiter.run(Mono::never).subscribe();
+        limiter.run(Mono::never).subscribe();
+
+        StepVerifier.create(limiter.run(() -> Mono.just(1)))
+                .expectError(ConcurrencyLimitExceededException.class)
+                .verify();
+
+        assertThat(meterRegistry.get("random.api.rejections").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void run_shouldBackOffOnFailure() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 2, 16, 1000, 0);
+
+        StepVerifier.create(limiter.run(() -> Mono.error(new IllegalStateException("API down"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertThat(limiter.limit()).isEqualTo(4);
+        assertThat(meterRegistry.get("random.api.limit").gauge().value()).isEqualTo(4);
+
+        limiter.run(() -> Mono.error(new IllegalStateException("API down"))).onErrorComplete().block();
+        limiter.run(() -> Mono.error(new IllegalStateException("API down"))).onErrorComplete().block();
+
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void run_shouldGrowLimitWhileSaturatedWithFastCalls() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 4, 1000, 0);
+
+        for (int round = 0; round < 4; round++) {
+            Sinks.One<Integer> first = Sinks.one();
+            Sinks.One<Integer> second = Sinks.one();
+            limiter.run(first::asMono).subscribe();
+            limiter.run(second::asMono).subscribe();
+            first.tryEmitValue(1);
+            second.tryEmitValue(2);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void run_shouldReleaseQueueSlotOfCancelledWaiter() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 1000, 1);
+        Sinks.One<Integer> running = Sinks.one();
+        limiter.run(running::asMono).subscribe();
+        Disposable waiting = limiter.run(() -> Mono.just(2)).subscribe();
+
+        waiting.dispose();
+        running.tryEmitValue(1);
+
+        assertThat(limiter.queued()).isZero();
+        assertThat(limiter.inFlight()).isZero();
+        StepVerifier.create(limiter.run(() -> Mono.just(3))).expectNext(3).verifyComplete();
+    }
+
+    @Test
+    void constructor_shouldRejectInconsistentLimits() {
+        assertThatThrownBy(() -> limiter(8, 16, 4, 2, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initial, int min, int max, double latencyTolerance, int maxQueue) {
+        return new AdaptiveConcurrencyLimiter("random.api", initial, min, max, latencyTolerance, 0.5, maxQueue,
+                Schedulers.immediate(), meterRegistry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.innowise.paymentservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AotConditionGuardTest {
+
+    @Test
+    void shouldAcceptRuntimeConfigurationMatchingTheBuild() throws IOException {
+        MockEnvironment build = new MockEnvironment()
+                .withProperty("payment.consumer.mode", "record")
+                .withProperty("payment.cache.redis.enabled", "true");
+        MockEnvironment runtime = new MockEnvironment()
+                .withProperty("payment.consumer.mode", "record")
+                .withProperty("payment.cache.redis.enabled", "TRUE");
+
+        assertThat(AotConditionGuard.mismatches(recorded(build), runtime)).isEmpty();
+    }
+
+    @Test
+    void shouldReportEveryConditionPropertyThatChanged() throws IOException {
+        MockEnvironment build = new MockEnvironment()
+                .withProperty("payment.consumer.mode", "record")
+                .withProperty("payment.cache.redis.enabled", "false");
+        MockEnvironment runtime = new MockEnvironment()
+                .withProperty("payment.consumer.mode", "record")
+                .withProperty("payment.cache.redis.enabled", "true")
+                .withProperty("payment.consumer.batch.transaction.enabled", "true");
+
+        assertThat(AotConditionGuard.mismatches(recorded(build), runtime)).containsExactly(
+                "payment.consumer.batch.transaction.enabled built as null, configured as true",
+                "payment.cache.redis.enabled built as false, configured as true");
+    }
+
+    private static Properties recorded(MockEnvironment build) throws IOException {
+        Properties recorded = new Properties();
+        recorded.load(new StringReader(AotConditionGuard.record(build)));
+        return recorded;
+    }
+}
@@ -0,0 +1,110 @@
+package com.innowise.paymentservice.config;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.ReplaceOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MongoLiquibaseConfigTest {
+
+    private static final String CHANGELOG = "migration/v1/master.yaml";
+
+    private MongoClient mongoClient;
+    private MongoDatabaseFactory mongoDatabaseFactory;
+    private MongoDatabase mongoDatabase;
+    private MongoCollection<Document> checksums;
+    private FindIterable<Document> applied;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoClient = mock(MongoClient.class);
+        mongoDatabaseFactory = mock(MongoDatabaseFactory.class);
+        mongoDatabase = mock(MongoDatabase.class);
+        checksums = mock(MongoCollection.class);
+        applied = mock(FindIterable.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(mongoDatabaseFactory.getMongoDatabase()).thenReturn(mongoDatabase);
+        when(mongoDatabase.getCollection(MongoLiquibaseConfig.CHECKSUM_COLLECTION)).thenReturn(checksums);
+        when(checksums.find(any(Bson.class))).thenReturn(applied);
+    }
+
+    @Test
+    void changelogChecksum_shouldBeStableSha256OfChangelogDirectory() {
+        String checksum = MongoLiquibaseConfig.changelogChecksum("migration/v1/master.yaml");
+
+        assertThat(checksum).hasSize(64)
+                .isEqualTo(MongoLiquibaseConfig.changelogChecksum("migration/v1/master.yaml"))
+                .isEqualTo(MongoLiquibaseConfig.changelogChecksum("migration/v1-copy/master.yaml"));
+    }
+
+    @Test
+    void changelogChecksum_shouldChangeWhenIncludedChangelogChanges() {
+        assertThat(MongoLiquibaseConfig.changelogChecksum("migration/v2/master.yaml"))
+                .isNotEqualTo(MongoLiquibaseConfig.changelogChecksum("migration/v1/master.yaml"));
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldNotTouchDatabaseWhenDisabledAtRuntime() {
+        new MongoLiquibaseConfig(mongoClient, mongoDatabaseFactory, meterRegistry, false,
+                CHANGELOG, true).afterSingletonsInstantiated();
+
+        verifyNoInteractions(mongoClient, mongoDatabaseFactory);
+        assertThat(meterRegistry.find("payment.migration.duration").timer()).isNull();
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldSkipLiquibaseWhenChangelogUnchanged() {
+        when(applied.first()).thenReturn(new Document("_id", CHANGELOG)
+                .append("checksum", MongoLiquibaseConfig.changelogChecksum(CHANGELOG)));
+        MongoLiquibaseConfig config = spy(new MongoLiquibaseConfig(mongoClient, mongoDatabaseFactory, meterRegistry,
+                true, CHANGELOG, true));
+
+        config.afterSingletonsInstantiated();
+
+        verify(config, never()).createLiquibase(any());
+        verify(checksums, never()).replaceOne(any(Bson.class), any(Document.class), any(ReplaceOptions.class));
+        assertThat(meterRegistry.get("payment.migration.duration").tag("outcome", "skipped").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldApplyAndStoreChecksumWhenChangelogChanged() throws Exception {
+        when(applied.first()).thenReturn(new Document("_id", CHANGELOG).append("checksum", "outdated"));
+        Liquibase liquibase = mock(Liquibase.class);
+        MongoLiquibaseConfig config = spy(new MongoLiquibaseConfig(mongoClient, mongoDatabaseFactory, meterRegistry,
+                true, CHANGELOG, true));
+        doReturn(liquibase).when(config).createLiquibase(mongoDatabase);
+
+        config.afterSingletonsInstantiated();
+
+        verify(liquibase).update(any(Contexts.class), any(LabelExpression.class));
+        ArgumentCaptor<Document> stored = ArgumentCaptor.forClass(Document.class);
+        verify(checksums).replaceOne(any(Bson.class), stored.capture(), any(ReplaceOptions.class));
+        assertThat(stored.getValue().getString("checksum")).isEqualTo(MongoLiquibaseConfig.changelogChecksum(CHANGELOG));
+        assertThat(meterRegistry.get("payment.migration.duration").tag("outcome", "applied").timer().count())
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.innowise.paymentservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RandomNumberPoolTest {
+
+    private RandomNumberClient client;
+    private SimpleMeterRegistry meterRegistry;
+    private RandomNumberPool pool;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(RandomNumberClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        pool = new RandomNumberPool(client, 8, 2, meterRegistry);
+    }
+
+    @Test
+    void next_shouldServeRemainingNumbersFromPool() {
+        when(client.fetchRandomNumbers()).thenReturn(Mono.just(List.of(1, 2, 3, 4)));
+        when(client.prefetchRandomNumbers()).thenReturn(Mono.empty());
+
+        StepVerifier.create(pool.next()).expectNext(1).verifyComplete();
+        StepVerifier.create(pool.next()).expectNext(2).verifyComplete();
+        StepVerifier.create(pool.next()).expectNext(3).verifyComplete();
+
+        verify(client, times(1)).fetchRandomNumbers();
+        verify(client, times(1)).prefetchRandomNumbers();
+        assertThat(pool.depth()).isEqualTo(1);
+    }
+
+    @Test
+    void next_shouldRefillInBackgroundBelowLowWaterMark() {
+        when(client.fetchRandomNumbers()).thenReturn(Mono.just(List.of(1)));
+        when(client.prefetchRandomNumbers()).thenReturn(Mono.just(List.of(5, 6, 7)));
+
+        StepVerifier.create(pool.next()).expectNext(1).verifyComplete();
+
+        verify(client, times(1)).prefetchRandomNumbers();
+        assertThat(pool.depth()).isEqualTo(3);
+        assertThat(meterRegistry.get("random.pool.depth").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("random.pool.refill").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void next_shouldDegradeToFallbackNumbersWhenPoolIsDry() {
+        when(client.fetchRandomNumbers()).thenReturn(Mono.just(List.of(1)));
+        when(client.prefetchRandomNumbers()).thenReturn(Mono.empty());
+
+        StepVerifier.create(pool.next()).expectNext(1).verifyComplete();
+        assertThat(meterRegistry.get("random.pool.misses").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void next_shouldNotPoolAnythingWhenRefillFails() {
+        when(client.fetchRandomNumbers()).thenReturn(Mono.just(List.of(1)));
+        when(client.prefetchRandomNumbers()).thenReturn(Mono.error(new IllegalStateException("circuit open")));
+
+        StepVerifier.create(pool.next()).expectNext(1).verifyComplete();
+
+        assertThat(pool.depth()).isZero();
+        assertThat(meterRegistry.get("random.pool.refill").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void next_shouldRefillAgainAfterPrefetchThrew() {
+        when(client.fetchRandomNumbers()).thenReturn(Mono.just(List.of(1)));
+        when(client.prefetchRandomNumbers())
+                .thenThrow(new IllegalStateException("client misconfigured"))
+                .thenReturn(null)
+                .thenReturn(Mono.just(List.of(5, 6, 7)));
+
+        StepVerifier.create(pool.next()).expectNext(1).verifyComplete();
+        StepVerifier.create(pool.next()).expectNext(1).verifyComplete();
+        assertThat(pool.depth()).isZero();
+
+        StepVerifier.create(pool.next()).expectNext(1).verifyComplete();
+
+        verify(client, times(3)).prefetchRandomNumbers();
+        assertThat(pool.depth()).isEqualTo(3);
+    }
+
+    @Test
+    void ringBuffer_shouldRespectCapacityAndWrapAround() {
+        RandomNumberRingBuffer buffer = new RandomNumberRingBuffer(3);
+
+        assertThat(buffer.capacity()).isEqualTo(4);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertThat(buffer.offer(i)).isTrue();
+            }
+            assertThat(buffer.offer(99)).isFalse();
+            for (int i = 0; i < 4; i++) {
+                assertThat(buffer.poll()).isEqualTo(i);
+            }
+            assertThat(buffer.poll()).isEqualTo(RandomNumberRingBuffer.EMPTY);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.innowise.paymentservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestHedgerTest {
+
+    private static final Duration MIN_DELAY = Duration.ofMillis(5);
+    private static final Duration MAX_DELAY = Duration.ofMillis(500);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void hedge_shouldSendSecondRequestWhenFirstIsSlowAndTakeFirstAnswer() {
+        RequestHedger hedger = hedger(true, 0.05);
+        AtomicInteger requests = new AtomicInteger();
+        Supplier<Mono<String>> request = () -> requests.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(10)).thenReturn("slow")
+                : Mono.just("hedged");
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge(request))
+                .thenAwait(MAX_DELAY)
+                .expectNext("hedged")
+                .verifyComplete();
+
+        assertThat(requests).hasValue(2);
+        assertThat(count("random.api.hedge.sent")).isEqualTo(1);
+        assertThat(count("random.api.hedge.wins")).isEqualTo(1);
+    }
+
+    @Test
+    void hedge_shouldNotHedgeFastRequests() {
+        RequestHedger hedger = hedger(true, 0.05);
+        AtomicInteger requests = new AtomicInteger();
+
+        StepVerifier.create(hedger.hedge(() -> Mono.just(requests.incrementAndGet())))
+                .expectNext(1)
+                .verifyComplete();
+
+        assertThat(count("random.api.hedge.calls")).isEqualTo(1);
+        assertThat(count("random.api.hedge.sent")).isZero();
+    }
+
+    @Test
+    void hedge_shouldIgnoreFailedHedge() {
+        RequestHedger hedger = hedger(true, 0.05);
+        AtomicInteger requests = new AtomicInteger();
+        Supplier<Mono<String>> request = () -> requests.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(1)).thenReturn("first")
+                : Mono.error(new IllegalStateException("API error"));
+
+        StepVerifier.withVirtualTime(() -> hedger.hedge(request))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext("first")
+                .verifyComplete();
+
+        assertThat(count("random.api.hedge.sent")).isEqualTo(1);
+        assertThat(count("random.api.hedge.wins")).isZero();
+    }
+
+    @Test
+    void hedge_shouldStopHedgingWhenBudgetIsSpent() {
+        RequestHedger hedger = hedger(true, 0);
+        Supplier<Mono<String>> slow = () -> Mono.delay(Duration.ofSeconds(1)).thenReturn("slow");
+
+        for (int call = 0; call < RequestHedger.MAX_TOKENS + 5; call++) {
+            StepVerifier.withVirtualTime(() -> hedger.hedge(slow))
+                    .thenAwait(Duration.ofSeconds(1))
+                    .expectNext("slow")
+                    .verifyComplete();
+        }
+
+        assertThat(count("random.api.hedge.sent")).isEqualTo(RequestHedger.MAX_TOKENS);
+    }
+
+    @Test
+    void hedgeDelay_shouldFollowObservedLatencyWithinBounds() {
+        RequestHedger hedger = hedger(true, 0.05);
+        assertThat(hedger.hedgeDelay()).isEqualTo(MAX_DELAY);
+
+        for (int call = 0; call < RequestHedger.MIN_SAMPLES; call++) {
+            hedger.hedge(() -> Mono.just("fast")).block();
+        }
+
+        assertThat(hedger.hedgeDelay()).isEqualTo(MIN_DELAY);
+    }
+
+    @Test
+    void hedgeDelay_shouldCountCancelledRequests() {
+        RequestHedger hedger = hedger(true, 0.05);
+
+        for (int call = 0; call < RequestHedger.MIN_SAMPLES; call++) {
+            hedger.hedge(Mono::<String>never)
+                    .timeout(Duration.ofMillis(20), Mono.just("timed out"))
+                    .block();
+        }
+
+        assertThat(hedger.hedgeDelay()).isBetween(Duration.ofMillis(20), MAX_DELAY.minusMillis(1));
+    }
+
+    @Test
+    void hedgeDelay_shouldMeasureFromActualSend() {
+        RequestHedger hedger = hedger(true, 0.05);
+
+        for (int call = 0; call < RequestHedger.MIN_SAMPLES; call++) {
+            // queued for 10ms before the send, synchronously so that the sample is recorded before block() returns
+            hedger.hedge(sent -> Mono.fromSupplier(() -> {
+                        LockSupport.parkNanos(Duration.ofMillis(10).toNanos());
+                        sent.run();
+                        return "fast";
+                    }))
+                    .block();
+        }
+
+        assertThat(hedger.hedgeDelay()).isEqualTo(MIN_DELAY);
+    }
+
+    @Test
+    void hedge_shouldPassThroughWhenDisabled() {
+        RequestHedger hedger = hedger(false, 0.05);
+
+        StepVerifier.create(hedger.hedge(() -> Mono.just("value"))).expectNext("value").verifyComplete();
+
+        assertThat(count("random.api.hedge.calls")).isZero();
+    }
+
+    private RequestHedger hedger(boolean enabled, double budget) {
+        return new RequestHedger("random.api", enabled, 0.95, MIN_DELAY, MAX_DELAY, budget, 64, meterRegistry);
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+}
@@ -0,0 +1,89 @@
+package com.innowise.paymentservice.consumer;
+
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParallelPaymentConsumerTest {
+
+    private OrderEventProcessor orderEventProcessor;
+    private ParallelPaymentConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        orderEventProcessor = mock(OrderEventProcessor.class);
+        when(orderEventProcessor.isValid(any())).thenAnswer(invocation -> invocation.getArgument(0) != null);
+        consumer = new ParallelPaymentConsumer(orderEventProcessor, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.shutdown();
+    }
+
+    @Test
+    void shouldProcessEventsOfSameOrderInOffsetOrder() {
+        OrderEvent first = new OrderEvent(1L, 10L, BigDecimal.ONE);
+        OrderEvent second = new OrderEvent(1L, 10L, BigDecimal.TEN);
+        OrderEvent other = new OrderEvent(2L, 20L, BigDecimal.ONE);
+        when(orderEventProcessor.isDuplicate(any())).thenReturn(false);
+
+        consumer.listen(List.of(record(0, first), record(1, other), record(2, second)));
+
+        InOrder sameKey = inOrder(orderEventProcessor);
+        sameKey.verify(orderEventProcessor).processNew(eq(first), anyLong());
+        sameKey.verify(orderEventProcessor).processNew(eq(second), anyLong());
+        verify(orderEventProcessor).processNew(eq(other), anyLong());
+    }
+
+    @Test
+    void shouldSkipDuplicatesAndNullValues() {
+        OrderEvent duplicate = new OrderEvent(1L, 10L, BigDecimal.ONE);
+        when(orderEventProcessor.isDuplicate(duplicate)).thenReturn(true);
+
+        consumer.listen(List.of(record(0, duplicate), record(1, null)));
+
+        verify(orderEventProcessor, never()).processNew(any(), anyLong());
+    }
+
+    @Test
+    void shouldReportFirstFailedIndexAndStopItsKeyGroup() {
+        OrderEvent ok = new OrderEvent(1L, 10L, BigDecimal.ONE);
+        OrderEvent failing = new OrderEvent(2L, 20L, BigDecimal.ONE);
+        OrderEvent sameKeyAfterFailure = new OrderEvent(2L, 20L, BigDecimal.TEN);
+        when(orderEventProcessor.isDuplicate(any())).thenReturn(false);
+        doThrow(new IllegalStateException("boom")).when(orderEventProcessor).processNew(eq(failing), anyLong());
+
+        List<ConsumerRecord<String, OrderEvent>> records =
+                List.of(record(0, ok), record(1, failing), record(2, sameKeyAfterFailure));
+
+        assertThatThrownBy(() -> consumer.listen(records))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        ex -> assertThat(ex.getIndex()).isEqualTo(1));
+        verify(orderEventProcessor).processNew(eq(ok), anyLong());
+        verify(orderEventProcessor, never()).processNew(eq(sameKeyAfterFailure), anyLong());
+    }
+
+    private static ConsumerRecord<String, OrderEvent> record(long offset, OrderEvent event) {
+        return new ConsumerRecord<>("create-order", 0, offset, null, event);
+    }
+}
@@ -0,0 +1,280 @@
+package com.innowise.paymentservice.consumer;
+
+import com.innowise.paymentservice.exception.ConcurrencyLimitExceededException;
+import com.innowise.paymentservice.metrics.PipelineMetrics;
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import com.innowise.paymentservice.outbox.PaymentOutbox;
+import com.innowise.paymentservice.producer.PaymentProducer;
+import com.innowise.paymentservice.service.PaymentDecisionEngine;
+import com.innowise.paymentservice.service.PaymentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentBatchConsumerTest {
+
+    private PaymentService paymentService;
+    private PaymentProducer paymentProducer;
+    private PaymentDecisionEngine paymentDecisionEngine;
+    private SimpleMeterRegistry meterRegistry;
+    private PipelineMetrics metrics;
+    private PaymentBatchConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        paymentService = mock(PaymentService.class);
+        paymentProducer = mock(PaymentProducer.class);
+        paymentDecisionEngine = mock(PaymentDecisionEngine.class);
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new PipelineMetrics(meterRegistry);
+        consumer = new PaymentBatchConsumer(paymentService, paymentProducer, paymentDecisionEngine,
+                new PaymentOutbox("direct"), metrics, 4, false);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSkipDuplicatesAndProcessNewEventsInOneBulk() {
+        OrderEvent duplicate = new OrderEvent(1L, 10L, BigDecimal.ONE);
+        OrderEvent fresh = new OrderEvent(2L, 20L, BigDecimal.TEN);
+        PaymentDto saved = PaymentDto.builder().paymentId("PAYMENT-2").orderId(2L).status(PaymentStatus.SUCCESS).build();
+        PaymentEvent paymentEvent = new PaymentEvent("PAYMENT-2", 2L, PaymentStatus.SUCCESS);
+
+        when(paymentService.findProcessedOrderIds(anyCollection())).thenReturn(Set.of(1L));
+        when(paymentDecisionEngine.decide(any())).thenReturn(Mono.just(true));
+        when(paymentService.processOrderEvents(any(), anyBoolean())).thenReturn(List.of(saved));
+        when(paymentService.toPaymentEvent(saved)).thenReturn(paymentEvent);
+
+        consumer.listen(List.of(duplicate, fresh, fresh), List.of(1_000L, 2_000L, 3_000L));
+
+        ArgumentCaptor<Map<OrderEvent, Boolean>> decisions = ArgumentCaptor.forClass(Map.class);
+        verify(paymentService).processOrderEvents(decisions.capture(), eq(true));
+        assertThat(decisions.getValue()).containsExactly(Map.entry(fresh, true));
+        verify(paymentProducer).sendCreatePayment(paymentEvent, 2_000L);
+        verify(paymentService).markEventsSent(List.of("PAYMENT-2"));
+        assertThat(events("duplicate")).isEqualTo(2);
+        assertThat(events("processed")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotInsertWhenWholeBatchIsDuplicate() {
+        OrderEvent duplicate = new OrderEvent(1L, 10L, BigDecimal.ONE);
+
+        when(paymentService.findProcessedOrderIds(anyCollection())).thenReturn(Set.of(1L));
+
+        consumer.listen(List.of(duplicate), List.of());
+
+        verify(paymentService, never()).processOrderEvents(any(), anyBoolean());
+        verify(paymentProducer, never()).sendCreatePayment(any(), anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStoreEventsBeforeFirstUndecidedOneAndFailAtIt() {
+        OrderEvent decided = new OrderEvent(1L, 10L, BigDecimal.ONE);
+        OrderEvent undecided = new OrderEvent(2L, 20L, BigDecimal.TEN);
+        OrderEvent later = new OrderEvent(3L, 30L, BigDecimal.ONE);
+        List<OrderEvent> events = new ArrayList<>();
+        events.add(null);
+        events.add(decided);
+        events.add(undecided);
+        events.add(later);
+        PaymentDto saved = PaymentDto.builder().paymentId("PAYMENT-1").orderId(1L).status(PaymentStatus.FAILED).build();
+        PaymentEvent paymentEvent = new PaymentEvent("PAYMENT-1", 1L, PaymentStatus.FAILED);
+
+        when(paymentService.findProcessedOrderIds(anyCollection())).thenReturn(Set.of());
+        when(paymentDecisionEngine.decide(any())).thenReturn(Mono.just(false));
+        when(paymentDecisionEngine.decide(undecided)).thenReturn(Mono.error(new RuntimeException("API error")));
+        when(paymentService.processOrderEvents(any(), anyBoolean())).thenReturn(List.of(saved));
+        when(paymentService.toPaymentEvent(saved)).thenReturn(paymentEvent);
+
+        assertThatThrownBy(() -> consumer.listen(events, List.of()))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        ex -> assertThat(ex.getIndex()).isEqualTo(2));
+
+        ArgumentCaptor<Map<OrderEvent, Boolean>> decisions = ArgumentCaptor.forClass(Map.class);
+        verify(paymentService).processOrderEvents(decisions.capture(), eq(true));
+        assertThat(decisions.getValue()).containsExactly(Map.entry(decided, false));
+        verify(paymentProducer).sendCreatePayment(eq(paymentEvent), anyLong());
+        assertThat(events("failed")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotAcknowledgeBatchWhenInsertFails() {
+        OrderEvent duplicate = new OrderEvent(1L, 10L, BigDecimal.ONE);
+        OrderEvent fresh = new OrderEvent(2L, 20L, BigDecimal.TEN);
+
+        when(paymentService.findProcessedOrderIds(anyCollection())).thenReturn(Set.of(1L));
+        when(paymentDecisionEngine.decide(any())).thenReturn(Mono.just(true));
+        when(paymentService.processOrderEvents(any(), anyBoolean())).thenThrow(new IllegalStateException("mongo down"));
+
+        assertThatThrownBy(() -> consumer.listen(List.of(duplicate, fresh), List.of()))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, ex -> {
+                    assertThat(ex.getIndex()).isZero();
+                    assertThat(ex).hasRootCauseMessage("mongo down");
+                });
+
+        verify(paymentProducer, never()).sendCreatePayment(any(), anyLong());
+        verify(paymentService, never()).markEventsSent(any());
+        assertThat(events("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldResendUnsentEventsOfDuplicatesAfterFailedAttempt() {
+        OrderEvent stored = new OrderEvent(1L, 10L, BigDecimal.ONE);
+        PaymentEvent paymentEvent = new PaymentEvent("PAYMENT-1", 1L, PaymentStatus.FAILED);
+
+        when(paymentService.findProcessedOrderIds(anyCollection())).thenReturn(Set.of(1L));
+        when(paymentService.findUnsentEvents(Set.of(1L))).thenReturn(List.of(paymentEvent));
+
+        consumer.listen(List.of(stored), List.of(1_000L));
+
+        verify(paymentProducer).sendCreatePayment(paymentEvent, 1_000L);
+        verify(paymentService).markEventsSent(List.of("PAYMENT-1"));
+    }
+
+    @Test
+    void shouldLeavePublishingToRelayInOutboxMode() {
+        consumer = new PaymentBatchConsumer(paymentService, paymentProducer, paymentDecisionEngine,
+                new PaymentOutbox("outbox"), metrics, 4, false);
+        OrderEvent fresh = new OrderEvent(2L, 20L, BigDecimal.TEN);
+        PaymentDto saved = PaymentDto.builder().paymentId("PAYMENT-2").orderId(2L).status(PaymentStatus.SUCCESS).build();
+
+        when(paymentService.findProcessedOrderIds(anyCollection())).thenReturn(Set.of());
+        when(paymentDecisionEngine.decide(any())).thenReturn(Mono.just(true));
+        when(paymentService.processOrderEvents(any(), anyBoolean())).thenReturn(List.of(saved));
+
+        consumer.listen(List.of(fresh), List.of());
+
+        verify(paymentService).processOrderEvents(any(), anyBoolean());
+        verify(paymentProducer, never()).sendCreatePayment(any(), anyLong());
+    }
+
+    @Test
+    void shouldResendOnlyUnsentEventsOfDuplicatesInTransactionalMode() {
+        consumer = new PaymentBatchConsumer(paymentService, paymentProducer, paymentDecisionEngine,
+                new PaymentOutbox("direct"), metrics, 4, true);
+        OrderEvent aborted = new OrderEvent(1L, 10L, BigDecimal.ONE);
+        OrderEvent committed = new OrderEvent(3L, 30L, BigDecimal.ONE);
+        PaymentEvent paymentEvent = new PaymentEvent("PAYMENT-1", 1L, PaymentStatus.FAILED);
+
+        when(paymentService.findProcessedOrderIds(anyCollection())).thenReturn(Set.of(1L, 3L));
+        when(paymentService.findUnsentEvents(Set.of(1L, 3L))).thenReturn(List.of(paymentEvent));
+
+        inTransaction(() -> consumer.listen(List.of(aborted, committed), List.of()))
+                .forEach(TransactionSynchronization::afterCommit);
+
+        verify(paymentService, never()).processOrderEvents(any(), anyBoolean());
+        verify(paymentProducer).sendCreatePayment(eq(paymentEvent), anyLong());
+        verify(paymentProducer, never()).sendCreatePayment(argThat(event -> event.getOrderId() == 3L), anyLong());
+        verify(paymentService).markEventsSent(List.of("PAYMENT-1"));
+    }
+
+    @Test
+    void shouldTrackNewEventsAndClearThemOnlyAfterCommitInTransactionalMode() {
+        consumer = new PaymentBatchConsumer(paymentService, paymentProducer, paymentDecisionEngine,
+                new PaymentOutbox("direct"), metrics, 4, true);
+        OrderEvent fresh = new OrderEvent(2L, 20L, BigDecimal.TEN);
+        PaymentDto saved = PaymentDto.builder().paymentId("PAYMENT-2").orderId(2L).status(PaymentStatus.SUCCESS).build();
+        PaymentEvent paymentEvent = new PaymentEvent("PAYMENT-2", 2L, PaymentStatus.SUCCESS);
+
+        when(paymentService.findProcessedOrderIds(anyCollection())).thenReturn(Set.of());
+        when(paymentDecisionEngine.decide(any())).thenReturn(Mono.just(true));
+        when(paymentService.processOrderEvents(any(), eq(true))).thenReturn(List.of(saved));
+        when(paymentService.toPaymentEvent(saved)).thenReturn(paymentEvent);
+
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> consumer.listen(List.of(fresh), List.of()));
+
+        verify(paymentProducer).sendCreatePayment(eq(paymentEvent), anyLong());
+        verify(paymentService, never()).markEventsSent(any());
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        verify(paymentService).markEventsSent(List.of("PAYMENT-2"));
+    }
+
+    @Test
+    void shouldAbortTransactionWhenDecisionFailed() {
+        consumer = new PaymentBatchConsumer(paymentService, paymentProducer, paymentDecisionEngine,
+                new PaymentOutbox("direct"), metrics, 4, true);
+        OrderEvent fresh = new OrderEvent(2L, 20L, BigDecimal.TEN);
+
+        when(paymentService.findProcessedOrderIds(anyCollection())).thenReturn(Set.of());
+        when(paymentDecisionEngine.decide(any())).thenReturn(Mono.error(new RuntimeException("API error")));
+
+        assertThatThrownBy(() -> consumer.listen(List.of(fresh), List.of()))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(paymentService, never()).processOrderEvents(any(), anyBoolean());
+        verify(paymentProducer, never()).sendCreatePayment(any(), anyLong());
+    }
+
+    @Test
+    void shouldRethrowShedDecisionToRedeliverBatch() {
+        OrderEvent fresh = new OrderEvent(2L, 20L, BigDecimal.TEN);
+
+        when(paymentService.findProcessedOrderIds(anyCollection())).thenReturn(Set.of());
+        when(paymentDecisionEngine.decide(any()))
+                .thenReturn(Mono.error(new ConcurrencyLimitExceededException("random-api", 8, 256)));
+
+        assertThatThrownBy(() -> consumer.listen(List.of(fresh), List.of()))
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+
+        verify(paymentService, never()).processOrderEvents(any(), anyBoolean());
+        verify(paymentProducer, never()).sendCreatePayment(any(), anyLong());
+    }
+
+    @Test
+    void shouldRethrowInsertFailureInTransactionalMode() {
+        consumer = new PaymentBatchConsumer(paymentService, paymentProducer, paymentDecisionEngine,
+                new PaymentOutbox("direct"), metrics, 4, true);
+        OrderEvent fresh = new OrderEvent(2L, 20L, BigDecimal.TEN);
+
+        when(paymentService.findProcessedOrderIds(anyCollection())).thenReturn(Set.of());
+        when(paymentDecisionEngine.decide(any())).thenReturn(Mono.just(true));
+        when(paymentService.processOrderEvents(any(), anyBoolean())).thenThrow(new IllegalStateException("mongo down"));
+
+        assertThatThrownBy(() -> consumer.listen(List.of(fresh), List.of()))
+                .hasMessage("mongo down");
+
+        verify(paymentProducer, never()).sendCreatePayment(any(), anyLong());
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable listener) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listener.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private double events(String outcome) {
+        return meterRegistry.get("payment.pipeline.events").tag("outcome", outcome).counter().count();
+    }
+}
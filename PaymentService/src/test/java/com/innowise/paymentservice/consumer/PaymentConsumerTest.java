@@ -25,6 +25,7 @@ import java.time.Instant;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -78,13 +79,13 @@ class PaymentConsumerTest {
         when(paymentService.toPaymentEvent(paymentDto)).thenReturn(paymentEvent);
 
         // when
-        paymentConsumer.listen(orderEvent);
+        paymentConsumer.listen(orderEvent, 1_000L);
 
         // then
         verify(randomNumberService, times(1)).isEven();
         verify(paymentService, times(1)).processOrderEvent(orderEvent, true);
         verify(paymentService, times(1)).toPaymentEvent(paymentDto);
-        verify(paymentProducer, times(1)).sendCreatePayment(paymentEvent);
+        verify(paymentProducer, times(1)).sendCreatePayment(paymentEvent, 1_000L);
     }
 
     @Test
@@ -98,13 +99,13 @@ class PaymentConsumerTest {
         when(paymentService.isAlreadyProcessed(orderEvent.getOrderId())).thenReturn(true);
 
         // when
-        paymentConsumer.listen(orderEvent);
+        paymentConsumer.listen(orderEvent, 1_000L);
 
         // then: остальные методы НЕ вызываются
         verify(paymentService, times(1)).isAlreadyProcessed(orderEvent.getOrderId());
         verify(paymentService, times(0)).processOrderEvent(any(), anyBoolean());
         verify(paymentService, times(0)).toPaymentEvent(any());
-        verify(paymentProducer, times(0)).sendCreatePayment(any());
+        verify(paymentProducer, times(0)).sendCreatePayment(any(), anyLong());
     }
 
 }
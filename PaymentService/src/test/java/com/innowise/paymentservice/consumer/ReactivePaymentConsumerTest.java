@@ -0,0 +1,175 @@
+package com.innowise.paymentservice.consumer;
+
+import com.innowise.paymentservice.exception.PaymentAlreadyProcessedException;
+import com.innowise.paymentservice.metrics.PipelineMetrics;
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import com.innowise.paymentservice.outbox.PaymentOutbox;
+import com.innowise.paymentservice.service.PaymentDecisionEngine;
+import com.innowise.paymentservice.service.PaymentService;
+import com.innowise.paymentservice.service.ReactivePaymentService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderResult;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactivePaymentConsumerTest {
+
+    private KafkaSender<String, PaymentEvent> kafkaSender;
+    private ReactivePaymentService reactivePaymentService;
+    private PaymentService paymentService;
+    private PaymentDecisionEngine paymentDecisionEngine;
+    private KafkaTemplate<String, OrderEvent> orderEventKafkaTemplate;
+    private ReactivePaymentConsumer consumer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaSender = mock(KafkaSender.class);
+        reactivePaymentService = mock(ReactivePaymentService.class);
+        paymentService = mock(PaymentService.class);
+        paymentDecisionEngine = mock(PaymentDecisionEngine.class);
+        orderEventKafkaTemplate = mock(KafkaTemplate.class);
+        consumer = new ReactivePaymentConsumer(ReceiverOptions.create(), kafkaSender, reactivePaymentService,
+                paymentService, paymentDecisionEngine, new PaymentOutbox("direct"),
+                new PipelineMetrics(new SimpleMeterRegistry()), orderEventKafkaTemplate, "create-payment");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void process_shouldPersistAndSendBeforeCompleting() {
+        OrderEvent event = new OrderEvent(1L, 2L, BigDecimal.TEN);
+        ReceiverRecord<String, OrderEvent> receiverRecord = receiverRecord(event);
+        PaymentDto dto = PaymentDto.builder().paymentId("PAYMENT-1").orderId(1L).status(PaymentStatus.SUCCESS).build();
+        PaymentEvent paymentEvent = new PaymentEvent("PAYMENT-1", 1L, PaymentStatus.SUCCESS);
+        SenderResult<String> result = mock(SenderResult.class);
+
+        when(reactivePaymentService.isAlreadyProcessed(1L)).thenReturn(Mono.just(false));
+        when(paymentDecisionEngine.decide(any())).thenReturn(Mono.just(true));
+        when(reactivePaymentService.processOrderEvent(event, true)).thenReturn(Mono.just(dto));
+        when(paymentService.toPaymentEvent(dto)).thenReturn(paymentEvent);
+        when(kafkaSender.<String>send(any())).thenReturn(Flux.just(result));
+        when(reactivePaymentService.markEventSent("PAYMENT-1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(consumer.process(receiverRecord))
+                .expectNext(receiverRecord)
+                .verifyComplete();
+        verify(kafkaSender).send(any());
+        verify(reactivePaymentService).markEventSent("PAYMENT-1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void process_shouldResendEventOfProcessedOrderThatWasNeverAcknowledged() {
+        OrderEvent event = new OrderEvent(1L, 2L, BigDecimal.TEN);
+        ReceiverRecord<String, OrderEvent> receiverRecord = receiverRecord(event);
+        PaymentEvent paymentEvent = new PaymentEvent("PAYMENT-1", 1L, PaymentStatus.SUCCESS);
+        SenderResult<String> result = mock(SenderResult.class);
+
+        when(reactivePaymentService.isAlreadyProcessed(1L)).thenReturn(Mono.just(true));
+        when(reactivePaymentService.findUnsentEvent(1L)).thenReturn(Mono.just(paymentEvent));
+        when(kafkaSender.<String>send(any())).thenReturn(Flux.just(result));
+        when(reactivePaymentService.markEventSent("PAYMENT-1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(consumer.process(receiverRecord))
+                .expectNext(receiverRecord)
+                .verifyComplete();
+        verify(reactivePaymentService, never()).processOrderEvent(any(), anyBoolean());
+        verify(reactivePaymentService).markEventSent("PAYMENT-1");
+    }
+
+    @Test
+    void process_shouldFailWithoutAcknowledgingWhenSendFails() {
+        OrderEvent event = new OrderEvent(1L, 2L, BigDecimal.TEN);
+        ReceiverRecord<String, OrderEvent> receiverRecord = receiverRecord(event);
+        PaymentEvent paymentEvent = new PaymentEvent("PAYMENT-1", 1L, PaymentStatus.SUCCESS);
+
+        when(reactivePaymentService.isAlreadyProcessed(1L)).thenReturn(Mono.just(true));
+        when(reactivePaymentService.findUnsentEvent(1L)).thenReturn(Mono.just(paymentEvent));
+        when(kafkaSender.<String>send(any())).thenReturn(Flux.error(new IllegalStateException("broker down")));
+
+        StepVerifier.create(consumer.process(receiverRecord))
+                .verifyError(IllegalStateException.class);
+        verify(reactivePaymentService, never()).markEventSent(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void handle_shouldPublishToDeadLetterTopicOnceRetriesAreExhausted() {
+        OrderEvent event = new OrderEvent(1L, 2L, BigDecimal.TEN);
+        ReceiverRecord<String, OrderEvent> receiverRecord = receiverRecord(event);
+
+        when(reactivePaymentService.isAlreadyProcessed(1L))
+                .thenReturn(Mono.error(new IllegalStateException("mongo down")));
+        when(orderEventKafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        StepVerifier.withVirtualTime(() -> consumer.handle(receiverRecord))
+                .thenAwait(Duration.ofSeconds(10))
+                .expectNext(receiverRecord)
+                .verifyComplete();
+        verify(reactivePaymentService, times(4)).isAlreadyProcessed(1L);
+        verify(orderEventKafkaTemplate).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    void process_shouldSkipDuplicatesWithoutSending() {
+        OrderEvent event = new OrderEvent(1L, 2L, BigDecimal.TEN);
+        ReceiverRecord<String, OrderEvent> receiverRecord = receiverRecord(event);
+
+        when(reactivePaymentService.isAlreadyProcessed(1L)).thenReturn(Mono.just(true));
+        when(reactivePaymentService.findUnsentEvent(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(consumer.process(receiverRecord))
+                .expectNext(receiverRecord)
+                .verifyComplete();
+        verify(reactivePaymentService, never()).processOrderEvent(any(), anyBoolean());
+        verify(kafkaSender, never()).send(any());
+    }
+
+    @Test
+    void process_shouldSkipRaceLostOnInsert() {
+        OrderEvent event = new OrderEvent(1L, 2L, BigDecimal.TEN);
+        ReceiverRecord<String, OrderEvent> receiverRecord = receiverRecord(event);
+
+        when(reactivePaymentService.isAlreadyProcessed(1L)).thenReturn(Mono.just(false));
+        when(paymentDecisionEngine.decide(any())).thenReturn(Mono.just(false));
+        when(reactivePaymentService.processOrderEvent(event, false))
+                .thenReturn(Mono.error(new PaymentAlreadyProcessedException(1L, null)));
+        when(reactivePaymentService.findUnsentEvent(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(consumer.process(receiverRecord))
+                .expectNext(receiverRecord)
+                .verifyComplete();
+        verify(kafkaSender, never()).send(any());
+    }
+
+    private ReceiverRecord<String, OrderEvent> receiverRecord(OrderEvent event) {
+        return new ReceiverRecord<>(new ConsumerRecord<>("create-order", 0, 5L, "key", event), mock(ReceiverOffset.class));
+    }
+}
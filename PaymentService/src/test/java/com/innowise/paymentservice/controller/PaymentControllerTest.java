@@ -0,0 +1,115 @@
+package com.innowise.paymentservice.controller;
+
+import com.innowise.paymentservice.exception.InvalidQueryException;
+import com.innowise.paymentservice.model.PaymentGrouping;
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import com.innowise.paymentservice.model.dto.PaymentPageDto;
+import com.innowise.paymentservice.model.dto.PaymentTotalDto;
+import com.innowise.paymentservice.service.PaymentService;
+import com.innowise.paymentservice.service.ReactivePaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PaymentControllerTest {
+
+    private PaymentService paymentService;
+    private ReactivePaymentService reactivePaymentService;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        paymentService = mock(PaymentService.class);
+        reactivePaymentService = mock(ReactivePaymentService.class);
+        client = WebTestClient.bindToController(new PaymentController(paymentService, reactivePaymentService))
+                .controllerAdvice(new RestExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void shouldReturnPaymentByOrderIdOr404() {
+        PaymentDto dto = PaymentDto.builder().paymentId("PAYMENT-1").orderId(1L).build();
+        when(paymentService.getByOrderId(1L)).thenReturn(List.of(dto));
+        when(paymentService.getByOrderId(2L)).thenReturn(List.of());
+
+        client.get().uri("/api/v1/payments/order/1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.paymentId").isEqualTo("PAYMENT-1")
+                .jsonPath("$.orderId").isEqualTo(1);
+        client.get().uri("/api/v1/payments/order/2").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldStreamPaymentsByStatusAsNdjson() {
+        PaymentDto first = PaymentDto.builder().paymentId("PAYMENT-2").status(PaymentStatus.SUCCESS).build();
+        PaymentDto second = PaymentDto.builder().paymentId("PAYMENT-1").status(PaymentStatus.SUCCESS).build();
+        when(reactivePaymentService.findByStatuses(Set.of(PaymentStatus.SUCCESS))).thenReturn(Flux.just(first, second));
+
+        List<PaymentDto> result = client.get().uri("/api/v1/payments/status?statuses=SUCCESS")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(PaymentDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(result).extracting(PaymentDto::getPaymentId).containsExactly("PAYMENT-2", "PAYMENT-1");
+    }
+
+    @Test
+    void shouldReturnPageWithNextCursor() {
+        PaymentPageDto page = new PaymentPageDto(List.of(PaymentDto.builder().paymentId("PAYMENT-3").build()), "abc");
+        when(paymentService.getPageByUserId(7L, null, 1)).thenReturn(page);
+
+        client.get().uri("/api/v1/payments/user/7/page?size=1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].paymentId").isEqualTo("PAYMENT-3")
+                .jsonPath("$.nextCursor").isEqualTo("abc");
+    }
+
+    @Test
+    void shouldReturnTotalsAndRejectInvertedRange() {
+        Instant from = Instant.parse("2026-10-18T00:00:00Z");
+        Instant to = Instant.parse("2026-10-18T12:00:00Z");
+        PaymentTotalDto success = new PaymentTotalDto("SUCCESS", BigDecimal.TEN, 2);
+        when(paymentService.getTotalsBetween(from, to, PaymentGrouping.STATUS)).thenReturn(List.of(success));
+
+        client.get().uri("/api/v1/payments/totals?from={from}&to={to}", from, to).exchange()
+                .expectStatus().isOk()
+                .expectBodyList(PaymentTotalDto.class).contains(success).hasSize(1);
+        client.get().uri("/api/v1/payments/totals?from={from}&to={to}", to, from).exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void shouldMapOnlyInvalidQueryToBadRequestWithFixedMessage() {
+        when(paymentService.getPageByUserId(7L, "bad", 1))
+                .thenThrow(new InvalidQueryException("Invalid payment cursor", new NumberFormatException("bad")));
+        when(paymentService.getPageByUserId(8L, null, 1))
+                .thenThrow(new IllegalArgumentException("internal detail"));
+
+        client.get().uri("/api/v1/payments/user/7/page?size=1&cursor=bad").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Invalid payment cursor");
+        client.get().uri("/api/v1/payments/user/8/page?size=1").exchange()
+                .expectStatus().is5xxServerError();
+    }
+}
@@ -0,0 +1,53 @@
+package com.innowise.paymentservice.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderIdBloomFilterTest {
+
+    @Test
+    void mightContain_shouldNeverReturnFalseNegatives() {
+        OrderIdBloomFilter filter = new OrderIdBloomFilter(10_000, 0.01);
+
+        for (long orderId = 1; orderId <= 10_000; orderId++) {
+            filter.put(orderId);
+        }
+
+        for (long orderId = 1; orderId <= 10_000; orderId++) {
+            assertThat(filter.mightContain(orderId)).isTrue();
+        }
+    }
+
+    @Test
+    void mightContain_shouldKeepFalsePositiveRateNearConfiguredValue() {
+        OrderIdBloomFilter filter = new OrderIdBloomFilter(10_000, 0.01);
+        for (long orderId = 1; orderId <= 10_000; orderId++) {
+            filter.put(orderId);
+        }
+
+        int falsePositives = 0;
+        for (long orderId = 1_000_000; orderId < 1_100_000; orderId++) {
+            if (filter.mightContain(orderId)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void constructor_shouldSizeFilterFromConfiguration() {
+        OrderIdBloomFilter filter = new OrderIdBloomFilter(1_000, 0.01);
+
+        assertThat(filter.bitSize()).isGreaterThanOrEqualTo(9_586);
+        assertThat(filter.hashFunctions()).isEqualTo(7);
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidFalsePositiveRate() {
+        assertThatThrownBy(() -> new OrderIdBloomFilter(1_000, 1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,163 @@
+package com.innowise.paymentservice.flow;
+
+import com.innowise.paymentservice.producer.PaymentProducer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConsumerFlowControllerTest {
+
+    private MeterRegistry meterRegistry;
+    private PaymentProducer paymentProducer;
+    private MessageListenerContainer container;
+    private ConsumerFlowController controller;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        paymentProducer = mock(PaymentProducer.class);
+        container = mock(MessageListenerContainer.class);
+        when(container.isRunning()).thenReturn(true);
+        KafkaListenerEndpointRegistry listenerRegistry = mock(KafkaListenerEndpointRegistry.class);
+        when(listenerRegistry.getListenerContainers()).thenReturn(List.of(container));
+
+        controller = new ConsumerFlowController(listenerRegistry, paymentProducer, meterRegistry,
+                Duration.ofMillis(500), Duration.ofMillis(100), Duration.ofSeconds(1), 100, 0.5, 2, 2, 8);
+    }
+
+    @Test
+    void shouldPauseOnSlowMongoWritesAndResumeOnceRecovered() {
+        mongoCommand("insert", Duration.ofMillis(300));
+
+        controller.evaluate();
+
+        assertThat(controller.isPaused()).isTrue();
+        verify(container).pause();
+        assertThat(meterRegistry.get("payment.flow.pauses").tag("reason", "mongo").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("payment.flow.paused").gauge().value()).isEqualTo(1);
+
+        mongoCommand("insert", Duration.ofMillis(20));
+        controller.evaluate();
+        assertThat(controller.isPaused()).isTrue();
+
+        mongoCommand("insert", Duration.ofMillis(20));
+        controller.evaluate();
+
+        assertThat(controller.isPaused()).isFalse();
+        verify(container).resume();
+    }
+
+    @Test
+    void shouldNotCountIntervalsWithoutSamplesAsRecovered() {
+        mongoCommand("insert", Duration.ofMillis(300));
+        controller.evaluate();
+
+        controller.evaluate();
+
+        assertThat(controller.isPaused()).isTrue();
+        verify(container, never()).resume();
+    }
+
+    @Test
+    void shouldProbeIdleDownstreamAndBackOffWhenProbeFails() {
+        mongoCommand("insert", Duration.ofMillis(300));
+        controller.evaluate();
+
+        controller.evaluate();
+        controller.evaluate();
+        assertThat(controller.isPaused()).isFalse();
+
+        mongoCommand("insert", Duration.ofMillis(300));
+        controller.evaluate();
+        assertThat(controller.isPaused()).isTrue();
+
+        for (int i = 0; i < 3; i++) {
+            controller.evaluate();
+        }
+        assertThat(controller.isPaused()).isTrue();
+        controller.evaluate();
+        assertThat(controller.isPaused()).isFalse();
+    }
+
+    @Test
+    void shouldStayPausedUntilBelowResumeRatio() {
+        mongoCommand("update", Duration.ofMillis(150));
+        controller.evaluate();
+
+        mongoCommand("update", Duration.ofMillis(80));
+        controller.evaluate();
+
+        assertThat(controller.isPaused()).isTrue();
+        verify(container, never()).resume();
+    }
+
+    @Test
+    void shouldIgnoreMongoReads() {
+        mongoCommand("find", Duration.ofSeconds(2));
+
+        controller.evaluate();
+
+        assertThat(controller.isPaused()).isFalse();
+        verify(container, never()).pause();
+    }
+
+    @Test
+    void shouldPauseOnSlowRandomApiAndProducerBacklog() {
+        Timer.builder(ConsumerFlowController.RANDOM_API_REQUESTS).register(meterRegistry).record(Duration.ofSeconds(3));
+        controller.evaluate();
+        assertThat(meterRegistry.get("payment.flow.pauses").tag("reason", "random-api").counter().count()).isEqualTo(1);
+
+        when(paymentProducer.inFlightSends()).thenReturn(60);
+        controller.evaluate();
+        controller.evaluate();
+        assertThat(controller.isPaused()).isTrue();
+
+        when(paymentProducer.inFlightSends()).thenReturn(10);
+        controller.evaluate();
+        controller.evaluate();
+        assertThat(controller.isPaused()).isFalse();
+
+        when(paymentProducer.inFlightSends()).thenReturn(101);
+        controller.evaluate();
+        assertThat(meterRegistry.get("payment.flow.pauses").tag("reason", "producer").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldResumePausedContainersOnStop() {
+        when(paymentProducer.inFlightSends()).thenReturn(500);
+        controller.evaluate();
+
+        controller.stop();
+
+        assertThat(controller.isPaused()).isFalse();
+        verify(container).resume();
+    }
+
+    @Test
+    void shouldRejectInvalidResumeRatio() {
+        assertThatThrownBy(() -> new ConsumerFlowController(mock(KafkaListenerEndpointRegistry.class), paymentProducer,
+                meterRegistry, Duration.ofMillis(500), Duration.ofMillis(100), Duration.ofSeconds(1), 100, 1.5, 2, 2, 8))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void mongoCommand(String command, Duration latency) {
+        Timer.builder(ConsumerFlowController.MONGO_COMMANDS)
+                .tag("command", command)
+                .register(meterRegistry)
+                .record(latency);
+    }
+}
@@ -0,0 +1,325 @@
+package com.innowise.paymentservice.load;
+
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.serde.JsonEventSerializer;
+import com.innowise.paymentservice.serde.OrderEventJsonCodec;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sustained-throughput harness for the whole CREATE_ORDER -> Mongo -> CREATE_PAYMENT path.
+ * Starts the application against an embedded Kafka broker, a local Mongo container and an in-process random API
+ * stub, produces {@code load.events} order events and reports throughput, consumer lag over time and latency
+ * percentiles. Everything runs offline once the Mongo image is cached.
+ * <p>
+ * Tagged {@code load} and excluded from the default build, run with
+ * {@code mvn -Pload test -Dload.events=2000000 -Dload.mode=batch -Dload.min-throughput=20000}.
+ * <ul>
+ *     <li>{@code load.events} - order events to produce, default 1 000 000</li>
+ *     <li>{@code load.rate} - produce rate in events/s, 0 (default) produces as fast as the broker accepts</li>
+ *     <li>{@code load.mode} - {@code payment.consumer.mode} under test, default record</li>
+ *     <li>{@code load.engine} - {@code payment.decision.engine}, local takes the random API stub out of the path</li>
+ *     <li>{@code load.sample-interval} - lag sampling interval in seconds, default 5</li>
+ *     <li>{@code load.timeout} - minutes to wait for the consumer to catch up, default 30</li>
+ *     <li>{@code load.min-throughput}, {@code load.max-p99} - release gates in events/s and ms, 0 disables</li>
+ * </ul>
+ * The lag samples are written to {@code target/load-results/} as CSV next to the summary.
+ */
+@Tag("load")
+@Testcontainers
+@SpringBootTest(properties = {
+        "spring.kafka.consumer.group-id=" + PaymentThroughputLoadTest.GROUP,
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "spring.liquibase.enabled=true",
+        "payment.dedup.bloom.enabled=true",
+        "logging.level.com.innowise.paymentservice=WARN",
+        "logging.level.com.innowise.paymentservice.load=INFO"
+})
+@EmbeddedKafka(partitions = PaymentThroughputLoadTest.PARTITIONS,
+        topics = {"create_order", "create_payment"},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class PaymentThroughputLoadTest {
+
+    static final String GROUP = "payment-group";
+    static final int PARTITIONS = 8;
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentThroughputLoadTest.class);
+    private static final int RANDOM_BATCH = 1024;
+    private static final long PROGRESS_LOG_EVERY = 100_000;
+
+    private static final long EVENTS = Long.getLong("load.events", 1_000_000L);
+    private static final long RATE = Long.getLong("load.rate", 0L);
+    private static final int SAMPLE_INTERVAL_SECONDS = Integer.getInteger("load.sample-interval", 5);
+    private static final int TIMEOUT_MINUTES = Integer.getInteger("load.timeout", 30);
+    private static final double MIN_THROUGHPUT = Double.parseDouble(System.getProperty("load.min-throughput", "0"));
+    private static final double MAX_P99_MILLIS = Double.parseDouble(System.getProperty("load.max-p99", "0"));
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0.5");
+
+    private static final HttpServer randomApi = startRandomApiStub();
+
+    @DynamicPropertySource
+    static void overrideProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> mongoDBContainer.getReplicaSetUrl("payments-load"));
+        registry.add("random.api.url", () -> "http://localhost:" + randomApi.getAddress().getPort() + "/integers");
+        registry.add("payment.consumer.mode", () -> System.getProperty("load.mode", "record"));
+        registry.add("payment.decision.engine", () -> System.getProperty("load.engine", "remote"));
+    }
+
+    @AfterAll
+    static void stopRandomApi() {
+        randomApi.stop(0);
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.topics.create-order}")
+    private String createOrderTopic;
+
+    @Test
+    void shouldSustainThroughputOnFullPipeline() throws Exception {
+        List<Sample> samples = new ArrayList<>();
+        CompletableFuture<Long> producer;
+        long started = System.nanoTime();
+
+        try (AdminClient admin = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers))) {
+            producer = CompletableFuture.supplyAsync(this::produceOrderEvents);
+
+            long deadline = started + TimeUnit.MINUTES.toNanos(TIMEOUT_MINUTES);
+            long previousCompleted = 0;
+            while (completed() < EVENTS && !producer.isCompletedExceptionally() && System.nanoTime() < deadline) {
+                TimeUnit.SECONDS.sleep(SAMPLE_INTERVAL_SECONDS);
+                long completed = completed();
+                Sample sample = new Sample(Duration.ofNanos(System.nanoTime() - started), producedSoFar(admin),
+                        completed, lag(admin), (completed - previousCompleted) / (double) SAMPLE_INTERVAL_SECONDS);
+                samples.add(sample);
+                previousCompleted = completed;
+                logger.info("t={}s produced={} completed={} lag={} rate={}/s", sample.elapsed().toSeconds(),
+                        sample.produced(), sample.completed(), sample.lag(), Math.round(sample.rate()));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        long produced = producer.get(1, TimeUnit.MINUTES);
+
+        double throughput = completed() / (elapsed.toNanos() / 1e9);
+        HistogramSnapshot endToEnd = meterRegistry.get("payment.pipeline.end-to-end").timer().takeSnapshot();
+        Path report = writeReport(samples, elapsed, throughput, endToEnd);
+        logger.info("Load run finished: {} events in {}s, {} events/s, end-to-end {} - report {}",
+                completed(), elapsed.toSeconds(), Math.round(throughput), percentiles(endToEnd), report);
+
+        assertThat(produced).isEqualTo(EVENTS);
+        assertThat(completed()).as("events completed before load.timeout").isGreaterThanOrEqualTo(EVENTS);
+        assertThat(count("failed")).as("failed events").isZero();
+        if (MIN_THROUGHPUT > 0) {
+            assertThat(throughput).as("sustained events/s").isGreaterThanOrEqualTo(MIN_THROUGHPUT);
+        }
+        if (MAX_P99_MILLIS > 0) {
+            assertThat(percentile(endToEnd, 0.99)).as("end-to-end p99 ms").isLessThanOrEqualTo(MAX_P99_MILLIS);
+        }
+    }
+
+    private long produceOrderEvents() {
+        Map<String, Object> props = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.ACKS_CONFIG, "1",
+                ProducerConfig.LINGER_MS_CONFIG, 5,
+                ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024);
+        long sent = 0;
+        long started = System.nanoTime();
+        try (KafkaProducer<String, OrderEvent> producer = new KafkaProducer<>(props, new StringSerializer(),
+                new JsonEventSerializer<>(new OrderEventJsonCodec()))) {
+            for (long orderId = 1; orderId <= EVENTS; orderId++) {
+                OrderEvent event = new OrderEvent(orderId, orderId % 10_000 + 1,
+                        BigDecimal.valueOf(ThreadLocalRandom.current().nextLong(100, 100_000), 2));
+                producer.send(new ProducerRecord<>(createOrderTopic, String.valueOf(orderId), event));
+                sent++;
+                if (RATE > 0) {
+                    pace(started, sent);
+                }
+                if (sent % PROGRESS_LOG_EVERY == 0) {
+                    logger.debug("Produced {} order events", sent);
+                }
+            }
+            producer.flush();
+        }
+        return sent;
+    }
+
+    private static void pace(long started, long sent) {
+        long ahead = started + sent * TimeUnit.SECONDS.toNanos(1) / RATE - System.nanoTime();
+        if (ahead > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(ahead);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while pacing the order producer", ex);
+            }
+        }
+    }
+
+    private long completed() {
+        return count("processed") + count("duplicate");
+    }
+
+    private long count(String outcome) {
+        return (long) meterRegistry.get("payment.pipeline.events").tag("outcome", outcome).counter().count();
+    }
+
+    private List<TopicPartition> partitions() {
+        return IntStream.range(0, PARTITIONS)
+                .mapToObj(partition -> new TopicPartition(createOrderTopic, partition))
+                .toList();
+    }
+
+    private long producedSoFar(AdminClient admin) throws Exception {
+        return endOffsets(admin).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private Map<TopicPartition, Long> endOffsets(AdminClient admin) throws Exception {
+        Map<TopicPartition, OffsetSpec> latest = partitions().stream()
+                .collect(Collectors.toMap(Function.identity(), partition -> OffsetSpec.latest()));
+        return admin.listOffsets(latest).all().get().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().offset()));
+    }
+
+    private long lag(AdminClient admin) throws Exception {
+        Map<TopicPartition, OffsetAndMetadata> committed =
+                admin.listConsumerGroupOffsets(GROUP).partitionsToOffsetAndMetadata().get();
+        return endOffsets(admin).entrySet().stream()
+                .mapToLong(end -> {
+                    OffsetAndMetadata offset = committed.get(end.getKey());
+                    return end.getValue() - (offset == null ? 0 : offset.offset());
+                })
+                .sum();
+    }
+
+    private Path writeReport(List<Sample> samples, Duration elapsed, double throughput, HistogramSnapshot endToEnd)
+            throws IOException {
+        Path directory = Path.of("target", "load-results");
+        Files.createDirectories(directory);
+        String name = "load-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+
+        List<String> lines = new ArrayList<>();
+        lines.add("elapsed_s,produced,completed,lag,rate_per_s");
+        samples.forEach(sample -> lines.add(String.format(Locale.ROOT, "%d,%d,%d,%d,%.0f",
+                sample.elapsed().toSeconds(), sample.produced(), sample.completed(), sample.lag(), sample.rate())));
+        Files.write(directory.resolve(name + ".csv"), lines, StandardCharsets.UTF_8);
+
+        List<String> summary = new ArrayList<>();
+        summary.add("mode=" + System.getProperty("load.mode", "record"));
+        summary.add("engine=" + System.getProperty("load.engine", "remote"));
+        summary.add("events=" + EVENTS);
+        summary.add("elapsed_s=" + elapsed.toSeconds());
+        summary.add(String.format(Locale.ROOT, "throughput_per_s=%.0f", throughput));
+        summary.add("end_to_end=" + percentiles(endToEnd));
+        for (String stage : List.of("dedup", "decision", "persist", "publish")) {
+            Timer timer = meterRegistry.get("payment.pipeline.stage").tag("stage", stage).timer();
+            summary.add("stage_" + stage + "=" + percentiles(timer.takeSnapshot()));
+        }
+        summary.add("failed=" + count("failed"));
+        summary.add("random_api_fallbacks=" + (long) meterRegistry.get("random.api.fallbacks").counter().count());
+        Path report = directory.resolve(name + ".txt");
+        Files.write(report, summary, StandardCharsets.UTF_8);
+        return report;
+    }
+
+    private static String percentiles(HistogramSnapshot snapshot) {
+        StringBuilder result = new StringBuilder();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            result.append(String.format(Locale.ROOT, "p%.0f=%.1fms ",
+                    value.percentile() * 100, value.value(TimeUnit.MILLISECONDS)));
+        }
+        return result.append(String.format(Locale.ROOT, "max=%.1fms", snapshot.max(TimeUnit.MILLISECONDS))).toString();
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        throw new IllegalStateException("Percentile " + percentile + " is not published");
+    }
+
+    /**
+     * Serves a fixed batch of random integers of both parities on any path, so payment decisions stay mixed.
+     */
+    private static HttpServer startRandomApiStub() {
+        byte[] body = IntStream.range(0, RANDOM_BATCH)
+                .mapToObj(i -> String.valueOf(ThreadLocalRandom.current().nextInt(1, 101)))
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(StandardCharsets.UTF_8);
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to start the random API stub", ex);
+        }
+    }
+
+    private record Sample(Duration elapsed, long produced, long completed, long lag, double rate) {
+    }
+}
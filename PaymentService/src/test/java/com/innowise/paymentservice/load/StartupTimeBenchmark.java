@@ -0,0 +1,290 @@
+package com.innowise.paymentservice.load;
+
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.serde.JsonEventSerializer;
+import com.innowise.paymentservice.serde.OrderEventJsonCodec;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Startup benchmark: time from launching the packaged service to its first consumed CREATE_ORDER record.
+ * Every run starts a fresh JVM against an embedded Kafka broker, a local Mongo container and an in-process random API
+ * stub, with one order already waiting on a new topic, and stops once the listener has committed it. Variants:
+ * <ul>
+ *     <li>{@code plain} - the fat jar, as the service was launched before the CDS image</li>
+ *     <li>{@code aot} - the extracted jar with {@code -Dspring.aot.enabled=true}</li>
+ *     <li>{@code aot-cds} - the extracted jar with AOT and the CDS archive, as the Dockerfile launches it</li>
+ * </ul>
+ * Tagged {@code startup} and run after packaging with {@code mvn -Pcds,startup verify -Dstartup.runs=10}.
+ * <ul>
+ *     <li>{@code startup.runs} - measured runs per variant, default 5, after one discarded warm-up run each</li>
+ *     <li>{@code startup.variants} - comma-separated subset of the variants, default all</li>
+ *     <li>{@code startup.timeout} - seconds to wait for the first record of a run, default 180</li>
+ *     <li>{@code startup.min-speedup} - release gate on median plain / median aot-cds, 0 (default) disables</li>
+ * </ul>
+ * The runs are written to {@code target/startup-results/} as CSV next to the summary, service logs next to them.
+ */
+@Tag("startup")
+@Testcontainers
+@EmbeddedKafka(partitions = 1, topics = "create_payment")
+class StartupTimeBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimeBenchmark.class);
+    private static final String GROUP = "payment-group";
+    private static final int RANDOM_BATCH = 1024;
+    private static final long POLL_INTERVAL_MILLIS = 20;
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds");
+
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+    private static final int TIMEOUT_SECONDS = Integer.getInteger("startup.timeout", 180);
+    private static final double MIN_SPEEDUP = Double.parseDouble(System.getProperty("startup.min-speedup", "0"));
+    private static final Path JAR = Path.of(System.getProperty("startup.jar", "target/PaymentService-0.0.1-SNAPSHOT.jar"));
+    private static final Path CDS_DIR = Path.of(System.getProperty("startup.cds-dir", "target/cds"));
+    private static final Path RESULTS = Path.of("target", "startup-results");
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0.5");
+
+    private static final HttpServer randomApi = startRandomApiStub();
+
+    @AfterAll
+    static void stopRandomApi() {
+        randomApi.stop(0);
+    }
+
+    @Test
+    void shouldMeasureTimeToFirstConsumedRecord(EmbeddedKafkaBroker broker) throws Exception {
+        List<Variant> variants = Arrays.stream(System.getProperty("startup.variants", "plain,aot,aot-cds").split(","))
+                .map(String::trim)
+                .map(Variant::of)
+                .toList();
+        assertThat(JAR).as("packaged jar, build with -Pcds").exists();
+        assertThat(CDS_DIR.resolve(JAR.getFileName())).as("extracted jar, build with -Pcds").exists();
+        assertThat(CDS_DIR.resolve("application.jsa")).as("CDS archive, build without -Dcds.training.skip").exists();
+        Files.createDirectories(RESULTS);
+
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Map<Variant, List<Run>> runs = new LinkedHashMap<>();
+        try (AdminClient admin = AdminClient.create(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+            for (Variant variant : variants) {
+                Run warmUp = measure(variant, "warmup", broker, admin, stamp);
+                logger.info("{} warm-up: first record after {} ms", variant.label, warmUp.firstRecordMillis());
+            }
+            // variants alternate, so drift of the host hits them all alike
+            for (int run = 1; run <= RUNS; run++) {
+                for (Variant variant : variants) {
+                    Run result = measure(variant, String.valueOf(run), broker, admin, stamp);
+                    runs.computeIfAbsent(variant, key -> new ArrayList<>()).add(result);
+                    logger.info("{} run {}: first record after {} ms, started in {} ms", variant.label, run,
+                            result.firstRecordMillis(), result.startedMillis());
+                }
+            }
+        }
+
+        Path report = writeReport(runs, stamp);
+        logger.info("Startup benchmark finished - report {}", report);
+
+        if (MIN_SPEEDUP > 0 && runs.containsKey(Variant.PLAIN) && runs.containsKey(Variant.AOT_CDS)) {
+            assertThat(median(runs.get(Variant.PLAIN)) / (double) median(runs.get(Variant.AOT_CDS)))
+                    .as("median plain / aot-cds time to first record").isGreaterThanOrEqualTo(MIN_SPEEDUP);
+        }
+    }
+
+    /**
+     * Produces one order on a new topic, launches the service on it and waits for the listener's commit.
+     */
+    private Run measure(Variant variant, String run, EmbeddedKafkaBroker broker, AdminClient admin, String stamp)
+            throws Exception {
+        String topic = "startup_order_" + variant.name().toLowerCase(Locale.ROOT) + "_" + run;
+        broker.addTopics(topic);
+        produceOrder(broker.getBrokersAsString(), topic);
+
+        Path log = RESULTS.resolve("startup-" + stamp + "-" + variant.label + "-" + run + ".log");
+        ProcessBuilder builder = new ProcessBuilder(variant.command(topic))
+                .directory(CDS_DIR.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        builder.environment().put("MONGO_DB_URL", mongoDBContainer.getReplicaSetUrl("payments-startup"));
+        builder.environment().put("KAFKA_SERVER", broker.getBrokersAsString());
+        builder.environment().put("RANDOM_API_UPL", "http://localhost:" + randomApi.getAddress().getPort() + "/integers");
+
+        long launched = System.nanoTime();
+        Process service = builder.start();
+        try {
+            long deadline = launched + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (!consumed(admin, topic)) {
+                assertThat(service.isAlive()).as("%s exited with %s, see %s", variant.label,
+                        service.isAlive() ? null : service.exitValue(), log).isTrue();
+                assertThat(System.nanoTime()).as("%s consumed its first record within %ss, see %s",
+                        variant.label, TIMEOUT_SECONDS, log).isLessThan(deadline);
+                TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL_MILLIS);
+            }
+            return new Run(run, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched), startedMillis(log));
+        } finally {
+            service.destroy();
+            if (!service.waitFor(30, TimeUnit.SECONDS)) {
+                service.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static void produceOrder(String bootstrapServers, String topic) {
+        Map<String, Object> props = Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        try (KafkaProducer<String, OrderEvent> producer = new KafkaProducer<>(props, new StringSerializer(),
+                new JsonEventSerializer<>(new OrderEventJsonCodec()))) {
+            long orderId = System.currentTimeMillis();
+            producer.send(new ProducerRecord<>(topic, String.valueOf(orderId),
+                    new OrderEvent(orderId, 1L, BigDecimal.valueOf(10_000, 2))));
+            producer.flush();
+        }
+    }
+
+    private static boolean consumed(AdminClient admin, String topic) throws Exception {
+        OffsetAndMetadata committed = admin.listConsumerGroupOffsets(GROUP).partitionsToOffsetAndMetadata().get()
+                .get(new TopicPartition(topic, 0));
+        return committed != null && committed.offset() > 0;
+    }
+
+    private static long startedMillis(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log, StandardCharsets.UTF_8));
+        return matcher.find() ? Math.round(Double.parseDouble(matcher.group(1)) * 1000) : -1;
+    }
+
+    private Path writeReport(Map<Variant, List<Run>> runs, String stamp) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("variant,run,first_record_ms,started_ms");
+        runs.forEach((variant, results) -> results.forEach(run -> lines.add(String.join(",", variant.label,
+                run.run(), String.valueOf(run.firstRecordMillis()), String.valueOf(run.startedMillis())))));
+        Files.write(RESULTS.resolve("startup-" + stamp + ".csv"), lines, StandardCharsets.UTF_8);
+
+        List<String> summary = new ArrayList<>();
+        summary.add("runs=" + RUNS);
+        summary.add("java=" + Runtime.version());
+        runs.forEach((variant, results) -> {
+            long[] millis = results.stream().mapToLong(Run::firstRecordMillis).sorted().toArray();
+            summary.add(String.format(Locale.ROOT, "%s first_record_ms min=%d median=%d max=%d", variant.label,
+                    millis[0], median(results), millis[millis.length - 1]));
+        });
+        if (runs.containsKey(Variant.PLAIN)) {
+            long plain = median(runs.get(Variant.PLAIN));
+            runs.forEach((variant, results) -> summary.add(String.format(Locale.ROOT, "%s speedup=%.2f",
+                    variant.label, plain / (double) median(results))));
+        }
+        Path report = RESULTS.resolve("startup-" + stamp + ".txt");
+        Files.write(report, summary, StandardCharsets.UTF_8);
+        return report;
+    }
+
+    private static long median(List<Run> runs) {
+        long[] millis = runs.stream().mapToLong(Run::firstRecordMillis).sorted().toArray();
+        return millis[millis.length / 2];
+    }
+
+    /**
+     * Serves a fixed batch of random integers on any path, so the remote decision engine answers immediately.
+     */
+    private static HttpServer startRandomApiStub() {
+        byte[] body = IntStream.range(0, RANDOM_BATCH)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(StandardCharsets.UTF_8);
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to start the random API stub", ex);
+        }
+    }
+
+    private enum Variant {
+        PLAIN("plain", false, false),
+        AOT("aot", true, false),
+        AOT_CDS("aot-cds", true, true);
+
+        private final String label;
+        private final boolean aot;
+        private final boolean cds;
+
+        Variant(String label, boolean aot, boolean cds) {
+            this.label = label;
+            this.aot = aot;
+            this.cds = cds;
+        }
+
+        static Variant of(String label) {
+            return Arrays.stream(values())
+                    .filter(variant -> variant.label.equals(label))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown startup variant: " + label));
+        }
+
+        List<String> command(String topic) {
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("--enable-preview");
+            if (cds) {
+                command.add("-XX:SharedArchiveFile=application.jsa");
+            }
+            if (aot) {
+                command.add("-Dspring.aot.enabled=true");
+            }
+            command.add("-jar");
+            command.add(aot ? JAR.getFileName().toString() : JAR.toAbsolutePath().toString());
+            command.add("--spring.kafka.topics.create-order=" + topic);
+            command.add("--spring.kafka.consumer.auto-offset-reset=earliest");
+            command.add("--server.port=0");
+            return command;
+        }
+    }
+
+    private record Run(String run, long firstRecordMillis, long startedMillis) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.innowise.paymentservice.metrics;
+
+import com.innowise.paymentservice.metrics.PipelineMetrics.Outcome;
+import com.innowise.paymentservice.metrics.PipelineMetrics.Stage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PipelineMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PipelineMetrics metrics = new PipelineMetrics(meterRegistry);
+
+    @Test
+    void shouldTimeStagesSeparately() {
+        String result = metrics.time(Stage.PERSIST, () -> "saved");
+        metrics.time(Stage.PUBLISH, () -> {
+        });
+        metrics.time(Stage.PUBLISH, () -> {
+        });
+
+        assertThat(result).isEqualTo("saved");
+        assertThat(stage("persist").count()).isEqualTo(1);
+        assertThat(stage("publish").count()).isEqualTo(2);
+        assertThat(stage("dedup").count()).isZero();
+    }
+
+    @Test
+    void shouldCountOutcomes() {
+        metrics.count(Outcome.DUPLICATE);
+        metrics.count(Outcome.DUPLICATE, 3);
+        metrics.count(Outcome.FAILED, 0);
+
+        assertThat(meterRegistry.get("payment.pipeline.events").tag("outcome", "duplicate").counter().count())
+                .isEqualTo(4);
+        assertThat(meterRegistry.get("payment.pipeline.events").tag("outcome", "failed").counter().count())
+                .isZero();
+    }
+
+    @Test
+    void shouldRecordEndToEndOnlyForRecordsWithTimestamp() {
+        metrics.recordEndToEnd(PipelineMetrics.NO_TIMESTAMP);
+        metrics.recordEndToEnd(System.currentTimeMillis() - 250);
+
+        Timer endToEnd = meterRegistry.get("payment.pipeline.end-to-end").timer();
+        assertThat(endToEnd.count()).isEqualTo(1);
+        assertThat(endToEnd.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(250);
+    }
+
+    private Timer stage(String stage) {
+        return meterRegistry.get("payment.pipeline.stage").tag("stage", stage).timer();
+    }
+}
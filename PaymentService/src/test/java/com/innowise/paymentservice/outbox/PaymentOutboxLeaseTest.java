@@ -0,0 +1,60 @@
+package com.innowise.paymentservice.outbox;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentOutboxLeaseTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:00:00Z");
+
+    private MongoTemplate mongoTemplate;
+    private PaymentOutboxLease lease;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        lease = new PaymentOutboxLease(mongoTemplate, Duration.ofMinutes(1), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldHoldLeaseWhenClaimSucceeds() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq(PaymentOutboxLease.COLLECTION))).thenReturn(new Document());
+
+        assertThat(lease.acquire()).isTrue();
+        ArgumentCaptor<Update> claim = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), claim.capture(), any(FindAndModifyOptions.class),
+                eq(Document.class), eq(PaymentOutboxLease.COLLECTION));
+        Document set = (Document) claim.getValue().getUpdateObject().get("$set");
+        assertThat(set.get("expires_at")).isEqualTo(NOW.plus(Duration.ofMinutes(1)));
+        assertThat(set.getString("owner")).isNotBlank();
+    }
+
+    @Test
+    void shouldNotHoldLeaseClaimedByAnotherInstance() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq(PaymentOutboxLease.COLLECTION)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        assertThat(lease.acquire()).isFalse();
+    }
+}
@@ -0,0 +1,102 @@
+package com.innowise.paymentservice.outbox;
+
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import com.innowise.paymentservice.model.entity.Payment;
+import com.innowise.paymentservice.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentOutboxRelayTest {
+
+    private PaymentRepository paymentRepository;
+    private KafkaTemplate<String, PaymentEvent> kafkaTemplate;
+    private PaymentOutboxLease lease;
+    private PaymentOutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        paymentRepository = mock(PaymentRepository.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        lease = mock(PaymentOutboxLease.class);
+        when(lease.duration()).thenReturn(Duration.ofMinutes(1));
+        when(lease.acquire()).thenReturn(true);
+        relay = new PaymentOutboxRelay(paymentRepository, lease, kafkaTemplate, "create-payment", 10,
+                Duration.ofMillis(10), Duration.ofSeconds(1));
+    }
+
+    @Test
+    void shouldPublishBatchAndMarkOnlyAcknowledgedEvents() throws InterruptedException {
+        Payment acked = payment("PAYMENT-1", 1L);
+        Payment failed = payment("PAYMENT-2", 2L);
+        when(paymentRepository.findPendingEvents(Limit.of(10))).thenReturn(List.of(acked, failed));
+        when(kafkaTemplate.send(eq("create-payment"), eq("PAYMENT-1"), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(kafkaTemplate.send(eq("create-payment"), eq("PAYMENT-2"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        int published = relay.relayOnce();
+
+        assertThat(published).isEqualTo(1);
+        verify(kafkaTemplate).send("create-payment", "PAYMENT-1", new PaymentEvent("PAYMENT-1", 1L, PaymentStatus.SUCCESS));
+        verify(paymentRepository).markEventsPublished(List.of("PAYMENT-1"));
+    }
+
+    @Test
+    void shouldDoNothingWithoutPendingEvents() throws InterruptedException {
+        when(paymentRepository.findPendingEvents(any())).thenReturn(List.of());
+
+        assertThat(relay.relayOnce()).isZero();
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+        verify(paymentRepository, never()).markEventsPublished(any());
+    }
+
+    @Test
+    void shouldNotReadPendingEventsWithoutLease() throws InterruptedException {
+        when(lease.acquire()).thenReturn(false);
+
+        assertThat(relay.relayOnce()).isZero();
+        verify(paymentRepository, never()).findPendingEvents(any());
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectLeaseShorterThanRound() {
+        when(lease.duration()).thenReturn(Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> new PaymentOutboxRelay(paymentRepository, lease, kafkaTemplate, "create-payment", 10,
+                Duration.ofMillis(10), Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldStageEventOnlyInOutboxMode() {
+        assertThat(new PaymentOutbox("outbox").stage(new Payment()).getEventPending()).isTrue();
+        assertThat(new PaymentOutbox("direct").stage(new Payment()).getEventPending()).isNull();
+    }
+
+    private static Payment payment(String paymentId, Long orderId) {
+        Payment payment = new Payment();
+        payment.setPaymentId(paymentId);
+        payment.setOrderId(orderId);
+        payment.setStatus(PaymentStatus.SUCCESS);
+        return payment;
+    }
+}
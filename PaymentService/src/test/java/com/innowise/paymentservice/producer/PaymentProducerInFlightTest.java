@@ -0,0 +1,59 @@
+package com.innowise.paymentservice.producer;
+
+import com.innowise.paymentservice.metrics.PipelineMetrics;
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PaymentProducerInFlightTest {
+
+    private final PaymentEvent event = new PaymentEvent("PAYMENT-1", 1L, PaymentStatus.SUCCESS);
+
+    private KafkaTemplate<String, PaymentEvent> kafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentProducer producer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        producer = new PaymentProducer(kafkaTemplate, "create_payment", new PipelineMetrics(meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void shouldCountSendUntilBrokerAnswers() {
+        CompletableFuture<SendResult<String, PaymentEvent>> ack = new CompletableFuture<>();
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(ack);
+
+        producer.sendCreatePayment(event);
+        assertThat(producer.inFlightSends()).isEqualTo(1);
+
+        ack.completeExceptionally(new TimeoutException("delivery timeout"));
+        assertThat(producer.inFlightSends()).isZero();
+    }
+
+    @Test
+    void shouldNotCountSendThatThrows() {
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenThrow(new TimeoutException("metadata timeout"));
+
+        assertThatThrownBy(() -> producer.sendCreatePayment(event)).isInstanceOf(TimeoutException.class);
+
+        assertThat(producer.inFlightSends()).isZero();
+        assertThat(meterRegistry.get("payment.producer.in-flight").gauge().value()).isZero();
+    }
+}
@@ -1,6 +1,9 @@
 package com.innowise.paymentservice.repository;
 
+import com.innowise.paymentservice.model.PaymentCursor;
+import com.innowise.paymentservice.model.PaymentGrouping;
 import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.PaymentTotalDto;
 import com.innowise.paymentservice.model.entity.Payment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +18,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -40,6 +44,7 @@ class PaymentRepositoryTest {
         paymentRepository.deleteAll();
 
         payment = new Payment();
+        payment.setPaymentId("PAYMENT-123");
         payment.setOrderId(123L);
         payment.setUserId(456L);
         payment.setStatus(PaymentStatus.SUCCESS);
@@ -50,10 +55,9 @@ class PaymentRepositoryTest {
     }
 
     @Test
-    void shouldFindByOrderId() {
-        List<Payment> result = paymentRepository.findByOrderId(123L);
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getOrderId()).isEqualTo(123L);
+    void shouldFindByPaymentIdOfOrder() {
+        assertThat(paymentRepository.findById("PAYMENT-123"))
+                .hasValueSatisfying(found -> assertThat(found.getOrderId()).isEqualTo(123L));
     }
 
     @Test
@@ -85,4 +89,60 @@ class PaymentRepositoryTest {
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getPaymentAmount()).isEqualByComparingTo(BigDecimal.valueOf(99.99));
     }
+
+    @Test
+    void shouldSumAmountsBetween() {
+        Payment failed = new Payment();
+        failed.setOrderId(124L);
+        failed.setUserId(456L);
+        failed.setStatus(PaymentStatus.FAILED);
+        failed.setTimestamp(Instant.now());
+        failed.setPaymentAmount(BigDecimal.valueOf(0.01));
+        paymentRepository.save(failed);
+
+        Instant now = Instant.now();
+        BigDecimal total = paymentRepository.sumAmountsBetween(now.minusSeconds(60), now.plusSeconds(60));
+        List<PaymentTotalDto> byStatus = paymentRepository.sumAmountsBetween(now.minusSeconds(60), now.plusSeconds(60), PaymentGrouping.STATUS);
+
+        assertThat(total).isEqualByComparingTo(BigDecimal.valueOf(100));
+        assertThat(byStatus).extracting(PaymentTotalDto::getKey).containsExactly("FAILED", "SUCCESS");
+        assertThat(byStatus.get(1).getTotal()).isEqualByComparingTo(BigDecimal.valueOf(99.99));
+        assertThat(byStatus.get(1).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReturnZeroTotalForEmptyRange() {
+        Instant past = Instant.now().minusSeconds(7200);
+        assertThat(paymentRepository.sumAmountsBetween(past.minusSeconds(60), past)).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void shouldPageByUserIdWithKeysetCursor() {
+        Instant base = Instant.parse("2026-10-18T10:00:00Z");
+        for (long orderId = 1; orderId <= 3; orderId++) {
+            Payment next = new Payment();
+            next.setPaymentId("PAYMENT-" + orderId);
+            next.setOrderId(orderId);
+            next.setUserId(789L);
+            next.setStatus(PaymentStatus.SUCCESS);
+            next.setTimestamp(base);
+            next.setPaymentAmount(BigDecimal.ONE);
+            paymentRepository.save(next);
+        }
+
+        List<Payment> firstPage = paymentRepository.findPageByUserId(789L, null, 2);
+        Payment last = firstPage.get(1);
+        List<Payment> secondPage = paymentRepository.findPageByUserId(789L,
+                new PaymentCursor(last.getTimestamp(), last.getPaymentId()), 2);
+
+        assertThat(firstPage).extracting(Payment::getPaymentId).containsExactly("PAYMENT-3", "PAYMENT-2");
+        assertThat(secondPage).extracting(Payment::getPaymentId).containsExactly("PAYMENT-1");
+    }
+
+    @Test
+    void shouldStreamByStatus() {
+        try (Stream<Payment> result = paymentRepository.streamByStatusInOrderByTimestampDescPaymentIdDesc(List.of(PaymentStatus.SUCCESS))) {
+            assertThat(result).extracting(Payment::getOrderId).containsExactly(123L);
+        }
+    }
 }
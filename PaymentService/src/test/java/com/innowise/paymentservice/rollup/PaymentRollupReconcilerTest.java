@@ -0,0 +1,77 @@
+package com.innowise.paymentservice.rollup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentRollupReconcilerTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:30Z");
+
+    private PaymentRollupStore paymentRollupStore;
+    private PaymentRollupReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        paymentRollupStore = mock(PaymentRollupStore.class);
+        reconciler = new PaymentRollupReconciler(paymentRollupStore, 100, Duration.ofSeconds(30), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldMarkHourAndDayStaleBeforeRebuildingMinuteAndClearingMarkers() {
+        Instant minute = Instant.parse("2026-10-18T10:15:00Z");
+        when(paymentRollupStore.findPendingByMinute(Instant.parse("2026-10-18T11:59:00Z"), 100))
+                .thenReturn(Map.of(minute, List.of("PAYMENT-1", "PAYMENT-2")));
+
+        int rebuilt = reconciler.reconcileOnce(NOW);
+
+        assertThat(rebuilt).isEqualTo(1);
+        InOrder order = inOrder(paymentRollupStore);
+        order.verify(paymentRollupStore).markStale(RollupGranularity.HOUR, Instant.parse("2026-10-18T10:00:00Z"));
+        order.verify(paymentRollupStore).markStale(RollupGranularity.DAY, Instant.parse("2026-10-18T00:00:00Z"));
+        order.verify(paymentRollupStore).rebuild(RollupGranularity.MINUTE, minute);
+        order.verify(paymentRollupStore).clearPending(List.of("PAYMENT-1", "PAYMENT-2"));
+    }
+
+    @Test
+    void shouldRebuildClosedStaleHourWithoutPendingPayments() {
+        Instant hour = Instant.parse("2026-10-18T10:00:00Z");
+        when(paymentRollupStore.findPendingByMinute(any(), eq(100))).thenReturn(Map.of());
+        when(paymentRollupStore.findStale(RollupGranularity.HOUR, Instant.parse("2026-10-18T11:59:30Z")))
+                .thenReturn(List.of(hour));
+
+        reconciler.reconcileOnce(NOW);
+
+        verify(paymentRollupStore).rebuild(RollupGranularity.HOUR, hour);
+        verify(paymentRollupStore).clearStale(RollupGranularity.HOUR, hour);
+    }
+
+    @Test
+    void shouldKeepDayStaleWhileItHoldsStaleHours() {
+        Instant day = Instant.parse("2026-10-17T00:00:00Z");
+        Instant dayEnd = Instant.parse("2026-10-18T00:00:00Z");
+        when(paymentRollupStore.findPendingByMinute(any(), eq(100))).thenReturn(Map.of());
+        when(paymentRollupStore.findStale(RollupGranularity.DAY, Instant.parse("2026-10-18T11:59:30Z")))
+                .thenReturn(List.of(day));
+        when(paymentRollupStore.hasStale(RollupGranularity.HOUR, day, dayEnd)).thenReturn(true);
+
+        reconciler.reconcileOnce(NOW);
+
+        verify(paymentRollupStore, never()).rebuild(RollupGranularity.DAY, day);
+        verify(paymentRollupStore, never()).clearStale(RollupGranularity.DAY, day);
+    }
+}
@@ -0,0 +1,84 @@
+package com.innowise.paymentservice.rollup;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollupPlanTest {
+
+    @Test
+    void shouldUseCoarsestBucketsAndLeaveOnlySubMinuteEdgesRaw() {
+        Instant from = Instant.parse("2026-10-16T22:58:30Z");
+        Instant to = Instant.parse("2026-10-18T01:02:15Z");
+
+        RollupPlan plan = RollupPlan.of(from, to);
+
+        assertThat(plan.rollupSegments()).containsExactly(
+                new RollupPlan.Segment(RollupGranularity.DAY, Instant.parse("2026-10-17T00:00:00Z"), Instant.parse("2026-10-18T00:00:00Z")),
+                new RollupPlan.Segment(RollupGranularity.HOUR, Instant.parse("2026-10-16T23:00:00Z"), Instant.parse("2026-10-17T00:00:00Z")),
+                new RollupPlan.Segment(RollupGranularity.MINUTE, Instant.parse("2026-10-16T22:59:00Z"), Instant.parse("2026-10-16T23:00:00Z")),
+                new RollupPlan.Segment(RollupGranularity.HOUR, Instant.parse("2026-10-18T00:00:00Z"), Instant.parse("2026-10-18T01:00:00Z")),
+                new RollupPlan.Segment(RollupGranularity.MINUTE, Instant.parse("2026-10-18T01:00:00Z"), Instant.parse("2026-10-18T01:02:00Z")));
+        assertThat(plan.rawSegments()).containsExactly(
+                new RollupPlan.Segment(null, from, Instant.parse("2026-10-16T22:59:00Z")),
+                new RollupPlan.Segment(null, Instant.parse("2026-10-18T01:02:00Z"), to));
+    }
+
+    @Test
+    void shouldReadShortRangeFromRawPaymentsOnly() {
+        Instant from = Instant.parse("2026-10-18T10:00:05Z");
+        Instant to = Instant.parse("2026-10-18T10:00:40Z");
+
+        RollupPlan plan = RollupPlan.of(from, to);
+
+        assertThat(plan.rollupSegments()).isEmpty();
+        assertThat(plan.rawSegments()).containsExactly(new RollupPlan.Segment(null, from, to));
+    }
+
+    @Test
+    void shouldNotNeedRawPaymentsForAlignedRange() {
+        Instant from = Instant.parse("2026-10-18T10:00:00Z");
+        Instant to = Instant.parse("2026-10-18T12:00:00Z");
+
+        RollupPlan plan = RollupPlan.of(from, to);
+
+        assertThat(plan.rollupSegments()).containsExactly(new RollupPlan.Segment(RollupGranularity.HOUR, from, to));
+        assertThat(plan.rawSegments()).isEmpty();
+    }
+
+    @Test
+    void shouldReadMinuteWithPendingPaymentsFromRawPaymentsAndSplitItsHourAndDay() {
+        Instant from = Instant.parse("2026-10-17T00:00:00Z");
+        Instant to = Instant.parse("2026-10-18T00:00:00Z");
+        Instant pending = Instant.parse("2026-10-17T10:30:00Z");
+
+        RollupPlan plan = RollupPlan.of(from, to,
+                List.of(new RollupPlan.Segment(RollupGranularity.MINUTE, pending, pending.plusSeconds(60))));
+
+        assertThat(plan.rollupSegments()).containsExactlyInAnyOrder(
+                new RollupPlan.Segment(RollupGranularity.HOUR, from, Instant.parse("2026-10-17T10:00:00Z")),
+                new RollupPlan.Segment(RollupGranularity.MINUTE, Instant.parse("2026-10-17T10:00:00Z"), pending),
+                new RollupPlan.Segment(RollupGranularity.MINUTE, pending.plusSeconds(60), Instant.parse("2026-10-17T11:00:00Z")),
+                new RollupPlan.Segment(RollupGranularity.HOUR, Instant.parse("2026-10-17T11:00:00Z"), to));
+        assertThat(plan.rawSegments()).containsExactly(new RollupPlan.Segment(null, pending, pending.plusSeconds(60)));
+    }
+
+    @Test
+    void shouldReadStaleHourAsMinutes() {
+        Instant from = Instant.parse("2026-10-18T10:00:00Z");
+        Instant to = Instant.parse("2026-10-18T13:00:00Z");
+        Instant stale = Instant.parse("2026-10-18T11:00:00Z");
+
+        RollupPlan plan = RollupPlan.of(from, to,
+                List.of(new RollupPlan.Segment(RollupGranularity.HOUR, stale, Instant.parse("2026-10-18T12:00:00Z"))));
+
+        assertThat(plan.rollupSegments()).containsExactly(
+                new RollupPlan.Segment(RollupGranularity.HOUR, from, stale),
+                new RollupPlan.Segment(RollupGranularity.MINUTE, stale, Instant.parse("2026-10-18T12:00:00Z")),
+                new RollupPlan.Segment(RollupGranularity.HOUR, Instant.parse("2026-10-18T12:00:00Z"), to));
+        assertThat(plan.rawSegments()).isEmpty();
+    }
+}
@@ -0,0 +1,106 @@
+package com.innowise.paymentservice.serde;
+
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonEventCodecTest {
+
+    private static final String TOPIC = "create_payment";
+
+    private final OrderEventJsonCodec orderCodec = new OrderEventJsonCodec();
+    private final PaymentEventJsonCodec paymentCodec = new PaymentEventJsonCodec();
+
+    @Test
+    void shouldWriteSameBytesAndTypeHeaderAsSpringJsonSerializer() {
+        PaymentEvent event = new PaymentEvent("PAYMENT-42", 42L, PaymentStatus.SUCCESS);
+        RecordHeaders springHeaders = new RecordHeaders();
+        RecordHeaders headers = new RecordHeaders();
+
+        byte[] expected = new JsonSerializer<PaymentEvent>().serialize(TOPIC, springHeaders, event);
+        byte[] actual = new JsonEventSerializer<>(paymentCodec).serialize(TOPIC, headers, event);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(headers.lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME).value())
+                .isEqualTo(springHeaders.lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME).value());
+    }
+
+    @Test
+    void shouldWriteNullsAndDecimalsLikeSpringJsonSerializer() {
+        JsonSerializer<OrderEvent> spring = new JsonSerializer<>();
+
+        for (OrderEvent event : new OrderEvent[]{
+                new OrderEvent(1L, 2L, new BigDecimal("10.50")),
+                new OrderEvent(1L, null, new BigDecimal("1E+3")),
+                new OrderEvent(null, null, null)}) {
+            assertThat(new String(orderCodec.encode(event), StandardCharsets.UTF_8))
+                    .isEqualTo(new String(spring.serialize(TOPIC, event), StandardCharsets.UTF_8));
+        }
+        assertThat(new String(paymentCodec.encode(new PaymentEvent(null, 1L, null)), StandardCharsets.UTF_8))
+                .isEqualTo("{\"paymentId\":null,\"orderId\":1,\"status\":null}");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"orderId\":10,\"userId\":20,\"amount\":5.00}",
+            "{ \"amount\" : 5.00 , \"userId\" : 20, \"orderId\" : 10 }",
+            "{\"orderId\":\"10\",\"userId\":20,\"amount\":\"5.00\"}",
+            "{\"orderId\":10,\"userId\":20,\"amount\":5.00,\"items\":[{\"id\":1}],\"meta\":{\"a\":null}}",
+            "{\"orderId\":10,\"userId\":null,\"amount\":5.00}",
+            "{\"orderId\":10}"
+    })
+    void shouldReadWhatSpringJsonDeserializerReads(String json) {
+        JsonDeserializer<OrderEvent> spring = new JsonDeserializer<>(OrderEvent.class);
+        spring.addTrustedPackages("*");
+        byte[] data = json.getBytes(StandardCharsets.UTF_8);
+
+        assertThat(orderCodec.decode(data)).isEqualTo(spring.deserialize(TOPIC, data));
+    }
+
+    @Test
+    void shouldRemoveTypeHeadersWhenReading() {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] data = new JsonEventSerializer<>(orderCodec).serialize(TOPIC, headers, new OrderEvent(1L, 2L, BigDecimal.ONE));
+
+        OrderEvent event = new JsonEventDeserializer<>(orderCodec).deserialize(TOPIC, headers, data);
+
+        assertThat(event).isEqualTo(new OrderEvent(1L, 2L, BigDecimal.ONE));
+        assertThat(headers.lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME)).isNull();
+    }
+
+    @Test
+    void shouldRoundTripPaymentEvent() {
+        PaymentEvent event = new PaymentEvent("PAYMENT-7", 7L, PaymentStatus.FAILED);
+
+        assertThat(paymentCodec.decode(paymentCodec.encode(event))).isEqualTo(event);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"[1,2]", "{\"orderId\":{}}", "{\"orderId\":1", "not json"})
+    void shouldRejectMalformedDocuments(String json) {
+        byte[] data = json.getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> orderCodec.decode(data)).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void shouldRejectUnknownStatus() {
+        byte[] data = "{\"paymentId\":\"P\",\"orderId\":1,\"status\":\"PENDING\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> paymentCodec.decode(data)).isInstanceOf(SerializationException.class);
+    }
+}
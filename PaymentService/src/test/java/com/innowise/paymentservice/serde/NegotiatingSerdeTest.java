@@ -0,0 +1,133 @@
+package com.innowise.paymentservice.serde;
+
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.model.dto.PaymentEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NegotiatingSerdeTest {
+
+    private static final String TOPIC = "create_order";
+
+    private final OrderEventBinaryCodec orderCodec = new OrderEventBinaryCodec();
+    private final PaymentEventBinaryCodec paymentCodec = new PaymentEventBinaryCodec();
+
+    @Test
+    void shouldRoundTripOrderEventInBinary() {
+        OrderEvent event = new OrderEvent(123_456L, 42L, new BigDecimal("199.99"));
+
+        assertThat(orderCodec.decode(orderCodec.encode(event))).isEqualTo(event);
+    }
+
+    @Test
+    void shouldRoundTripLargeAndNegativeValues() {
+        OrderEvent event = new OrderEvent(Long.MAX_VALUE, -1L, new BigDecimal("-12345678901234567890.123456789"));
+
+        assertThat(orderCodec.decode(orderCodec.encode(event))).isEqualTo(event);
+    }
+
+    @Test
+    void shouldKeepMissingFieldsMissing() {
+        OrderEvent event = new OrderEvent(1L, null, null);
+        PaymentEvent paymentEvent = new PaymentEvent(null, 7L, PaymentStatus.FAILED);
+
+        assertThat(orderCodec.decode(orderCodec.encode(event))).isEqualTo(event);
+        assertThat(paymentCodec.decode(paymentCodec.encode(paymentEvent))).isEqualTo(paymentEvent);
+    }
+
+    @Test
+    void shouldRoundTripPaymentEventInBinary() {
+        PaymentEvent event = new PaymentEvent("PAYMENT-123456", 123_456L, PaymentStatus.SUCCESS);
+
+        assertThat(paymentCodec.decode(paymentCodec.encode(event))).isEqualTo(event);
+    }
+
+    @Test
+    void shouldRejectUnknownVersionAndTruncatedPayload() {
+        byte[] payload = orderCodec.encode(new OrderEvent(1L, 2L, BigDecimal.TEN));
+        byte[] future = payload.clone();
+        future[0] = 2;
+
+        assertThatThrownBy(() -> orderCodec.decode(future))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("version");
+        assertThatThrownBy(() -> orderCodec.decode(Arrays.copyOf(payload, payload.length - 1)))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void shouldMarkBinaryRecordsAndReadThemBack() {
+        OrderEvent event = new OrderEvent(10L, 20L, new BigDecimal("5.00"));
+        RecordHeaders headers = new RecordHeaders();
+
+        byte[] binary = new NegotiatingSerializer<>(EventWireFormat.BINARY, orderCodec, new JsonSerializer<>())
+                .serialize(TOPIC, headers, event);
+
+        assertThat(EventWireFormat.of(headers)).isEqualTo(EventWireFormat.BINARY);
+        assertThat(deserializer().deserialize(TOPIC, headers, binary)).isEqualTo(event);
+    }
+
+    @Test
+    void shouldReadUnmarkedJsonFromOlderProducers() {
+        byte[] json = "{\"orderId\":10,\"userId\":20,\"amount\":5.00}".getBytes(StandardCharsets.UTF_8);
+
+        OrderEvent event = deserializer().deserialize(TOPIC, new RecordHeaders(), json);
+
+        assertThat(event).isEqualTo(new OrderEvent(10L, 20L, new BigDecimal("5.00")));
+    }
+
+    @Test
+    void shouldReplaceCopiedFormatHeader() {
+        OrderEvent event = new OrderEvent(10L, 20L, BigDecimal.ONE);
+        RecordHeaders headers = new RecordHeaders();
+        EventWireFormat.BINARY.writeTo(headers);
+
+        byte[] json = new NegotiatingSerializer<>(EventWireFormat.JSON, orderCodec, new JsonSerializer<OrderEvent>())
+                .serialize(TOPIC, headers, event);
+
+        assertThat(headers.headers(EventWireFormat.HEADER)).hasSize(1);
+        assertThat(deserializer().deserialize(TOPIC, headers, json)).isEqualTo(event);
+    }
+
+    @Test
+    void binaryShouldBeSmallerThanJson() {
+        PaymentEvent event = new PaymentEvent("PAYMENT-123456", 123_456L, PaymentStatus.SUCCESS);
+
+        byte[] json = new JsonSerializer<PaymentEvent>().serialize(TOPIC, new RecordHeaders(), event);
+
+        assertThat(paymentCodec.encode(event).length).isLessThan(json.length / 2);
+    }
+
+    @Test
+    void shouldEncodeBenchmarkEventsInDocumentedSizes() {
+        OrderEvent orderEvent = new OrderEvent(123_456_789L, 987_654L, new BigDecimal("1249.99"));
+        PaymentEvent paymentEvent = new PaymentEvent("PAYMENT-123456789", 123_456_789L, PaymentStatus.SUCCESS);
+
+        assertThat(new JsonSerializer<OrderEvent>().serialize(TOPIC, new RecordHeaders(), orderEvent)).hasSize(54);
+        assertThat(new JsonEventSerializer<>(new OrderEventJsonCodec()).serialize(TOPIC, new RecordHeaders(), orderEvent))
+                .hasSize(54);
+        assertThat(orderCodec.encode(orderEvent)).hasSize(14);
+        assertThat(new JsonSerializer<PaymentEvent>().serialize(TOPIC, new RecordHeaders(), paymentEvent)).hasSize(72);
+        assertThat(new JsonEventSerializer<>(new PaymentEventJsonCodec()).serialize(TOPIC, new RecordHeaders(), paymentEvent))
+                .hasSize(72);
+        assertThat(paymentCodec.encode(paymentEvent)).hasSize(25);
+    }
+
+    private NegotiatingDeserializer<OrderEvent> deserializer() {
+        JsonDeserializer<OrderEvent> json = new JsonDeserializer<>(OrderEvent.class);
+        json.addTrustedPackages("*");
+        json.setUseTypeHeaders(false);
+        return new NegotiatingDeserializer<>(orderCodec, json);
+    }
+}
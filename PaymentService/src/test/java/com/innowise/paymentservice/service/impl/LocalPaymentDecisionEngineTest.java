@@ -0,0 +1,51 @@
+package com.innowise.paymentservice.service.impl;
+
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalPaymentDecisionEngineTest {
+
+    @Test
+    void decide_shouldBeDeterministicPerOrderWhenSeeded() {
+        LocalPaymentDecisionEngine first = new LocalPaymentDecisionEngine(42L, 0.5);
+        LocalPaymentDecisionEngine second = new LocalPaymentDecisionEngine(42L, 0.5);
+
+        LongStream.rangeClosed(1, 1_000).forEach(orderId ->
+                assertThat(first.decideNow(order(orderId))).isEqualTo(second.decideNow(order(orderId))));
+    }
+
+    @Test
+    void decide_shouldFollowSuccessRate() {
+        LocalPaymentDecisionEngine seeded = new LocalPaymentDecisionEngine(7L, 0.3);
+        LocalPaymentDecisionEngine random = new LocalPaymentDecisionEngine(null, 0.3);
+
+        long seededSuccesses = LongStream.rangeClosed(1, 100_000).filter(id -> seeded.decideNow(order(id))).count();
+        long randomSuccesses = LongStream.rangeClosed(1, 100_000).filter(id -> random.decideNow(order(id))).count();
+
+        assertThat(seededSuccesses).isBetween(29_000L, 31_000L);
+        assertThat(randomSuccesses).isBetween(29_000L, 31_000L);
+    }
+
+    @Test
+    void decide_shouldHonourAlwaysAndNever() {
+        StepVerifier.create(new LocalPaymentDecisionEngine(null, 1.0).decide(order(1L))).expectNext(true).verifyComplete();
+        StepVerifier.create(new LocalPaymentDecisionEngine(1L, 0.0).decide(order(1L))).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidSuccessRate() {
+        assertThatThrownBy(() -> new LocalPaymentDecisionEngine(null, 1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static OrderEvent order(long orderId) {
+        return new OrderEvent(orderId, 1L, BigDecimal.TEN);
+    }
+}
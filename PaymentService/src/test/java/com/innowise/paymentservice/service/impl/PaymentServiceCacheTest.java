@@ -0,0 +1,178 @@
+package com.innowise.paymentservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.innowise.paymentservice.cache.PaymentCache;
+import com.innowise.paymentservice.config.CacheConfig;
+import com.innowise.paymentservice.dedup.ProcessedOrderFilter;
+import com.innowise.paymentservice.mapper.PaymentMapper;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import com.innowise.paymentservice.model.entity.Payment;
+import com.innowise.paymentservice.outbox.PaymentOutbox;
+import com.innowise.paymentservice.repository.PaymentRepository;
+import com.innowise.paymentservice.rollup.PaymentRollupStore;
+import com.innowise.paymentservice.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({CacheConfig.class, PaymentCache.class, PaymentOutbox.class, PaymentServiceImpl.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+@TestPropertySource(properties = {
+        "spring.cache.type=caffeine",
+        "spring.cache.cache-names=" + PaymentCache.BY_ORDER + "," + PaymentCache.BY_USER,
+        "spring.cache.caffeine.spec=maximumSize=100,recordStats",
+        "payment.cache.by-user.spec=maximumWeight=150,recordStats"
+})
+class PaymentServiceCacheTest {
+
+    @MockitoBean
+    private PaymentRepository paymentRepository;
+    @MockitoBean
+    private PaymentMapper paymentMapper;
+    @MockitoBean
+    private ProcessedOrderFilter processedOrderFilter;
+    @MockitoBean
+    private PaymentRollupStore paymentRollupStore;
+
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private PaymentCache paymentCache;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        when(paymentRollupStore.markPending(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void getByOrderId_shouldServeRepeatedLookupsFromCache() {
+        Payment payment = new Payment();
+        when(paymentRepository.findById("PAYMENT-1")).thenReturn(Optional.of(payment));
+        when(paymentMapper.toDto(payment)).thenReturn(PaymentDto.builder().orderId(1L).build());
+
+        paymentService.getByOrderId(1L);
+        List<PaymentDto> cached = paymentService.getByOrderId(1L);
+
+        assertThat(cached).extracting(PaymentDto::getOrderId).containsExactly(1L);
+        verify(paymentRepository, times(1)).findById("PAYMENT-1");
+    }
+
+    @Test
+    void getByOrderId_shouldNotCacheMissingPayment() {
+        when(paymentRepository.findById("PAYMENT-2")).thenReturn(Optional.empty());
+
+        paymentService.getByOrderId(2L);
+        paymentService.getByOrderId(2L);
+
+        verify(paymentRepository, times(2)).findById("PAYMENT-2");
+    }
+
+    @Test
+    void create_shouldEvictCachedLookupsOfUser() {
+        Payment existing = new Payment();
+        when(paymentRepository.findPageByUserId(7L, null, PaymentCache.RECENT_BY_USER + 1)).thenReturn(List.of(existing));
+        when(paymentMapper.toDto(any())).thenReturn(PaymentDto.builder().userId(7L).build());
+        paymentService.getPageByUserId(7L, null, 10);
+        paymentService.getPageByUserId(7L, null, 5);
+
+        Payment saved = new Payment();
+        saved.setOrderId(3L);
+        saved.setUserId(7L);
+        PaymentDto request = PaymentDto.builder().orderId(3L).userId(7L).build();
+        when(paymentMapper.toEntity(request)).thenReturn(saved);
+        when(paymentRepository.insert(saved)).thenReturn(saved);
+        paymentService.create(request);
+
+        paymentService.getPageByUserId(7L, null, 10);
+
+        verify(paymentRepository, times(2)).findPageByUserId(7L, null, PaymentCache.RECENT_BY_USER + 1);
+    }
+
+    @Test
+    void writeThrough_shouldDropUserPaymentsLoadedConcurrently() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(paymentRepository.findPageByUserId(9L, null, PaymentCache.RECENT_BY_USER + 1))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    release.await();
+                    return List.of();
+                })
+                .thenReturn(List.of());
+
+        Thread reader = Thread.ofVirtual().start(() -> paymentService.getPageByUserId(9L, null, 10));
+        loading.await();
+        Thread writer = Thread.ofVirtual().start(() ->
+                paymentCache.writeThrough(List.of(PaymentDto.builder().orderId(9L).userId(9L).build())));
+        Thread.sleep(100);
+        release.countDown();
+        reader.join();
+        writer.join();
+
+        paymentService.getPageByUserId(9L, null, 10);
+
+        verify(paymentRepository, times(2)).findPageByUserId(9L, null, PaymentCache.RECENT_BY_USER + 1);
+    }
+
+    @Test
+    void userCache_shouldBeBoundedByNumberOfCachedPayments() {
+        Cache<Object, Object> byUser = ((CaffeineCache) cacheManager.getCache(PaymentCache.BY_USER)).getNativeCache();
+        List<PaymentDto> page = Collections.nCopies(PaymentCache.RECENT_BY_USER + 1, PaymentDto.builder().build());
+
+        byUser.put(1L, page);
+        byUser.put(2L, page);
+        byUser.cleanUp();
+
+        assertThat(byUser.policy().eviction().orElseThrow().isWeighted()).isTrue();
+        assertThat(byUser.policy().eviction().orElseThrow().weightedSize()).hasValue(PaymentCache.RECENT_BY_USER + 1);
+        assertThat(byUser.estimatedSize()).isEqualTo(1);
+    }
+
+    @Test
+    void getByUserId_shouldNotCacheUnboundedList() {
+        when(paymentRepository.findByUserId(6L)).thenReturn(List.of());
+
+        paymentService.getByUserId(6L);
+        paymentService.getByUserId(6L);
+
+        verify(paymentRepository, times(2)).findByUserId(6L);
+    }
+
+    @Test
+    void create_shouldWriteNewPaymentThroughToOrderCache() {
+        Payment saved = new Payment();
+        PaymentDto request = PaymentDto.builder().orderId(4L).userId(8L).build();
+        PaymentDto dto = PaymentDto.builder().paymentId("PAYMENT-4").orderId(4L).userId(8L).build();
+        when(paymentMapper.toEntity(request)).thenReturn(saved);
+        when(paymentRepository.insert(saved)).thenReturn(saved);
+        when(paymentMapper.toDto(saved)).thenReturn(dto);
+
+        paymentService.create(request);
+        List<PaymentDto> result = paymentService.getByOrderId(4L);
+
+        assertThat(result).containsExactly(dto);
+        verify(paymentRepository, never()).findById(any());
+    }
+}
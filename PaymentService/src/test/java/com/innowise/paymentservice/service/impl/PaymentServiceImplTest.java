@@ -1,23 +1,42 @@
 package com.innowise.paymentservice.service.impl;
 
+import com.innowise.paymentservice.cache.PaymentCache;
+import com.innowise.paymentservice.dedup.ProcessedOrderFilter;
+import com.innowise.paymentservice.exception.PaymentAlreadyProcessedException;
 import com.innowise.paymentservice.mapper.PaymentMapper;
+import com.innowise.paymentservice.model.PaymentCursor;
+import com.innowise.paymentservice.model.PaymentGrouping;
 import com.innowise.paymentservice.model.PaymentStatus;
 import com.innowise.paymentservice.model.dto.OrderEvent;
 import com.innowise.paymentservice.model.dto.PaymentDto;
+import com.innowise.paymentservice.model.dto.PaymentPageDto;
+import com.innowise.paymentservice.model.dto.PaymentTotalDto;
 import com.innowise.paymentservice.model.dto.PaymentEvent;
 import com.innowise.paymentservice.model.entity.Payment;
+import com.innowise.paymentservice.outbox.PaymentOutbox;
 import com.innowise.paymentservice.repository.PaymentRepository;
+import com.innowise.paymentservice.rollup.PaymentRollupStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,13 +44,23 @@ class PaymentServiceImplTest {
 
     private PaymentRepository paymentRepository;
     private PaymentMapper paymentMapper;
+    private ProcessedOrderFilter processedOrderFilter;
+    private PaymentRollupStore paymentRollupStore;
     private PaymentServiceImpl paymentService;
 
     @BeforeEach
     void setUp() {
         paymentRepository = mock(PaymentRepository.class);
         paymentMapper = mock(PaymentMapper.class);
-        paymentService = new PaymentServiceImpl(paymentRepository, paymentMapper);
+        processedOrderFilter = mock(ProcessedOrderFilter.class);
+        when(processedOrderFilter.mightBeProcessed(any())).thenReturn(true);
+        paymentRollupStore = mock(PaymentRollupStore.class);
+        when(paymentRollupStore.markPending(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        PaymentCache paymentCache = mock(PaymentCache.class);
+        when(paymentCache.recentByUser(any(), any()))
+                .thenAnswer(invocation -> invocation.<Callable<?>>getArgument(1).call());
+        paymentService = new PaymentServiceImpl(paymentRepository, paymentMapper, processedOrderFilter, paymentRollupStore,
+                paymentCache, new PaymentOutbox("direct"));
     }
 
     @Test
@@ -47,13 +76,71 @@ class PaymentServiceImplTest {
         Payment saved = new Payment();
 
         when(paymentMapper.toEntity(dto)).thenReturn(entity);
-        when(paymentRepository.save(entity)).thenReturn(saved);
+        when(paymentRepository.insert(entity)).thenReturn(saved);
         when(paymentMapper.toDto(saved)).thenReturn(dto);
 
         PaymentDto result = paymentService.create(dto);
 
         assertThat(result).isEqualTo(dto);
-        verify(paymentRepository).save(entity);
+        verify(paymentRepository).insert(entity);
+    }
+
+    @Test
+    void create_shouldTranslateDuplicateKeyIntoAlreadyProcessed() {
+        PaymentDto dto = PaymentDto.builder().orderId(1L).build();
+        Payment entity = new Payment();
+
+        when(paymentMapper.toEntity(dto)).thenReturn(entity);
+        when(paymentRepository.insert(entity)).thenThrow(new DuplicateKeyException("E11000"));
+
+        assertThatThrownBy(() -> paymentService.create(dto))
+                .isInstanceOf(PaymentAlreadyProcessedException.class)
+                .hasMessage("Order 1 already processed");
+        verify(processedOrderFilter).markProcessed(1L);
+    }
+
+    @Test
+    void create_shouldMarkOrderAsProcessed() {
+        PaymentDto dto = PaymentDto.builder().orderId(1L).build();
+        Payment saved = new Payment();
+        saved.setOrderId(1L);
+
+        when(paymentMapper.toEntity(dto)).thenReturn(new Payment());
+        when(paymentRepository.insert(any(Payment.class))).thenReturn(saved);
+        when(paymentMapper.toDto(saved)).thenReturn(dto);
+
+        paymentService.create(dto);
+
+        verify(processedOrderFilter).markProcessed(1L);
+        verify(paymentRollupStore).record(List.of(saved));
+    }
+
+    @Test
+    void isAlreadyProcessed_shouldSkipMongoWhenFilterRulesOrderOut() {
+        when(processedOrderFilter.mightBeProcessed(5L)).thenReturn(false);
+
+        assertThat(paymentService.isAlreadyProcessed(5L)).isFalse();
+        verify(paymentRepository, never()).existsById(any());
+    }
+
+    @Test
+    void processOrderEvent_shouldRejectOrderSavedByAnotherReplicaDespiteFilterNegative() {
+        OrderEvent event = new OrderEvent(5L, 2L, BigDecimal.TEN);
+        when(processedOrderFilter.mightBeProcessed(5L)).thenReturn(false);
+        when(paymentMapper.toEntity(any(PaymentDto.class))).thenReturn(new Payment());
+        when(paymentRepository.insert(any(Payment.class))).thenThrow(new DuplicateKeyException("E11000"));
+
+        assertThat(paymentService.isAlreadyProcessed(5L)).isFalse();
+        assertThatThrownBy(() -> paymentService.processOrderEvent(event, true))
+                .isInstanceOf(PaymentAlreadyProcessedException.class);
+        verify(paymentRollupStore, never()).record(any());
+    }
+
+    @Test
+    void isAlreadyProcessed_shouldConsultMongoWhenFilterMightContainOrder() {
+        when(paymentRepository.existsById("PAYMENT-5")).thenReturn(true);
+
+        assertThat(paymentService.isAlreadyProcessed(5L)).isTrue();
     }
 
     @Test
@@ -61,7 +148,7 @@ class PaymentServiceImplTest {
         Payment entity = new Payment();
         PaymentDto dto = PaymentDto.builder().orderId(1L).build();
 
-        when(paymentRepository.findByOrderId(1L)).thenReturn(List.of(entity));
+        when(paymentRepository.findById("PAYMENT-1")).thenReturn(Optional.of(entity));
         when(paymentMapper.toDto(entity)).thenReturn(dto);
 
         List<PaymentDto> result = paymentService.getByOrderId(1L);
@@ -69,6 +156,19 @@ class PaymentServiceImplTest {
         assertThat(result).containsExactly(dto);
     }
 
+    @Test
+    void getByOrderIds_shouldLoadAllPaymentsInOneQuery() {
+        Payment entity = new Payment();
+        PaymentDto dto = PaymentDto.builder().orderId(1L).build();
+
+        when(paymentRepository.findAllById(List.of("PAYMENT-1", "PAYMENT-2"))).thenReturn(List.of(entity));
+        when(paymentMapper.toDto(entity)).thenReturn(dto);
+
+        List<PaymentDto> result = paymentService.getByOrderIds(List.of(1L, 2L));
+
+        assertThat(result).containsExactly(dto);
+    }
+
     @Test
     void getByUserId_shouldReturnMappedDtos() {
         Payment entity = new Payment();
@@ -97,16 +197,39 @@ class PaymentServiceImplTest {
 
     @Test
     void getTotalBetween_shouldAggregateAmounts() {
-        Payment p1 = new Payment();
-        Payment p2 = new Payment();
-        p1.setPaymentAmount(BigDecimal.valueOf(100));
-        p2.setPaymentAmount(BigDecimal.valueOf(50));
-
-        when(paymentRepository.findAmountsByTimestampBetween(any(), any())).thenReturn(List.of(p1, p2));
+        when(paymentRollupStore.totalsByStatusBetween(any(), any())).thenReturn(List.of(
+                new PaymentTotalDto("FAILED", BigDecimal.valueOf(50), 1),
+                new PaymentTotalDto("SUCCESS", BigDecimal.valueOf(100), 2)));
 
         BigDecimal result = paymentService.getTotalBetween(Instant.now().minusSeconds(3600), Instant.now());
 
         assertThat(result).isEqualByComparingTo(BigDecimal.valueOf(150));
+        verify(paymentRepository, never()).findAmountsByTimestampBetween(any(), any());
+    }
+
+    @Test
+    void getCountBetween_shouldSumRollupCounts() {
+        when(paymentRollupStore.totalsByStatusBetween(any(), any())).thenReturn(List.of(
+                new PaymentTotalDto("FAILED", BigDecimal.valueOf(50), 1),
+                new PaymentTotalDto("SUCCESS", BigDecimal.valueOf(100), 2)));
+
+        long result = paymentService.getCountBetween(Instant.now().minusSeconds(3600), Instant.now());
+
+        assertThat(result).isEqualTo(3);
+    }
+
+    @Test
+    void getTotalsBetween_shouldUseRollupsForStatusAndAggregationOtherwise() {
+        PaymentTotalDto success = new PaymentTotalDto("SUCCESS", BigDecimal.TEN, 2);
+        PaymentTotalDto user = new PaymentTotalDto("1", BigDecimal.TEN, 2);
+        when(paymentRollupStore.totalsByStatusBetween(any(), any())).thenReturn(List.of(success));
+        when(paymentRepository.sumAmountsBetween(any(), any(), eq(PaymentGrouping.USER))).thenReturn(List.of(user));
+
+        Instant from = Instant.now().minusSeconds(3600);
+        Instant to = Instant.now();
+
+        assertThat(paymentService.getTotalsBetween(from, to, PaymentGrouping.STATUS)).containsExactly(success);
+        assertThat(paymentService.getTotalsBetween(from, to, PaymentGrouping.USER)).containsExactly(user);
     }
 
     @Test
@@ -115,7 +238,7 @@ class PaymentServiceImplTest {
         PaymentDto dto = PaymentDto.builder().orderId(1L).userId(2L).status(PaymentStatus.SUCCESS).timestamp(Instant.now()).build();
 
         when(paymentMapper.toEntity(any())).thenReturn(new Payment());
-        when(paymentRepository.save(any())).thenReturn(new Payment());
+        when(paymentRepository.insert(any(Payment.class))).thenReturn(new Payment());
         when(paymentMapper.toDto(any())).thenReturn(dto);
 
         PaymentDto result = paymentService.processOrderEvent(event, true);
@@ -137,4 +260,131 @@ class PaymentServiceImplTest {
         assertThat(event.getOrderId()).isEqualTo(1L);
         assertThat(event.getStatus()).isEqualTo(PaymentStatus.SUCCESS);
     }
+
+    @Test
+    void findProcessedOrderIds_shouldReturnExistingOrderIds() {
+        Payment existing = new Payment();
+        existing.setOrderId(1L);
+
+        when(processedOrderFilter.mightBeProcessed(3L)).thenReturn(false);
+        when(paymentRepository.findOrderIdsByPaymentIdIn(List.of("PAYMENT-1", "PAYMENT-2"))).thenReturn(List.of(existing));
+
+        Set<Long> result = paymentService.findProcessedOrderIds(List.of(1L, 2L, 3L));
+
+        assertThat(result).containsExactly(1L);
+    }
+
+    @Test
+    void processOrderEvents_shouldBulkInsertAndReturnInsertedDtos() {
+        OrderEvent first = new OrderEvent(1L, 2L, BigDecimal.ONE);
+        OrderEvent second = new OrderEvent(3L, 4L, BigDecimal.TEN);
+        Map<OrderEvent, Boolean> decisions = new LinkedHashMap<>();
+        decisions.put(first, true);
+        decisions.put(second, false);
+
+        Payment inserted = new Payment();
+        PaymentDto dto = PaymentDto.builder().orderId(1L).status(PaymentStatus.SUCCESS).build();
+
+        when(paymentMapper.toEntity(any())).thenReturn(inserted, new Payment());
+        when(paymentRepository.insertAllUnordered(any())).thenReturn(List.of(inserted));
+        when(paymentMapper.toDto(inserted)).thenReturn(dto);
+
+        List<PaymentDto> result = paymentService.processOrderEvents(decisions, false);
+
+        assertThat(result).containsExactly(dto);
+        assertThat(inserted.getEventPending()).isNull();
+        verify(paymentRepository).insertAllUnordered(any());
+        verify(paymentRollupStore).record(List.of(inserted));
+    }
+
+    @Test
+    void processOrderEvents_shouldMarkEventsUnsentWhenTracked() {
+        Payment payment = new Payment();
+        when(paymentMapper.toEntity(any())).thenReturn(payment);
+        when(paymentRepository.insertAllUnordered(any())).thenReturn(List.of(payment));
+
+        paymentService.processOrderEvents(Map.of(new OrderEvent(1L, 2L, BigDecimal.ONE), true), true);
+
+        assertThat(payment.getEventPending()).isTrue();
+    }
+
+    @Test
+    void findUnsentEvents_shouldReturnOnlyPaymentsWithPendingEvent() {
+        Payment unsent = new Payment();
+        unsent.setPaymentId("PAYMENT-1");
+        unsent.setOrderId(1L);
+        unsent.setStatus(PaymentStatus.SUCCESS);
+        when(paymentRepository.findPendingEventsByPaymentIdIn(List.of("PAYMENT-1", "PAYMENT-2"))).thenReturn(List.of(unsent));
+
+        List<PaymentEvent> result = paymentService.findUnsentEvents(List.of(1L, 2L));
+
+        assertThat(result).containsExactly(new PaymentEvent("PAYMENT-1", 1L, PaymentStatus.SUCCESS));
+    }
+
+    @Test
+    void getPageByUserId_shouldReturnCursorOfLastItemWhenMoreExist() {
+        Payment first = payment("PAYMENT-2", Instant.parse("2026-10-18T10:00:01Z"));
+        Payment second = payment("PAYMENT-1", Instant.parse("2026-10-18T10:00:00Z"));
+        Payment extra = payment("PAYMENT-0", Instant.parse("2026-10-18T09:59:59Z"));
+        when(paymentRepository.findPageByUserId(7L, null, PaymentCache.RECENT_BY_USER + 1))
+                .thenReturn(List.of(first, second, extra));
+        for (Payment payment : List.of(first, second, extra)) {
+            when(paymentMapper.toDto(payment)).thenReturn(PaymentDto.builder()
+                    .paymentId(payment.getPaymentId()).timestamp(payment.getTimestamp()).build());
+        }
+
+        PaymentPageDto page = paymentService.getPageByUserId(7L, null, 2);
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(PaymentCursor.decode(page.getNextCursor()))
+                .isEqualTo(new PaymentCursor(second.getTimestamp(), "PAYMENT-1"));
+    }
+
+    @Test
+    void getPageByStatuses_shouldContinueFromCursorAndEndWithoutNextCursor() {
+        PaymentCursor cursor = new PaymentCursor(Instant.parse("2026-10-18T10:00:00Z"), "PAYMENT-1");
+        Payment last = payment("PAYMENT-0", Instant.parse("2026-10-18T09:59:59Z"));
+        when(paymentRepository.findPageByStatusIn(Set.of(PaymentStatus.SUCCESS), cursor, 11)).thenReturn(List.of(last));
+        when(paymentMapper.toDto(last)).thenReturn(PaymentDto.builder().paymentId("PAYMENT-0").build());
+
+        PaymentPageDto page = paymentService.getPageByStatuses(Set.of(PaymentStatus.SUCCESS), cursor.encode(), 10);
+
+        assertThat(page.getContent()).extracting(PaymentDto::getPaymentId).containsExactly("PAYMENT-0");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getPage_shouldCapPageSizeAndRejectInvalidInput() {
+        when(paymentRepository.findPageByUserId(7L, null, PaymentServiceImpl.MAX_PAGE_SIZE + 1)).thenReturn(List.of());
+
+        assertThat(paymentService.getPageByUserId(7L, null, Integer.MAX_VALUE).getContent()).isEmpty();
+        assertThatThrownBy(() -> paymentService.getPageByUserId(7L, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> paymentService.getPageByUserId(7L, "not a cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void streamByUserId_shouldMapLazilyAndCloseCursor() {
+        Payment entity = new Payment();
+        PaymentDto dto = PaymentDto.builder().userId(7L).build();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(paymentRepository.streamByUserIdOrderByTimestampDescPaymentIdDesc(7L))
+                .thenReturn(Stream.of(entity).onClose(() -> closed.set(true)));
+        when(paymentMapper.toDto(entity)).thenReturn(dto);
+
+        try (Stream<PaymentDto> payments = paymentService.streamByUserId(7L)) {
+            verify(paymentMapper, never()).toDto(any());
+            assertThat(payments).containsExactly(dto);
+        }
+
+        assertThat(closed).isTrue();
+    }
+
+    private static Payment payment(String paymentId, Instant timestamp) {
+        Payment payment = new Payment();
+        payment.setPaymentId(paymentId);
+        payment.setTimestamp(timestamp);
+        return payment;
+    }
 }
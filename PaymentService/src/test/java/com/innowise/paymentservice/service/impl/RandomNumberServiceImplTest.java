@@ -1,6 +1,8 @@
 package com.innowise.paymentservice.service.impl;
 
 import com.innowise.paymentservice.config.RandomNumberClient;
+import com.innowise.paymentservice.config.RandomNumberPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
@@ -10,6 +12,8 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class RandomNumberServiceImplTest {
@@ -20,7 +24,8 @@ class RandomNumberServiceImplTest {
     @BeforeEach
     void setUp() {
         client = mock(RandomNumberClient.class);
-        service = new RandomNumberServiceImpl(client);
+        service = new RandomNumberServiceImpl(new RandomNumberPool(client, 16, 4, new SimpleMeterRegistry()));
+        when(client.prefetchRandomNumbers()).thenReturn(Mono.empty());
     }
 
     @Test
@@ -59,6 +64,21 @@ class RandomNumberServiceImplTest {
                 .verifyComplete();
     }
 
+    @Test
+    void isEven_shouldServePrefetchedNumbers() {
+        when(client.fetchRandomNumbers()).thenReturn(Mono.just(List.of(17)));
+        when(client.prefetchRandomNumbers()).thenReturn(Mono.just(List.of(42)));
+
+        StepVerifier.create(service.isEven())
+                .expectNext(false)
+                .verifyComplete();
+        StepVerifier.create(service.isEven())
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(client, times(1)).fetchRandomNumbers();
+    }
+
     @Test
     void isEven_shouldReturnFalse_onError() {
         when(client.fetchRandomNumbers()).thenReturn(Mono.error(new RuntimeException("API error")));
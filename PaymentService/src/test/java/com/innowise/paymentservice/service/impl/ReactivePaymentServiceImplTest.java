@@ -0,0 +1,125 @@
+package com.innowise.paymentservice.service.impl;
+
+import com.innowise.paymentservice.cache.PaymentCache;
+import com.innowise.paymentservice.dedup.ProcessedOrderFilter;
+import com.innowise.paymentservice.exception.PaymentAlreadyProcessedException;
+import com.innowise.paymentservice.mapper.PaymentMapper;
+import com.innowise.paymentservice.model.PaymentStatus;
+import com.innowise.paymentservice.model.dto.OrderEvent;
+import com.innowise.paymentservice.model.dto.PaymentDto;
+import com.innowise.paymentservice.model.entity.Payment;
+import com.innowise.paymentservice.outbox.PaymentOutbox;
+import com.innowise.paymentservice.repository.ReactivePaymentRepository;
+import com.innowise.paymentservice.rollup.PaymentRollupStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactivePaymentServiceImplTest {
+
+    private ReactivePaymentRepository repository;
+    private PaymentMapper paymentMapper;
+    private ProcessedOrderFilter processedOrderFilter;
+    private PaymentRollupStore paymentRollupStore;
+    private ReactivePaymentServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ReactivePaymentRepository.class);
+        paymentMapper = mock(PaymentMapper.class);
+        processedOrderFilter = mock(ProcessedOrderFilter.class);
+        paymentRollupStore = mock(PaymentRollupStore.class);
+        when(paymentRollupStore.markPending(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentRollupStore.recordReactive(any())).thenReturn(Mono.empty());
+        service = new ReactivePaymentServiceImpl(repository, paymentMapper, processedOrderFilter, paymentRollupStore,
+                mock(PaymentCache.class), new PaymentOutbox("direct"));
+    }
+
+    @Test
+    void processOrderEvent_shouldInsertAndMarkOrder() {
+        OrderEvent event = new OrderEvent(1L, 2L, BigDecimal.TEN);
+        Payment saved = new Payment();
+        saved.setOrderId(1L);
+        PaymentDto dto = PaymentDto.builder().orderId(1L).status(PaymentStatus.SUCCESS).build();
+
+        when(paymentMapper.toEntity(any())).thenReturn(new Payment());
+        when(repository.insert(any(Payment.class))).thenReturn(Mono.just(saved));
+        when(paymentMapper.toDto(saved)).thenReturn(dto);
+
+        StepVerifier.create(service.processOrderEvent(event, true))
+                .expectNext(dto)
+                .verifyComplete();
+        verify(processedOrderFilter).markProcessed(1L);
+    }
+
+    @Test
+    void processOrderEvent_shouldTranslateDuplicateKey() {
+        OrderEvent event = new OrderEvent(1L, 2L, BigDecimal.TEN);
+
+        when(paymentMapper.toEntity(any())).thenReturn(new Payment());
+        when(repository.insert(any(Payment.class))).thenReturn(Mono.error(new DuplicateKeyException("E11000")));
+
+        StepVerifier.create(service.processOrderEvent(event, false))
+                .expectError(PaymentAlreadyProcessedException.class)
+                .verify();
+    }
+
+    @Test
+    void processOrderEvent_shouldRejectInvalidEvent() {
+        StepVerifier.create(service.processOrderEvent(new OrderEvent(), true))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void isAlreadyProcessed_shouldSkipMongoWhenFilterRulesOrderOut() {
+        when(processedOrderFilter.mightBeProcessed(7L)).thenReturn(false);
+
+        StepVerifier.create(service.isAlreadyProcessed(7L))
+                .expectNext(false)
+                .verifyComplete();
+        verify(repository, never()).existsById(any(String.class));
+    }
+
+    @Test
+    void isAlreadyProcessed_shouldQueryByPaymentId() {
+        when(processedOrderFilter.mightBeProcessed(7L)).thenReturn(true);
+        when(repository.existsById("PAYMENT-7")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.isAlreadyProcessed(7L))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void findByStatuses_shouldMapEachPaymentOnDemand() {
+        Payment first = new Payment();
+        Payment second = new Payment();
+        PaymentDto firstDto = PaymentDto.builder().paymentId("PAYMENT-2").build();
+        PaymentDto secondDto = PaymentDto.builder().paymentId("PAYMENT-1").build();
+
+        when(repository.findByStatusInOrderByTimestampDescPaymentIdDesc(Set.of(PaymentStatus.SUCCESS)))
+                .thenReturn(Flux.just(first, second));
+        when(paymentMapper.toDto(first)).thenReturn(firstDto);
+        when(paymentMapper.toDto(second)).thenReturn(secondDto);
+
+        StepVerifier.create(service.findByStatuses(Set.of(PaymentStatus.SUCCESS)), 1)
+                .expectNext(firstDto)
+                .then(() -> verify(paymentMapper, never()).toDto(second))
+                .thenRequest(1)
+                .expectNext(secondDto)
+                .verifyComplete();
+    }
+}